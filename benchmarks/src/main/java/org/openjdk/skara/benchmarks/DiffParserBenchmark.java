@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2024, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.openjdk.skara.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.skara.vcs.*;
+import org.openjdk.skara.vcs.tools.GitRawDiffParser;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DiffParserBenchmark {
+    @Param({"10", "500"})
+    int files;
+
+    @Param({"10"})
+    int hunksPerFile;
+
+    private byte[] rawDiff;
+    private List<String> unifiedDiff;
+
+    @Setup
+    public void setup() {
+        rawDiff = Fixtures.gitRawDiff(files, hunksPerFile).getBytes(StandardCharsets.UTF_8);
+        unifiedDiff = Fixtures.unifiedDiff(files * hunksPerFile);
+    }
+
+    @Benchmark
+    public List<Patch> gitRawDiffParser() throws IOException {
+        return GitRawDiffParser.parse(new ByteArrayInputStream(rawDiff));
+    }
+
+    @Benchmark
+    public List<Hunk> unifiedDiffParser() {
+        return UnifiedDiffParser.parseSingleFileDiff(unifiedDiff);
+    }
+}
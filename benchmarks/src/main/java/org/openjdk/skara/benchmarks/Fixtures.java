@@ -0,0 +1,238 @@
+/*
+ * Copyright (c) 2024, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.openjdk.skara.benchmarks;
+
+import org.openjdk.skara.vcs.*;
+
+import java.io.*;
+import java.nio.file.*;
+import java.time.Instant;
+import java.util.*;
+
+/**
+ * Generates the synthetic input used by the benchmarks. All content is derived
+ * from the requested sizes only, so that results are comparable between runs.
+ */
+class Fixtures {
+    /**
+     * A JSON array shaped like a page of pull requests as returned by a forge.
+     */
+    static String pullRequests(int count) {
+        var sb = new StringBuilder("[");
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                sb.append(",\n");
+            }
+            sb.append("{\"id\": ").append(1_000_000 + i)
+              .append(", \"number\": ").append(i)
+              .append(", \"title\": \"8").append(100_000 + i).append(": Fix issue number ").append(i).append(" in \\\"module\\\"\"")
+              .append(", \"body\": \"").append("Some description of the change\\n\\n".repeat(8)).append("\"")
+              .append(", \"draft\": ").append(i % 7 == 0)
+              .append(", \"merged_at\": null")
+              .append(", \"score\": ").append(i * 0.25)
+              .append(", \"user\": {\"login\": \"user").append(i % 50).append("\", \"id\": ").append(i % 50).append("}")
+              .append(", \"labels\": [{\"name\": \"rfr\"}, {\"name\": \"build\"}, {\"name\": \"core-libs\"}]")
+              .append("}");
+        }
+        sb.append("]");
+        return sb.toString();
+    }
+
+    private static String hash(int file, int version) {
+        return String.format("%040x", (long) file * 1_000 + version);
+    }
+
+    /**
+     * The output of "git diff --raw --patch --unified=0" for the given number of
+     * modified files, each with the given number of hunks.
+     */
+    static String gitRawDiff(int files, int hunksPerFile) {
+        var sb = new StringBuilder();
+        for (int f = 0; f < files; f++) {
+            sb.append(":100644 100644 ").append(hash(f, 0)).append(" ").append(hash(f, 1))
+              .append(" M\tsrc/main/java/org/example/File").append(f).append(".java\n");
+        }
+        sb.append("\n");
+        for (int f = 0; f < files; f++) {
+            var path = "src/main/java/org/example/File" + f + ".java";
+            sb.append("diff --git a/").append(path).append(" b/").append(path).append("\n");
+            sb.append("index ").append(hash(f, 0)).append("..").append(hash(f, 1)).append(" 100644\n");
+            sb.append("--- a/").append(path).append("\n");
+            sb.append("+++ b/").append(path).append("\n");
+            for (int h = 0; h < hunksPerFile; h++) {
+                var line = 10 + h * 20;
+                sb.append("@@ -").append(line).append(",2 +").append(line).append(",3 @@\n");
+                sb.append("-        var value = compute(").append(h).append(");\n");
+                sb.append("-        return value;\n");
+                sb.append("+        var value = compute(").append(h).append(", true);\n");
+                sb.append("+        log(value);\n");
+                sb.append("+        return value;\n");
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * The lines of a unified diff with context for a single file.
+     */
+    static List<String> unifiedDiff(int hunks) {
+        var lines = new ArrayList<String>();
+        lines.add("diff --git a/README b/README");
+        lines.add("index " + hash(0, 0) + ".." + hash(0, 1) + " 100644");
+        lines.add("--- a/README");
+        lines.add("+++ b/README");
+        for (int h = 0; h < hunks; h++) {
+            var line = 10 + h * 20;
+            lines.add("@@ -" + line + ",7 +" + line + ",8 @@ class Example {");
+            lines.add("     // context before " + h);
+            lines.add("     // context before " + h);
+            lines.add("     // context before " + h);
+            lines.add("-    removed line " + h);
+            lines.add("+    added line " + h);
+            lines.add("+    another added line " + h);
+            lines.add("     // context after " + h);
+            lines.add("     // context after " + h);
+            lines.add("     // context after " + h);
+        }
+        return lines;
+    }
+
+    /**
+     * Writes a census directory with the given number of contributors, all of
+     * them members of a single group and project.
+     */
+    static void census(Path dir, int contributors) throws IOException {
+        Files.createDirectories(dir.resolve("groups"));
+        Files.createDirectories(dir.resolve("projects"));
+        Files.createDirectories(dir.resolve("namespaces"));
+
+        var contributorLines = new ArrayList<String>();
+        contributorLines.add("<?xml version=\"1.0\" encoding=\"UTF-8\" ?>");
+        contributorLines.add("<contributors>");
+        for (int i = 0; i < contributors; i++) {
+            contributorLines.add("    <contributor username=\"user" + i + "\" full-name=\"User Number " + i + "\" />");
+        }
+        contributorLines.add("</contributors>");
+        Files.write(dir.resolve("contributors.xml"), contributorLines);
+
+        var groupLines = new ArrayList<String>();
+        groupLines.add("<?xml version=\"1.0\" encoding=\"UTF-8\" ?>");
+        groupLines.add("<group name=\"test\" full-name=\"TEST\">");
+        groupLines.add("    <lead username=\"user0\" />");
+        for (int i = 0; i < contributors; i++) {
+            groupLines.add("    <member username=\"user" + i + "\" since=\"0\" />");
+        }
+        groupLines.add("</group>");
+        Files.write(dir.resolve("groups").resolve("test.xml"), groupLines);
+
+        var projectLines = new ArrayList<String>();
+        projectLines.add("<?xml version=\"1.0\" encoding=\"UTF-8\" ?>");
+        projectLines.add("<project name=\"test\" full-name=\"TEST\" sponsor=\"test\">");
+        projectLines.add("    <lead username=\"user0\" since=\"0\" />");
+        for (int i = 1; i < contributors; i++) {
+            var role = switch (i % 3) {
+                case 0 -> "reviewer";
+                case 1 -> "committer";
+                default -> "author";
+            };
+            projectLines.add("    <" + role + " username=\"user" + i + "\" since=\"0\" />");
+        }
+        projectLines.add("</project>");
+        Files.write(dir.resolve("projects").resolve("test.xml"), projectLines);
+
+        var namespaceLines = new ArrayList<String>();
+        namespaceLines.add("<?xml version=\"1.0\" encoding=\"UTF-8\" ?>");
+        namespaceLines.add("<namespace name=\"github.com\">");
+        for (int i = 0; i < contributors; i++) {
+            namespaceLines.add("    <user id=\"" + (1_000_000 + i) + "\" census=\"user" + i + "\" />");
+        }
+        namespaceLines.add("</namespace>");
+        Files.write(dir.resolve("namespaces").resolve("github.xml"), namespaceLines);
+
+        Files.write(dir.resolve("version.xml"), List.of(
+                "<?xml version=\"1.0\" encoding=\"UTF-8\" ?>",
+                "<version format=\"1\" timestamp=\"" + Instant.EPOCH + "\" />"));
+    }
+
+    /**
+     * Creates a git repository with a jcheck configuration in the initial commit,
+     * followed by the given number of commits that each modify a few source files.
+     * Commit messages and authors are valid for the census created by {@link #census}.
+     */
+    static Repository repository(Path dir, int commits, int filesPerCommit) throws IOException {
+        Repository.ignoreConfiguration();
+        var repo = Repository.init(dir, VCS.GIT);
+
+        Files.createDirectories(dir.resolve(".jcheck"));
+        var conf = dir.resolve(".jcheck/conf");
+        Files.write(conf, List.of(
+                "[general]",
+                "project=test",
+                "jbs=TEST",
+                "",
+                "[checks]",
+                "error=author,committer,reviewers,merge,message,issues,executable,symlink,whitespace",
+                "",
+                "[census]",
+                "version=0",
+                "domain=openjdk.org",
+                "",
+                "[checks \"whitespace\"]",
+                "files=.*\\.java",
+                "",
+                "[checks \"reviewers\"]",
+                "reviewers=1"));
+        repo.add(conf);
+        repo.commit("Initial commit\n\nReviewed-by: user3", "user1", "user1@openjdk.org");
+
+        var sources = dir.resolve("src");
+        Files.createDirectories(sources);
+        var fileCount = Math.max(filesPerCommit * 4, 1);
+        for (int c = 0; c < commits; c++) {
+            for (int f = 0; f < filesPerCommit; f++) {
+                var file = sources.resolve("File" + ((c * filesPerCommit + f) % fileCount) + ".java");
+                var lines = Files.exists(file) ? new ArrayList<>(Files.readAllLines(file)) : new ArrayList<String>();
+                for (int l = 0; l < 20; l++) {
+                    lines.add(Math.min(lines.size(), l * 7), "    int field" + c + "_" + l + " = " + (c * l) + ";");
+                }
+                Files.write(file, lines);
+                repo.add(file);
+            }
+            var message = (1_000_000 + c) + ": Change number " + c + "\n\nReviewed-by: user3";
+            repo.commit(message, "user1", "user1@openjdk.org");
+        }
+        return repo;
+    }
+
+    static void delete(Path dir) throws IOException {
+        if (!Files.exists(dir)) {
+            return;
+        }
+        try (var paths = Files.walk(dir)) {
+            for (var path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                path.toFile().setWritable(true);
+                Files.delete(path);
+            }
+        }
+    }
+}
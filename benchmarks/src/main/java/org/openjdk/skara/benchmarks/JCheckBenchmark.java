@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2024, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.openjdk.skara.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.skara.census.Census;
+import org.openjdk.skara.jcheck.*;
+import org.openjdk.skara.vcs.*;
+import org.openjdk.skara.vcs.openjdk.CommitMessageParsers;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class JCheckBenchmark {
+    @Param({"50"})
+    int commits;
+
+    @Param({"3"})
+    int filesPerCommit;
+
+    private Path dir;
+    private Repository repository;
+    private Census census;
+    private String range;
+
+    @Setup
+    public void setup() throws IOException {
+        dir = Files.createTempDirectory("jcheck-benchmark");
+        Fixtures.census(dir.resolve("census"), 10);
+        census = Census.parse(dir.resolve("census"));
+        repository = Fixtures.repository(dir.resolve("repo"), commits, filesPerCommit);
+        var first = repository.resolve("HEAD~" + commits).orElseThrow();
+        range = first.hex() + ".." + repository.head().hex();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Fixtures.delete(dir);
+    }
+
+    @Benchmark
+    public int check() throws IOException {
+        var count = 0;
+        try (var issues = JCheck.check(repository, census, CommitMessageParsers.v1, range, null)) {
+            for (var issue : issues) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
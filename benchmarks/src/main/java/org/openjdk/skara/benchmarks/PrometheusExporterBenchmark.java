@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) 2024, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.openjdk.skara.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.skara.metrics.*;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PrometheusExporterBenchmark {
+    @Param({"100", "10000"})
+    int metrics;
+
+    private final PrometheusExporter exporter = new PrometheusExporter();
+    private List<Metric> collected;
+
+    @Setup
+    public void setup() {
+        collected = new ArrayList<>(metrics);
+        for (int i = 0; i < metrics; i++) {
+            var type = i % 2 == 0 ? Metric.Type.COUNTER : Metric.Type.GAUGE;
+            var labels = List.of(new Metric.Label("bot", "bot" + (i % 20)),
+                                 new Metric.Label("work_item", "WorkItem" + (i % 50)));
+            collected.add(new Metric(type, "skara_metric_" + (i % 10), labels, i * 1.5));
+        }
+    }
+
+    @Benchmark
+    public String export() {
+        return exporter.export(collected);
+    }
+}
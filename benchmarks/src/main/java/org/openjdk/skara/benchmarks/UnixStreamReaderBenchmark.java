@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2024, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.openjdk.skara.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.skara.vcs.tools.UnixStreamReader;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UnixStreamReaderBenchmark {
+    @Param({"1000", "100000"})
+    int lines;
+
+    private byte[] input;
+
+    @Setup
+    public void setup() {
+        var sb = new StringBuilder();
+        for (int i = 0; i < lines; i++) {
+            sb.append("+        var value").append(i).append(" = compute(").append(i).append(", åäö);\n");
+        }
+        input = sb.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public int readLine() throws IOException {
+        var reader = new UnixStreamReader(new ByteArrayInputStream(input));
+        var count = 0;
+        while (reader.readLine() != null) {
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Reads from a stream that is not buffered, like the output of a process.
+     */
+    @Benchmark
+    public int readLineUnbuffered() throws IOException {
+        var stream = new FilterInputStream(new ByteArrayInputStream(input)) {
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                return super.read(b, off, Math.min(len, 8192));
+            }
+        };
+        var reader = new UnixStreamReader(stream);
+        var count = 0;
+        while (reader.readLine() != null) {
+            count++;
+        }
+        return count;
+    }
+}
@@ -23,6 +23,7 @@
 package org.openjdk.skara.bot;
 
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 import org.openjdk.skara.json.JSONValue;
 import org.openjdk.skara.metrics.*;
 
@@ -59,46 +60,21 @@ public class BotRunner {
 
     private final AtomicInteger workIdCounter = new AtomicInteger();
 
-    /**
-     * A wrapper for a WorkItem while it's tracked as pending. Used to track
-     * when a particular WorkItem entered the pending state so that metrics
-     * and log messages can use this information.
-     */
-    private static class PendingWorkItem {
-        private final WorkItem item;
-        private final Instant createTime;
-
-        public PendingWorkItem(WorkItem item) {
-            this(item, null);
-        }
-
-        public PendingWorkItem(WorkItem item, Instant originalCreateTime) {
-            this.item = item;
-            if (originalCreateTime != null) {
-                this.createTime = originalCreateTime;
-            } else {
-                this.createTime = Instant.now();
-            }
-        }
-    }
-
     private class RunnableWorkItem implements Runnable {
         private static final Counter.WithThreeLabels EXCEPTIONS_COUNTER =
             Counter.name("skara_runner_exceptions").labels("bot", "work_item", "exception").register();
-        /**
-         * Gauge that tracks the time WorkItems have been pending before
-         * being submitted.
-         */
-        private static final Gauge.WithTwoLabels PENDING_TIME_GAUGE =
-            Gauge.name("skara_runner_pending_time").labels("bot", "work_item").register();
         /**
          * Gauge that tracks the time WorkItems have been submitted before
          * starting to run.
          */
         private static final Gauge.WithTwoLabels SUBMITTED_TIME_GAUGE =
                 Gauge.name("skara_runner_submitted_time").labels("bot", "work_item").register();
+        private static final Histogram.WithTwoLabels SUBMITTED_TIME_HISTOGRAM =
+                Histogram.name("skara_runner_submitted_time_seconds").labels("bot", "work_item").register();
         private static final Counter.WithTwoLabels TIME_COUNTER =
                 Counter.name("skara_runner_run_time_total").labels("bot", "work_item").register();
+        private static final Histogram.WithTwoLabels TIME_HISTOGRAM =
+                Histogram.name("skara_runner_run_time_seconds").labels("bot", "work_item").register();
         private static final Counter.WithTwoLabels ITEM_FINISHED_COUNTER =
                 Counter.name("skara_runner_finished_counter").labels("bot", "work_item").register();
         private static final Counter.WithTwoLabels CPU_TIME_COUNTER =
@@ -163,13 +139,22 @@ public class BotRunner {
 
         @Override
         public void run() {
+            // With virtual threads, the number of items executing in parallel is
+            // bounded by these permits instead of by the number of threads. They
+            // are acquired before measuring, as waiting for them is not running.
+            Semaphore permits = null;
+            if (executionMode == BotRunnerConfiguration.ExecutionMode.VIRTUAL) {
+                permits = item.needsScratchPath() ? scratchPathPermits : noScratchPathPermits;
+                permits.acquireUninterruptibly();
+            }
+
             enableThreadCpuTime();
             long startCpuTimeNs = getCurrentThreadCpuTime();
             long startAllocatedBytes = getCurrentThreadAllocatedBytes();
             var start = Instant.now();
 
             try {
-                runMeasured();
+                runMeasured(permits);
             } finally {
                 ITEM_FINISHED_COUNTER.labels(item.botName(), item.workItemName()).inc();
                 long stopCpuTimeNs = getCurrentThreadCpuTime();
@@ -187,21 +172,30 @@ public class BotRunner {
                 if (allocatedBytes != -1L) {
                     ALLOCATED_BYTES_COUNTER.labels(item.botName(), item.workItemName()).inc(allocatedBytes);
                 }
-                TIME_COUNTER.labels(item.botName(), item.workItemName()).inc(
-                        Duration.between(start, Instant.now()).toMillis() / 1_000.0);
+                var duration = Duration.between(start, Instant.now());
+                TIME_COUNTER.labels(item.botName(), item.workItemName()).inc(duration.toMillis() / 1_000.0);
+                TIME_HISTOGRAM.labels(item.botName(), item.workItemName()).observe(duration);
             }
         }
 
-        private void runMeasured() {
-            Path scratchPath;
-
-            synchronized (executor) {
-                if (scratchPaths.isEmpty()) {
-                    log.warning("No scratch paths available - postponing " + item);
-                    addPending(new PendingWorkItem(item), null);
-                    return;
+        private void runMeasured(Semaphore permits) {
+            Path scratchPath = null;
+            if (item.needsScratchPath()) {
+                scratchPath = scratchPaths.pollFirst();
+                while (scratchPath == null) {
+                    // A scratch path returned after the poll would otherwise not wake up the item
+                    if (scheduler.postpone(item, () -> !scratchPaths.isEmpty())) {
+                        log.warning("No scratch paths available - postponing " + item);
+                        if (permits != null) {
+                            permits.release();
+                        }
+                        // The item may already have been submitted again
+                        active.remove(item, this);
+                        ACTIVE_GAUGE.labels(item.botName(), item.workItemName()).dec();
+                        return;
+                    }
+                    scratchPath = scratchPaths.pollFirst();
                 }
-                scratchPath = scratchPaths.removeFirst();
             }
 
             Collection<WorkItem> followUpItems = null;
@@ -210,6 +204,7 @@ public class BotRunner {
                     "work_id", String.valueOf(workId)))) {
                 var submittedDuration = Duration.between(createTime, start);
                 SUBMITTED_TIME_GAUGE.labels(item.botName(), item.workItemName()).set(submittedDuration.toMillis() / 1_000.0);
+                SUBMITTED_TIME_HISTOGRAM.labels(item.botName(), item.workItemName()).observe(submittedDuration);
                 log.log(Level.FINE, "Executing item " + item + " on repository " + scratchPath
                         + " after being submitted for " + submittedDuration,
                         new Object[]{TaskPhases.BEGIN, submittedDuration});
@@ -241,121 +236,43 @@ public class BotRunner {
                     var duration = Duration.between(start, Instant.now());
                     log.log(Level.FINE, "Item " + item + " is now done after " + duration,
                             new Object[]{TaskPhases.END, duration});
-                    synchronized (executor) {
+                    if (scratchPath != null) {
                         scratchPaths.addLast(scratchPath);
-                        done(item);
-                        if (followUpItems != null) {
-                            followUpItems.forEach(BotRunner.this::submitOrSchedule);
-                        }
                     }
-                }
-
-                synchronized (executor) {
-                    // Some of the pending items may now be eligible for execution
-                    var candidateItems = pending.entrySet().stream()
-                            .filter(e -> e.getValue().isEmpty() || !active.containsKey(e.getValue().get()))
-                            .map(Map.Entry::getKey)
-                            .toList();
-
-                    // Try the candidates against the current active set
-                    for (var candidate : candidateItems) {
-                        boolean maySubmit = true;
-                        for (var activeItem : active.keySet()) {
-                            if (!activeItem.concurrentWith(candidate.item)) {
-                                // Still can't run this candidate, leave it pending
-                                log.finer("Cannot submit candidate " + candidate + " - not concurrent with " + activeItem);
-                                maySubmit = false;
-                                break;
-                            }
-                        }
-
-                        if (maySubmit) {
-                            removePending(candidate);
-                            submit(candidate.item);
-                            var timeSinceCreation = Duration.between(candidate.createTime, Instant.now());
-                            PENDING_TIME_GAUGE.labels(candidate.item.botName(), candidate.item.workItemName())
-                                    .set(timeSinceCreation.toMillis() / 1_000.0);
-                            log.log(Level.FINE, "Submitting item " + candidate.item
-                                    + " after being pending for " + timeSinceCreation, timeSinceCreation);
-                        }
+                    if (permits != null) {
+                        permits.release();
                     }
+                    // Schedule follow-up items before marking this item as done, so
+                    // that the scheduler is never observed as idle in between
+                    if (followUpItems != null) {
+                        followUpItems.forEach(BotRunner.this::submitOrSchedule);
+                    }
+                    // Some of the pending items may now be eligible for execution
+                    done(item);
                 }
             }
         }
     }
 
-    // Mapping of pending items to the active item preventing them from running
-    private final Map<PendingWorkItem, Optional<WorkItem>> pending;
+    // Tracks pending and active items and decides when pending items may run
+    private final WorkItemScheduler scheduler;
     // Mapping of active WorkItem to their RunnableWorkItem
     private final Map<WorkItem, RunnableWorkItem> active;
     private final Deque<Path> scratchPaths;
 
     private static final Counter.WithTwoLabels SCHEDULED_COUNTER =
             Counter.name("skara_runner_scheduled_counter").labels("bot", "work_item").register();
-    private static final Counter.WithTwoLabels PENDING_COUNTER =
-            Counter.name("skara_runner_pending_counter").labels("bot", "work_item").register();
     private static final Counter.WithTwoLabels SUBMITTED_COUNTER =
             Counter.name("skara_runner_submitted_counter").labels("bot", "work_item").register();
-    private static final Counter.WithTwoLabels DISCARDED_COUNTER =
-            Counter.name("skara_runner_discarded_counter").labels("bot", "work_item").register();
     /**
      * Gauge that tracks the number of active WorkItems for each kind
      */
     private static final Gauge.WithTwoLabels ACTIVE_GAUGE =
             Gauge.name("skara_runner_active").labels("bot", "work_item").register();
-    /**
-     * Gauge that tracks the number of pending WorkItems for each kind
-     */
-    private static final Gauge.WithTwoLabels PENDING_GAUGE =
-            Gauge.name("skara_runner_pending").labels("bot", "work_item").register();
 
     private void submitOrSchedule(WorkItem item) {
         SCHEDULED_COUNTER.labels(item.botName(), item.workItemName()).inc();
-        synchronized (executor) {
-            for (var activeItem : active.keySet()) {
-                if (!activeItem.concurrentWith(item)) {
-
-                    Instant originalCreateTime = null;
-                    for (var pendingItem : pending.keySet()) {
-                        // If there are pending items of the same type that we cannot run concurrently with, replace them.
-                        if (item.replaces(pendingItem.item)) {
-                            log.finer("Discarding obsoleted item " + pendingItem +
-                                              " in favor of item " + item);
-                            DISCARDED_COUNTER.labels(item.botName(), item.workItemName()).inc();
-                            removePending(pendingItem);
-                            originalCreateTime = pendingItem.createTime;
-                            // There can't be more than one
-                            break;
-                        }
-                    }
-
-                    log.fine("Adding pending item " + item);
-                    addPending(new PendingWorkItem(item, originalCreateTime), activeItem);
-                    return;
-                }
-            }
-            log.fine("Submitting item " + item);
-            submit(item);
-        }
-    }
-
-    /**
-     * Called to add a WorkItem to the pending queue
-     * @param pendingItem Item to queue
-     * @param activeItem Optional active item that this item is waiting for
-     */
-    private void addPending(PendingWorkItem pendingItem, WorkItem activeItem) {
-        pending.put(pendingItem, Optional.ofNullable(activeItem));
-        PENDING_GAUGE.labels(pendingItem.item.botName(), pendingItem.item.workItemName()).inc();
-        PENDING_COUNTER.labels(pendingItem.item.botName(), pendingItem.item.workItemName()).inc();
-    }
-
-    /**
-     * Called to remove an item from the pending queue.
-     */
-    private void removePending(PendingWorkItem pendingItem) {
-        pending.remove(pendingItem);
-        PENDING_GAUGE.labels(pendingItem.item.botName(), pendingItem.item.workItemName()).dec();
+        scheduler.schedule(item);
     }
 
     /**
@@ -363,10 +280,10 @@ public class BotRunner {
      */
     private void submit(WorkItem item) {
         RunnableWorkItem runnableWorkItem = new RunnableWorkItem(item);
-        executor.submit(runnableWorkItem);
         active.put(item, runnableWorkItem);
         ACTIVE_GAUGE.labels(item.botName(), item.workItemName()).inc();
         SUBMITTED_COUNTER.labels(item.botName(), item.workItemName()).inc();
+        itemExecutor.submit(runnableWorkItem);
     }
 
     /**
@@ -375,6 +292,7 @@ public class BotRunner {
     private void done(WorkItem item) {
         active.remove(item);
         ACTIVE_GAUGE.labels(item.botName(), item.workItemName()).dec();
+        scheduler.done(item);
     }
 
     private void drain(Duration timeout) throws TimeoutException {
@@ -396,13 +314,11 @@ public class BotRunner {
                 }
             }
 
-            synchronized (executor) {
-                if (pending.isEmpty() && active.isEmpty()) {
-                    log.fine("Nothing awaiting scheduling - drain is finished");
-                    return;
-                } else {
-                    log.finest("Waiting for flighted tasks");
-                }
+            if (scheduler.isIdle()) {
+                log.fine("Nothing awaiting scheduling - drain is finished");
+                return;
+            } else {
+                log.finest("Waiting for flighted tasks");
             }
             try {
                 Thread.sleep(1);
@@ -416,7 +332,17 @@ public class BotRunner {
 
     private final BotRunnerConfiguration config;
     private final List<Bot> bots;
+    // Runs periodic tasks, and also WorkItems with the PLATFORM execution mode
     private final ScheduledThreadPoolExecutor executor;
+    private final ExecutorService itemExecutor;
+    // Checks bots for periodic items in parallel, null if they are checked one at a time
+    private final ExecutorService periodicExecutor;
+    private final Duration periodicTimeout;
+    // Bots that are currently being checked for periodic items
+    private final Set<Bot> checkingBots = ConcurrentHashMap.newKeySet();
+    private final BotRunnerConfiguration.ExecutionMode executionMode;
+    private final Semaphore scratchPathPermits;
+    private final Semaphore noScratchPathPermits;
     private final BotWatchdog botWatchdog;
     private final Duration watchdogWarnTimeout;
     private volatile boolean isReady;
@@ -424,20 +350,44 @@ public class BotRunner {
 
     private static final Logger log = Logger.getLogger("org.openjdk.skara.bot");
 
+    // Number of platform threads used for periodic tasks with the VIRTUAL execution mode
+    private static final int PERIODIC_THREADS = 2;
+
     public BotRunner(BotRunnerConfiguration config, List<Bot> bots) {
         this.config = config;
         this.bots = bots;
 
-        pending = new HashMap<>();
-        active = new HashMap<>();
-        scratchPaths = new LinkedList<>();
+        scheduler = new WorkItemScheduler(this::submit);
+        active = new ConcurrentHashMap<>();
+        scratchPaths = new ConcurrentLinkedDeque<>();
 
         for (int i = 0; i < config.concurrency(); ++i) {
             var folder = config.scratchFolder().resolve("scratch-" + i);
             scratchPaths.addLast(folder);
         }
 
-        executor = new ScheduledThreadPoolExecutor(config.concurrency());
+        RestRequest.setRequestWindow(config.restRequestWindow());
+        RestRequest.setCacheLimits(config.cacheMaxBytes(), config.cacheMaxEntries());
+        RestRequest.setCacheDirectory(config.cachePath().orElse(null));
+
+        executionMode = config.executionMode();
+        if (executionMode == BotRunnerConfiguration.ExecutionMode.VIRTUAL) {
+            executor = new ScheduledThreadPoolExecutor(PERIODIC_THREADS);
+            itemExecutor = Executors.newVirtualThreadPerTaskExecutor();
+            scratchPathPermits = new Semaphore(config.concurrency(), true);
+            noScratchPathPermits = new Semaphore(config.noScratchConcurrency(), true);
+        } else {
+            executor = new ScheduledThreadPoolExecutor(config.concurrency());
+            itemExecutor = executor;
+            scratchPathPermits = null;
+            noScratchPathPermits = null;
+        }
+        if (config.periodicConcurrency() > 1) {
+            periodicExecutor = Executors.newFixedThreadPool(config.periodicConcurrency());
+        } else {
+            periodicExecutor = null;
+        }
+        periodicTimeout = config.periodicTimeout();
         botWatchdog = new BotWatchdog(config.watchdogTimeout(), () -> isHealthy = false);
         watchdogWarnTimeout = config.watchdogWarnTimeout();
         isReady = false;
@@ -456,32 +406,98 @@ public class BotRunner {
             Gauge.name("skara_runner_check_time_gauge").register();
     private static final Counter.WithOneLabel PERIODIC_CHECK_TIME =
             Counter.name("skara_runner_check_time").labels("bot").register();
+    private static final Counter.WithOneLabel PERIODIC_CHECK_SKIPPED =
+            Counter.name("skara_runner_check_skipped").labels("bot").register();
+
+    private void checkBotPeriodicItems(Bot bot) {
+        Instant botStart = Instant.now();
+        try (var __ = new LogContext("bot", bot.toString())) {
+            try {
+                log.fine("Start of checking for periodic items for " + bot);
+                var items = bot.getPeriodicItems();
+                for (var item : items) {
+                    submitOrSchedule(item);
+                }
+            } catch (UncheckedRestException e) {
+                // Log as WARNING to avoid triggering alarms. Failed REST calls are tracked
+                // using metrics.
+                log.log(Level.WARNING, "RestException during periodic items checking: " + e.getMessage(), e);
+            } catch (RuntimeException e) {
+                log.log(Level.SEVERE, "Exception during periodic items checking: " + e.getMessage(), e);
+            } finally {
+                var duration = Duration.between(botStart, Instant.now());
+                log.log(Level.FINE, "Checking for periodic items for " + bot + " took " + duration, duration);
+                PERIODIC_CHECK_TIME.labels(bot.name()).inc(duration.toMillis() / 1_000.0);
+            }
+        }
+    }
+
+    private record PeriodicCheck(Bot bot, Future<?> future, AtomicReference<Instant> started) {
+    }
+
+    /**
+     * Checks all bots that are not still busy with a previous check in parallel, and
+     * waits until each of them is done or has exceeded the periodic timeout.
+     */
+    private void checkPeriodicItemsInParallel(String workId) {
+        var start = Instant.now();
+        var checks = new ArrayList<PeriodicCheck>();
+        for (var bot : bots) {
+            if (!checkingBots.add(bot)) {
+                log.warning("Still checking for periodic items for " + bot + " - skipping");
+                PERIODIC_CHECK_SKIPPED.labels(bot.name()).inc();
+                continue;
+            }
+            var started = new AtomicReference<Instant>();
+            var future = periodicExecutor.submit(() -> {
+                started.set(Instant.now());
+                try (var __ = new LogContext("work_id", workId)) {
+                    checkBotPeriodicItems(bot);
+                } finally {
+                    checkingBots.remove(bot);
+                }
+            });
+            checks.add(new PeriodicCheck(bot, future, started));
+        }
+
+        for (var check : checks) {
+            while (true) {
+                // Checks that have not started yet are waiting for a thread, count from the start
+                var checkStart = check.started().get();
+                var deadline = (checkStart != null ? checkStart : start).plus(periodicTimeout);
+                var remaining = Duration.between(Instant.now(), deadline);
+                if (remaining.isNegative() || remaining.isZero()) {
+                    log.warning("Checking for periodic items for " + check.bot() + " has not finished after "
+                            + periodicTimeout + " - continuing without waiting for it");
+                    break;
+                }
+                try {
+                    check.future().get(remaining.toMillis() + 1, TimeUnit.MILLISECONDS);
+                    break;
+                } catch (TimeoutException e) {
+                    // Check the deadline again, the check may have started after we began waiting
+                } catch (ExecutionException e) {
+                    log.log(Level.SEVERE, "Exception during periodic items checking: " + e.getMessage(), e);
+                    break;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
 
     private void checkPeriodicItems() {
-        try (var __ = new LogContext("work_id", String.valueOf(workIdCounter.incrementAndGet()))) {
+        var workId = String.valueOf(workIdCounter.incrementAndGet());
+        try (var __ = new LogContext("work_id", workId)) {
             Instant start = Instant.now();
             log.log(Level.FINE, "Start of checking for periodic items", TaskPhases.BEGIN);
             try {
-                for (var bot : bots) {
-                    Instant botStart = Instant.now();
-                    try (var ___ = new LogContext("bot", bot.toString())) {
-                        try {
-                            log.fine("Start of checking for periodic items for " + bot);
-                            var items = bot.getPeriodicItems();
-                            for (var item : items) {
-                                submitOrSchedule(item);
-                            }
-                        } catch (UncheckedRestException e) {
-                            // Log as WARNING to avoid triggering alarms. Failed REST calls are tracked
-                            // using metrics.
-                            log.log(Level.WARNING, "RestException during periodic items checking: " + e.getMessage(), e);
-                        } catch (RuntimeException e) {
-                            log.log(Level.SEVERE, "Exception during periodic items checking: " + e.getMessage(), e);
-                        } finally {
-                            var duration = Duration.between(botStart, Instant.now());
-                            log.log(Level.FINE, "Checking for periodic items for " + bot + " took " + duration, duration);
-                            PERIODIC_CHECK_TIME.labels(bot.name()).inc(duration.toMillis() / 1_000.0);
-                        }
+                if (periodicExecutor != null) {
+                    checkPeriodicItemsInParallel(workId);
+                } else {
+                    for (var bot : bots) {
+                        checkBotPeriodicItems(bot);
                     }
                 }
             } finally {
@@ -494,39 +510,37 @@ public class BotRunner {
     }
 
     private void itemWatchdog() {
-        synchronized (executor) {
-            for (var activeRunnableItem : active.values()) {
-                Instant now = Instant.now();
-                var timeoutDuration = Duration.between(activeRunnableItem.timeoutWarningTime, now);
-                if (timeoutDuration.compareTo(watchdogWarnTimeout) > 0) {
-                    log.severe("Item " + activeRunnableItem.item + " with workId " + activeRunnableItem.workId + " has been active more than " +
-                            Duration.between(activeRunnableItem.createTime, now) + " - this may be an error!");
-                    // Reset the counter to avoid continuous reporting - once every watchdogTimeout is enough
-                    activeRunnableItem.timeoutWarningTime = now;
-                }
+        for (var activeRunnableItem : active.values()) {
+            Instant now = Instant.now();
+            var timeoutDuration = Duration.between(activeRunnableItem.timeoutWarningTime, now);
+            if (timeoutDuration.compareTo(watchdogWarnTimeout) > 0) {
+                log.severe("Item " + activeRunnableItem.item + " with workId " + activeRunnableItem.workId + " has been active more than " +
+                        Duration.between(activeRunnableItem.createTime, now) + " - this may be an error!");
+                // Reset the counter to avoid continuous reporting - once every watchdogTimeout is enough
+                activeRunnableItem.timeoutWarningTime = now;
             }
-            // Inform the global watchdog that the scheduler is still executing items
-            log.fine("Pinging Watchdog");
-            botWatchdog.ping();
         }
+        // Inform the global watchdog that the scheduler is still executing items
+        log.fine("Pinging Watchdog");
+        botWatchdog.ping();
     }
 
     void processWebhook(JSONValue request) {
         try (var __ = new LogContext("work_id", String.valueOf(workIdCounter.incrementAndGet()))) {
             log.log(Level.FINE, "Starting processing of incoming rest request", TaskPhases.BEGIN);
             log.fine("Request: " + request);
-            try {
-                for (var bot : bots) {
+            for (var bot : bots) {
+                // A bot failing to handle the request should not keep the others from handling it
+                try {
                     var items = bot.processWebHook(request);
                     for (var item : items) {
                         submitOrSchedule(item);
                     }
+                } catch (RuntimeException e) {
+                    log.log(Level.SEVERE, "Exception during rest request processing: " + e.getMessage(), e);
                 }
-            } catch (RuntimeException e) {
-                log.log(Level.SEVERE, "Exception during rest request processing: " + e.getMessage(), e);
-            } finally {
-                log.log(Level.FINE, "Done processing incoming rest request", TaskPhases.END);
             }
+            log.log(Level.FINE, "Done processing incoming rest request", TaskPhases.END);
         }
     }
 
@@ -536,6 +550,7 @@ public class BotRunner {
 
     public void run(Duration timeout) {
         log.info("Periodic task interval: " + config.scheduledExecutionPeriod());
+        log.info("Execution mode: " + executionMode);
         log.info("Concurrency: " + config.concurrency());
 
         HttpServer server = null;
@@ -575,11 +590,16 @@ public class BotRunner {
             server.stop(0);
         }
         executor.shutdown();
+        itemExecutor.shutdown();
+        if (periodicExecutor != null) {
+            periodicExecutor.shutdown();
+        }
     }
 
     public void runOnce(Duration timeout) throws TimeoutException {
         log.info("Starting BotRunner execution, will run once");
         log.info("Timeout: " + timeout);
+        log.info("Execution mode: " + executionMode);
         log.info("Concurrency: " + config.concurrency());
 
         var periodics = executor.submit(this::checkPeriodicItems);
@@ -597,5 +617,9 @@ public class BotRunner {
 
         log.fine("Done waiting for all tasks");
         executor.shutdown();
+        itemExecutor.shutdown();
+        if (periodicExecutor != null) {
+            periodicExecutor.shutdown();
+        }
     }
 }
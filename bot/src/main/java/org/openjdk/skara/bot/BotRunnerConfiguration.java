@@ -334,7 +334,7 @@ public class BotRunnerConfiguration {
     }
 
     /**
-     * The amount of time to wait between runs of the RestResponseCache evictions.
+     * The amount of time to wait between runs of the RestRequestCache evictions.
      * @return
      */
     Duration cacheEvictionInterval() {
@@ -347,6 +347,48 @@ public class BotRunnerConfiguration {
         }
     }
 
+    /**
+     * The maximum estimated size in bytes of the responses kept in the RestRequestCache.
+     * @return
+     */
+    Long cacheMaxBytes() {
+        if (!config.contains("runner") || !config.get("runner").contains("cache_max_bytes")) {
+            var defaultValue = 128L * 1024 * 1024;
+            log.info("No cache max bytes defined, using default value " + defaultValue);
+            return defaultValue;
+        } else {
+            return config.get("runner").get("cache_max_bytes").asLong();
+        }
+    }
+
+    /**
+     * The maximum number of responses kept in the RestRequestCache.
+     * @return
+     */
+    Integer cacheMaxEntries() {
+        if (!config.contains("runner") || !config.get("runner").contains("cache_max_entries")) {
+            var defaultValue = 100_000;
+            log.info("No cache max entries defined, using default value " + defaultValue);
+            return defaultValue;
+        } else {
+            return config.get("runner").get("cache_max_entries").asInt();
+        }
+    }
+
+    /**
+     * Folder where responses in the RestRequestCache are persisted, so that they
+     * can be reused after a restart. Responses are only kept in memory if this
+     * is not defined.
+     * @return
+     */
+    Optional<Path> cachePath() {
+        if (!config.contains("runner") || !config.get("runner").contains("cache_path")) {
+            return Optional.empty();
+        } else {
+            return Optional.of(Paths.get(config.get("runner").get("cache_path").asString()));
+        }
+    }
+
     /**
      * Number of WorkItems to execute in parallel.
      * @return
@@ -360,6 +402,82 @@ public class BotRunnerConfiguration {
         }
     }
 
+    /**
+     * Number of GET requests that may be in flight at the same time for a single
+     * forge or issue tracker account.
+     * @return
+     */
+    Integer restRequestWindow() {
+        if (!config.contains("runner") || !config.get("runner").contains("rest_request_window")) {
+            log.info("REST request window not defined, using default value");
+            return 1;
+        } else {
+            return config.get("runner").get("rest_request_window").asInt();
+        }
+    }
+
+    /**
+     * How WorkItems are executed. With PLATFORM, WorkItems run on a fixed pool of
+     * platform threads, one per scratch folder. With VIRTUAL, every WorkItem runs on
+     * its own virtual thread, and the number of WorkItems executing in parallel is
+     * instead bounded by concurrency() for items that need a scratch folder and by
+     * noScratchConcurrency() for items that don't.
+     */
+    enum ExecutionMode {
+        PLATFORM,
+        VIRTUAL
+    }
+
+    ExecutionMode executionMode() {
+        if (!config.contains("runner") || !config.get("runner").contains("execution")) {
+            log.info("No WorkItem execution mode defined, using default value");
+            return ExecutionMode.PLATFORM;
+        } else {
+            return ExecutionMode.valueOf(config.get("runner").get("execution").asString().toUpperCase());
+        }
+    }
+
+    /**
+     * Number of WorkItems that don't need a scratch folder to execute in parallel.
+     * Only used with the VIRTUAL execution mode.
+     * @return
+     */
+    Integer noScratchConcurrency() {
+        if (!config.contains("runner") || !config.get("runner").contains("no_scratch_concurrency")) {
+            log.info("WorkItem no_scratch_concurrency not defined, using default value");
+            return 64;
+        } else {
+            return config.get("runner").get("no_scratch_concurrency").asInt();
+        }
+    }
+
+    /**
+     * Number of bots to check for periodic items in parallel. With the default value
+     * of 1, the bots are checked one at a time.
+     * @return
+     */
+    Integer periodicConcurrency() {
+        if (!config.contains("runner") || !config.get("runner").contains("periodic_concurrency")) {
+            return 1;
+        } else {
+            return config.get("runner").get("periodic_concurrency").asInt();
+        }
+    }
+
+    /**
+     * The maximum amount of time to wait for a single bot to return its periodic items,
+     * when checking bots in parallel. A bot that takes longer keeps running in the
+     * background, and is skipped by later checks until it is done.
+     * @return
+     */
+    Duration periodicTimeout() {
+        if (!config.contains("runner") || !config.get("runner").contains("periodic_timeout")) {
+            return Duration.ofMinutes(5);
+        } else {
+            return Duration.parse(config.get("runner").get("periodic_timeout").asString());
+        }
+    }
+
     /**
      * Folder that WorkItems may use to store temporary data.
      * @return
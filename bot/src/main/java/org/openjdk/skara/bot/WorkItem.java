@@ -42,6 +42,28 @@ public interface WorkItem {
         return this.getClass().equals(other.getClass()) && !concurrentWith(other);
     }
 
+    /**
+     * Optionally return a key identifying the entity this item operates on, used by the
+     * BotRunner to index pending and active items. Two items that both return a key must
+     * not run concurrently if the keys are equal, and must be able to run concurrently
+     * if they differ, as the keys are then compared instead of calling
+     * <code>concurrentWith</code>. Keys are shared between all bots, so they should
+     * include enough context (e.g. item kind, repository and PR id) to be unique.
+     * Items without a key are always checked using <code>concurrentWith</code>.
+     */
+    default Optional<String> conflictKey() {
+        return Optional.empty();
+    }
+
+    /**
+     * Return false if this item never uses the scratch folder passed to <code>run</code>,
+     * for example because it only makes REST calls. Such items are called with a null
+     * scratch folder, and do not count towards the number of scratch folders in use.
+     */
+    default boolean needsScratchPath() {
+        return true;
+    }
+
     /**
      * Execute the appropriate tasks with the provided scratch folder. Optionally return follow-up work items
      * that will be scheduled for execution.
@@ -0,0 +1,350 @@
+/*
+ * Copyright (c) 2024, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.openjdk.skara.bot;
+
+import org.openjdk.skara.metrics.*;
+
+import java.time.*;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.*;
+import java.util.logging.*;
+
+/**
+ * Keeps track of which WorkItems are active and which are pending, and decides
+ * when a pending item may be submitted for execution.
+ * <p>
+ * Pending items are indexed by the active item that is currently blocking them,
+ * so when an item is done, only the items that were waiting for it need to be
+ * reconsidered. Items that provide a {@link WorkItem#conflictKey()} are also
+ * indexed by that key, which makes both the conflict check against the active
+ * set and the search for replaceable pending items a map lookup. Items without
+ * a key fall back to pairwise {@link WorkItem#concurrentWith(WorkItem)} checks.
+ * <p>
+ * All bookkeeping is done while holding a private lock that is only held for
+ * the duration of the index updates. Submission of eligible items through the
+ * provided submitter always happens after the lock has been released.
+ */
+class WorkItemScheduler {
+    /**
+     * A wrapper for a WorkItem while it's tracked as pending. Used to track
+     * when a particular WorkItem entered the pending state so that metrics
+     * and log messages can use this information.
+     */
+    private static class PendingWorkItem {
+        private final WorkItem item;
+        private final Optional<String> conflictKey;
+        private final Instant createTime;
+        // The active item preventing this item from running, if any
+        private WorkItem blocker;
+
+        PendingWorkItem(WorkItem item, Instant originalCreateTime) {
+            this.item = item;
+            this.conflictKey = item.conflictKey();
+            this.createTime = originalCreateTime != null ? originalCreateTime : Instant.now();
+        }
+
+        @Override
+        public String toString() {
+            return item.toString();
+        }
+    }
+
+    private static final Counter.WithTwoLabels PENDING_COUNTER =
+            Counter.name("skara_runner_pending_counter").labels("bot", "work_item").register();
+    private static final Counter.WithTwoLabels DISCARDED_COUNTER =
+            Counter.name("skara_runner_discarded_counter").labels("bot", "work_item").register();
+    /**
+     * Gauge that tracks the number of pending WorkItems for each kind
+     */
+    private static final Gauge.WithTwoLabels PENDING_GAUGE =
+            Gauge.name("skara_runner_pending").labels("bot", "work_item").register();
+    /**
+     * Gauge that tracks the time WorkItems have been pending before
+     * being submitted.
+     */
+    private static final Gauge.WithTwoLabels PENDING_TIME_GAUGE =
+            Gauge.name("skara_runner_pending_time").labels("bot", "work_item").register();
+    private static final Histogram.WithTwoLabels PENDING_TIME_HISTOGRAM =
+            Histogram.name("skara_runner_pending_time_seconds").labels("bot", "work_item").register();
+
+    private static final Logger log = Logger.getLogger("org.openjdk.skara.bot");
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Consumer<WorkItem> submitter;
+
+    // Active items that provide a conflict key, indexed by that key
+    private final Map<String, WorkItem> activeByKey = new HashMap<>();
+    // Active items that do not provide a conflict key
+    private final Set<WorkItem> activeWithoutKey = new LinkedHashSet<>();
+
+    // Pending items, indexed by the active item that is preventing them from running
+    private final Map<WorkItem, Set<PendingWorkItem>> waiting = new HashMap<>();
+    // Pending items that are not waiting for any particular active item
+    private final Set<PendingWorkItem> postponed = new LinkedHashSet<>();
+    // Pending items that provide a conflict key, indexed by that key
+    private final Map<String, Set<PendingWorkItem>> pendingByKey = new HashMap<>();
+    // Pending items that do not provide a conflict key
+    private final Set<PendingWorkItem> pendingWithoutKey = new LinkedHashSet<>();
+    private int pendingCount = 0;
+
+    /**
+     * @param submitter Called, without any scheduler locks held, for every item
+     *                  that has been made active and should be executed.
+     */
+    WorkItemScheduler(Consumer<WorkItem> submitter) {
+        this.submitter = submitter;
+    }
+
+    /**
+     * Either submit the item right away, or add it to the pending queue if it
+     * cannot run concurrently with one of the currently active items. A pending
+     * item that is replaced by the new item is discarded.
+     */
+    void schedule(WorkItem item) {
+        lock.lock();
+        try {
+            var blocker = findBlocker(item);
+            if (blocker.isPresent()) {
+                Instant originalCreateTime = null;
+                var replaced = findReplaced(item);
+                if (replaced.isPresent()) {
+                    log.finer("Discarding obsoleted item " + replaced.get() + " in favor of item " + item);
+                    DISCARDED_COUNTER.labels(item.botName(), item.workItemName()).inc();
+                    removePending(replaced.get());
+                    originalCreateTime = replaced.get().createTime;
+                }
+                log.fine("Adding pending item " + item);
+                addPending(new PendingWorkItem(item, originalCreateTime), blocker.get());
+                return;
+            }
+            log.fine("Submitting item " + item);
+            addActive(item);
+        } finally {
+            lock.unlock();
+        }
+        submitter.accept(item);
+    }
+
+    /**
+     * Move an active item back to the pending queue without it having run,
+     * because no resources are available to execute it right now. The item is
+     * reconsidered the next time any active item is done.
+     * <p>
+     * The availability of resources is checked while holding the scheduler lock.
+     * Resources must be returned before calling {@link #done(WorkItem)}, so
+     * either this check sees the returned resource, or the item is already
+     * pending when the returning item is marked as done.
+     *
+     * @param available Returns true if resources have become available
+     * @return false if the item was not postponed because resources are available
+     */
+    boolean postpone(WorkItem item, BooleanSupplier available) {
+        lock.lock();
+        try {
+            if (available.getAsBoolean()) {
+                return false;
+            }
+            removeActive(item);
+            addPending(new PendingWorkItem(item, null), null);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Called when an active item is done executing. Any pending items that are
+     * now eligible for execution are made active and submitted.
+     */
+    void done(WorkItem item) {
+        var eligible = new ArrayList<PendingWorkItem>();
+        lock.lock();
+        try {
+            removeActive(item);
+
+            var candidates = new ArrayList<PendingWorkItem>(postponed);
+            var waiters = waiting.remove(item);
+            if (waiters != null) {
+                candidates.addAll(waiters);
+            }
+
+            for (var candidate : candidates) {
+                var blocker = findBlocker(candidate.item);
+                if (blocker.isPresent()) {
+                    // Still can't run this candidate, leave it pending
+                    log.finer("Cannot submit candidate " + candidate + " - not concurrent with " + blocker.get());
+                    setBlocker(candidate, blocker.get());
+                } else {
+                    removePending(candidate);
+                    addActive(candidate.item);
+                    eligible.add(candidate);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        for (var candidate : eligible) {
+            var timeSinceCreation = Duration.between(candidate.createTime, Instant.now());
+            PENDING_TIME_GAUGE.labels(candidate.item.botName(), candidate.item.workItemName())
+                              .set(timeSinceCreation.toMillis() / 1_000.0);
+            PENDING_TIME_HISTOGRAM.labels(candidate.item.botName(), candidate.item.workItemName())
+                                  .observe(timeSinceCreation);
+            log.log(Level.FINE, "Submitting item " + candidate.item
+                    + " after being pending for " + timeSinceCreation, timeSinceCreation);
+            submitter.accept(candidate.item);
+        }
+    }
+
+    /**
+     * Returns true if there are neither active nor pending items.
+     */
+    boolean isIdle() {
+        lock.lock();
+        try {
+            return pendingCount == 0 && activeByKey.isEmpty() && activeWithoutKey.isEmpty();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Optional<WorkItem> findBlocker(WorkItem item) {
+        var conflictKey = item.conflictKey();
+        if (conflictKey.isPresent()) {
+            var activeItem = activeByKey.get(conflictKey.get());
+            if (activeItem != null) {
+                return Optional.of(activeItem);
+            }
+        } else {
+            for (var activeItem : activeByKey.values()) {
+                if (!activeItem.concurrentWith(item)) {
+                    return Optional.of(activeItem);
+                }
+            }
+        }
+        for (var activeItem : activeWithoutKey) {
+            if (!activeItem.concurrentWith(item)) {
+                return Optional.of(activeItem);
+            }
+        }
+        return Optional.empty();
+    }
+
+    private Optional<PendingWorkItem> findReplaced(WorkItem item) {
+        var conflictKey = item.conflictKey();
+        if (conflictKey.isPresent()) {
+            var sameKey = pendingByKey.getOrDefault(conflictKey.get(), Set.of());
+            for (var pendingItem : sameKey) {
+                if (item.replaces(pendingItem.item)) {
+                    return Optional.of(pendingItem);
+                }
+            }
+        } else {
+            for (var sameKey : pendingByKey.values()) {
+                for (var pendingItem : sameKey) {
+                    if (item.replaces(pendingItem.item)) {
+                        return Optional.of(pendingItem);
+                    }
+                }
+            }
+        }
+        for (var pendingItem : pendingWithoutKey) {
+            if (item.replaces(pendingItem.item)) {
+                return Optional.of(pendingItem);
+            }
+        }
+        return Optional.empty();
+    }
+
+    private void addActive(WorkItem item) {
+        var conflictKey = item.conflictKey();
+        if (conflictKey.isPresent()) {
+            activeByKey.put(conflictKey.get(), item);
+        } else {
+            activeWithoutKey.add(item);
+        }
+    }
+
+    private void removeActive(WorkItem item) {
+        var conflictKey = item.conflictKey();
+        if (conflictKey.isPresent()) {
+            activeByKey.remove(conflictKey.get(), item);
+        } else {
+            activeWithoutKey.remove(item);
+        }
+    }
+
+    private void setBlocker(PendingWorkItem pendingItem, WorkItem blocker) {
+        unlinkBlocker(pendingItem);
+        pendingItem.blocker = blocker;
+        if (blocker == null) {
+            postponed.add(pendingItem);
+        } else {
+            waiting.computeIfAbsent(blocker, k -> new LinkedHashSet<>()).add(pendingItem);
+        }
+    }
+
+    private void unlinkBlocker(PendingWorkItem pendingItem) {
+        if (pendingItem.blocker == null) {
+            postponed.remove(pendingItem);
+        } else {
+            var waiters = waiting.get(pendingItem.blocker);
+            if (waiters != null) {
+                waiters.remove(pendingItem);
+                if (waiters.isEmpty()) {
+                    waiting.remove(pendingItem.blocker);
+                }
+            }
+        }
+    }
+
+    private void addPending(PendingWorkItem pendingItem, WorkItem blocker) {
+        if (pendingItem.conflictKey.isPresent()) {
+            pendingByKey.computeIfAbsent(pendingItem.conflictKey.get(), k -> new LinkedHashSet<>()).add(pendingItem);
+        } else {
+            pendingWithoutKey.add(pendingItem);
+        }
+        setBlocker(pendingItem, blocker);
+        pendingCount++;
+        PENDING_GAUGE.labels(pendingItem.item.botName(), pendingItem.item.workItemName()).inc();
+        PENDING_COUNTER.labels(pendingItem.item.botName(), pendingItem.item.workItemName()).inc();
+    }
+
+    private void removePending(PendingWorkItem pendingItem) {
+        if (pendingItem.conflictKey.isPresent()) {
+            var sameKey = pendingByKey.get(pendingItem.conflictKey.get());
+            if (sameKey != null) {
+                sameKey.remove(pendingItem);
+                if (sameKey.isEmpty()) {
+                    pendingByKey.remove(pendingItem.conflictKey.get());
+                }
+            }
+        } else {
+            pendingWithoutKey.remove(pendingItem);
+        }
+        unlinkBlocker(pendingItem);
+        pendingCount--;
+        PENDING_GAUGE.labels(pendingItem.item.botName(), pendingItem.item.workItemName()).dec();
+    }
+}
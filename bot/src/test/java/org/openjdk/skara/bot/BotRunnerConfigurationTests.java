@@ -76,4 +76,16 @@ class BotRunnerConfigurationTests {
         assertEquals("repo", cfg.perBotConfiguration("xbot").repositoryName("user@host/org/repo:nested/ref"));
     }
 
+    @Test
+    void executionMode() throws ConfigurationError {
+        var empty = BotRunnerConfiguration.parse(JSON.object());
+        assertEquals(BotRunnerConfiguration.ExecutionMode.PLATFORM, empty.executionMode());
+
+        var input = JSON.object().put("runner", JSON.object().put("execution", "virtual")
+                                                             .put("no_scratch_concurrency", 100));
+        var cfg = BotRunnerConfiguration.parse(input);
+        assertEquals(BotRunnerConfiguration.ExecutionMode.VIRTUAL, cfg.executionMode());
+        assertEquals(100, cfg.noScratchConcurrency());
+    }
+
 }
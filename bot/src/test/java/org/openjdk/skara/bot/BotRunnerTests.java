@@ -32,9 +32,11 @@ import java.nio.file.Path;
 import java.time.Duration;
 import java.util.*;
 import java.util.concurrent.*;
-import java.util.function.Supplier;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.*;
 import java.util.logging.*;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class TestWorkItem implements WorkItem {
@@ -90,6 +92,39 @@ class TestWorkItemChild extends TestWorkItem {
     }
 }
 
+class TestKeyedWorkItem extends TestWorkItem {
+    private final String conflictKey;
+
+    TestKeyedWorkItem(String conflictKey, String description) {
+        super(i -> !(i instanceof TestKeyedWorkItem other) || !other.conflictKey.equals(conflictKey), description);
+        this.conflictKey = conflictKey;
+    }
+
+    @Override
+    public Optional<String> conflictKey() {
+        return Optional.of(conflictKey);
+    }
+}
+
+class TestNoScratchWorkItem extends TestWorkItem {
+    TestNoScratchWorkItem(ConcurrencyCheck concurrencyCheck, String description) {
+        super(concurrencyCheck, description);
+    }
+
+    @Override
+    public boolean needsScratchPath() {
+        return false;
+    }
+
+    @Override
+    public Collection<WorkItem> run(Path scratchPath) {
+        if (scratchPath != null) {
+            throw new IllegalStateException("Unexpected scratch path: " + scratchPath);
+        }
+        return super.run(scratchPath);
+    }
+}
+
 class TestWorkItemWithFollowup extends TestWorkItem {
     private List<WorkItem> followUpItems;
 
@@ -360,6 +395,60 @@ class BotRunnerTests {
         assertTrue(item7.hasRun);
     }
 
+    @Test
+    void virtualThreads() throws TimeoutException {
+        List<TestWorkItem> items = new LinkedList<>();
+        for (int i = 0; i < 10; ++i) {
+            items.add(new TestWorkItem(x -> true, "Item " + i));
+            items.add(new TestNoScratchWorkItem(x -> true, "No scratch item " + i));
+        }
+        var bot = new TestBot(items.toArray(new TestWorkItem[0]));
+        var config = config("{\"runner\": { \"execution\": \"virtual\", \"concurrency\": 1, \"no_scratch_concurrency\": 2 } }");
+        var runner = new BotRunner(config, List.of(bot));
+
+        runner.runOnce(Duration.ofSeconds(10));
+
+        for (var item : items) {
+            assertTrue(item.hasRun);
+        }
+    }
+
+    @Test
+    void discardBlockedItemsWithSameConflictKey() throws TimeoutException {
+        var item1 = new TestKeyedWorkItem("a", "Item 1");
+        var item2 = new TestKeyedWorkItem("a", "Item 2");
+        var item3 = new TestKeyedWorkItem("a", "Item 3");
+        var item4 = new TestKeyedWorkItem("b", "Item 4");
+        var bot = new TestBot(item1, item2, item3, item4);
+
+        var config = config("{\"runner\": { \"concurrency\": 1 } }");
+        var runner = new BotRunner(config, List.of(bot));
+
+        runner.runOnce(Duration.ofSeconds(10));
+
+        assertTrue(item1.hasRun);
+        Assertions.assertFalse(item2.hasRun);
+        assertTrue(item3.hasRun);
+        assertTrue(item4.hasRun);
+    }
+
+    @Test
+    void keyedItemBlockedByItemWithoutKey() throws TimeoutException {
+        var item1 = new TestWorkItem(i -> !(i instanceof TestKeyedWorkItem), "Item 1");
+        var item2 = new TestKeyedWorkItem("a", "Item 2");
+        var item3 = new TestKeyedWorkItem("a", "Item 3");
+        var bot = new TestBot(item1, item2, item3);
+
+        var config = config("{\"runner\": { \"concurrency\": 1 } }");
+        var runner = new BotRunner(config, List.of(bot));
+
+        runner.runOnce(Duration.ofSeconds(10));
+
+        assertTrue(item1.hasRun);
+        Assertions.assertFalse(item2.hasRun);
+        assertTrue(item3.hasRun);
+    }
+
     @Test
     @EnabledOnOs({LINUX, MAC})
     void watchdogTrigger() throws TimeoutException {
@@ -408,4 +497,59 @@ class BotRunnerTests {
         assertTrue(item2.hasRun);
         assertTrue(item3.hasRun);
     }
+
+    @Test
+    void parallelPeriodicItems() throws TimeoutException {
+        // Both bots must be checked at the same time to get past the barrier
+        var barrier = new CyclicBarrier(2);
+        var item1 = new TestWorkItem(i -> true, "Item 1");
+        var item2 = new TestWorkItem(i -> true, "Item 2");
+        Function<WorkItem, Supplier<List<WorkItem>>> awaitOther = item -> () -> {
+            try {
+                barrier.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException | BrokenBarrierException | TimeoutException e) {
+                throw new RuntimeException(e);
+            }
+            return List.of(item);
+        };
+        var bot1 = new TestBot(awaitOther.apply(item1));
+        var bot2 = new TestBot(awaitOther.apply(item2));
+        var runner = new BotRunner(config("{ \"runner\": { \"periodic_concurrency\": 2 } }"), List.of(bot1, bot2));
+
+        runner.runOnce(Duration.ofSeconds(10));
+
+        assertTrue(item1.hasRun);
+        assertTrue(item2.hasRun);
+    }
+
+    @Test
+    void slowPeriodicItemsSkipped() {
+        var latch = new CountDownLatch(1);
+        var slowChecks = new AtomicInteger();
+        var fastChecks = new AtomicInteger();
+        var slowBot = new TestBot(() -> {
+            slowChecks.incrementAndGet();
+            try {
+                latch.await();
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+            return List.of();
+        });
+        var fastBot = new TestBot(() -> {
+            fastChecks.incrementAndGet();
+            return List.of();
+        });
+        var runner = new BotRunner(config("{ \"runner\": { \"periodic_concurrency\": 2, \"periodic_timeout\": \"PT0.01S\", \"interval\": \"PT0.001S\" } }"),
+                                   List.of(slowBot, fastBot));
+
+        try {
+            runner.run(Duration.ofMillis(500));
+        } finally {
+            latch.countDown();
+        }
+
+        assertEquals(1, slowChecks.get());
+        assertTrue(fastChecks.get() > 1);
+    }
 }
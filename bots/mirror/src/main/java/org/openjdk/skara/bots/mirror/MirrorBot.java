@@ -25,6 +25,7 @@ package org.openjdk.skara.bots.mirror;
 import java.util.regex.Pattern;
 import org.openjdk.skara.bot.*;
 import org.openjdk.skara.forge.HostedRepository;
+import org.openjdk.skara.metrics.Counter;
 import org.openjdk.skara.vcs.*;
 
 import java.io.*;
@@ -42,6 +43,9 @@ import java.util.stream.Collectors;
  * setting can be used to also include tags.
  */
 class MirrorBot implements Bot, WorkItem {
+    private static final Counter.WithOneLabel skippedCounter =
+            Counter.name("skara_mirror_skipped").labels("operation").register();
+
     private final Logger log = Logger.getLogger("org.openjdk.skara.bots");;
     private final Path storage;
     private final HostedRepository from;
@@ -104,19 +108,52 @@ class MirrorBot implements Bot, WorkItem {
                 });
             }
 
-            log.info("Pulling " + from.name());
-            repo.fetchAll(from.authenticatedUrl(), includeTags || onlyTags || !refspecs.isEmpty());
+            var fetchTags = includeTags || onlyTags || !refspecs.isEmpty();
+            var sourceRefs = references(repo, from.authenticatedUrl().toString(), from.name());
+            var localRefs = references(repo, dir.toString(), dir.toString());
+            if (sourceRefs.isPresent() && localRefs.isPresent() &&
+                    fetchedRefs(sourceRefs.get(), fetchTags).equals(fetchedRefs(localRefs.get(), fetchTags))) {
+                log.info("No changes in " + from.name() + ", skipping pull");
+                skippedCounter.labels("fetch").inc();
+            } else {
+                log.info("Pulling " + from.name());
+                repo.fetchAll(from.authenticatedUrl(), fetchTags);
+                localRefs = references(repo, dir.toString(), dir.toString());
+            }
+
+            // Refspecs can map references to other names, so those are always pushed
+            var destinationRefs = refspecs.isEmpty() ? references(repo, to.authenticatedUrl().toString(), to.name())
+                                                     : Optional.<Map<String, Hash>>empty();
+            var local = localRefs.orElse(null);
+            var destination = destinationRefs.orElse(null);
             if (onlyTags) {
-                log.info("Pushing tags to " + to.name());
-                repo.pushTags(to.authenticatedUrl(), true);
+                if (local != null && destination != null && isSubset(tags(local), destination)) {
+                    log.info("No changes in tags for " + to.name() + ", skipping push");
+                    skippedCounter.labels("push").inc();
+                } else {
+                    log.info("Pushing tags to " + to.name());
+                    repo.pushTags(to.authenticatedUrl(), true);
+                }
             } else if (branchPatterns.isEmpty() && includeTags) {
-                log.info("Pushing tags and branches to " + to.name());
-                repo.pushAll(to.authenticatedUrl(), true);
+                // A mirror push also removes references, so the destination must match exactly
+                if (local != null && destination != null && fetchedRefs(local, true).equals(fetchedRefs(destination, true))) {
+                    log.info("No changes in tags and branches for " + to.name() + ", skipping push");
+                    skippedCounter.labels("push").inc();
+                } else {
+                    log.info("Pushing tags and branches to " + to.name());
+                    repo.pushAll(to.authenticatedUrl(), true);
+                }
             } else if (!branchPatterns.isEmpty()) {
+                // Pushing a branch including tags pushes all tags
+                var tagsChanged = includeTags && (local == null || destination == null || !isSubset(tags(local), destination));
                 for (var branch : repo.branches()) {
                     if (branchPatterns.stream().anyMatch(p -> p.matcher(branch.name()).matches())) {
                         var hash = repo.resolve(branch);
-                        if (hash.isPresent()) {
+                        var ref = "refs/heads/" + branch.name();
+                        if (hash.isPresent() && !tagsChanged && destination != null && hash.get().equals(destination.get(ref))) {
+                            log.info("No changes in branch " + branch.name() + " for " + to.name() + ", skipping push");
+                            skippedCounter.labels("push").inc();
+                        } else if (hash.isPresent()) {
                             log.info("Pushing branch " + branch.name() + " to " + to.name() + " " +
                                      (includeTags ? "including" : "excluding") + " tags");
                             repo.push(hash.get(), to.authenticatedUrl(), branch.name(), true, includeTags);
@@ -137,6 +174,44 @@ class MirrorBot implements Bot, WorkItem {
         return List.of();
     }
 
+    /**
+     * Lists the branches and tags of a repository without fetching anything. Returns
+     * an empty result if they cannot be listed, in which case everything is synced.
+     */
+    private Optional<Map<String, Hash>> references(Repository repo, String remote, String name) {
+        try {
+            var refs = new HashMap<String, Hash>();
+            for (var ref : repo.remoteReferences(remote)) {
+                refs.put(ref.name(), ref.hash());
+            }
+            return Optional.of(refs);
+        } catch (IOException | UncheckedIOException e) {
+            log.warning("Failed to list references of " + name + ": " + e.getMessage());
+            return Optional.empty();
+        } catch (UnsupportedOperationException e) {
+            // Mercurial repositories cannot list the references of a remote
+            log.fine("Cannot list references of " + name + ", syncing everything");
+            return Optional.empty();
+        }
+    }
+
+    private static Map<String, Hash> fetchedRefs(Map<String, Hash> refs, boolean includeTags) {
+        return refs.entrySet().stream()
+                   .filter(e -> e.getKey().startsWith("refs/heads/") || (includeTags && e.getKey().startsWith("refs/tags/")))
+                   .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+    }
+
+    private static Map<String, Hash> tags(Map<String, Hash> refs) {
+        return refs.entrySet().stream()
+                   .filter(e -> e.getKey().startsWith("refs/tags/"))
+                   .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+    }
+
+    private static boolean isSubset(Map<String, Hash> refs, Map<String, Hash> other) {
+        return refs.entrySet().stream()
+                   .allMatch(e -> e.getValue().equals(other.get(e.getKey())));
+    }
+
     @Override
     public String toString() {
         var name = "MirrorBot@" + from.name() + "->" + to.name();
@@ -26,9 +26,11 @@ import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
 import java.util.regex.Pattern;
 import org.openjdk.skara.host.*;
+import org.openjdk.skara.metrics.*;
 import org.openjdk.skara.test.*;
 import org.openjdk.skara.vcs.*;
 
+import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestInfo;
 
@@ -38,8 +40,32 @@ import java.nio.file.StandardOpenOption;
 import java.util.*;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
 
 class MirrorBotTests {
+    private static boolean hgAvailable = true;
+
+    @BeforeAll
+    static void checkHgAvailability() {
+        try {
+            var pb = new ProcessBuilder("hg", "--version");
+            pb.redirectErrorStream(true);
+            var process = pb.start();
+            process.waitFor();
+            hgAvailable = (process.exitValue() == 0);
+        } catch (Exception e) {
+            hgAvailable = false;
+        }
+    }
+
+    private static double skipped(String operation) {
+        return CollectorRegistry.defaultRegistry().scrape().stream()
+                                .filter(metric -> metric.name().equals("skara_mirror_skipped"))
+                                .filter(metric -> metric.labels().stream().anyMatch(label -> label.value().equals(operation)))
+                                .mapToDouble(Metric::value)
+                                .sum();
+    }
+
     @Test
     void mirrorMasterBranch(TestInfo testInfo) throws IOException {
         try (var temp = new TemporaryDirectory()) {
@@ -403,6 +429,101 @@ class MirrorBotTests {
         }
     }
 
+    @Test
+    void mirrorOnlyWhenChanged(TestInfo testInfo) throws IOException {
+        try (var temp = new TemporaryDirectory()) {
+            var host = TestHost.createNew(List.of(HostUser.create(0, "duke", "J. Duke")));
+
+            var fromDir = temp.path().resolve("from.git");
+            var fromLocalRepo = TestableRepository.init(fromDir, VCS.GIT);
+            var fromHostedRepo = new TestHostedRepository(host, "test", fromLocalRepo);
+
+            var toDir = temp.path().resolve("to.git");
+            var toLocalRepo = TestableRepository.init(toDir, VCS.GIT);
+            var gitConfig = toDir.resolve(".git").resolve("config");
+            Files.write(gitConfig, List.of("[receive]", "denyCurrentBranch = ignore"),
+                        StandardOpenOption.APPEND);
+            var toHostedRepo = new TestHostedRepository(host, "test-mirror", toLocalRepo);
+
+            var newFile = fromDir.resolve("this-file-cannot-exist.txt");
+            Files.writeString(newFile, "Hello world\n");
+            fromLocalRepo.add(newFile);
+            var first = fromLocalRepo.commit("An additional commit", "duke", "duke@openjdk.org");
+            fromLocalRepo.branch(first, "feature");
+
+            var storage = temp.path().resolve("storage");
+            var bot = new MirrorBot(storage, fromHostedRepo, toHostedRepo,
+                                    List.of(Pattern.compile("master"), Pattern.compile("feature")), false, false, List.of());
+            TestBotRunner.runPeriodicItems(bot);
+            assertEquals(Optional.of(first), toLocalRepo.resolve("master"));
+            assertEquals(Optional.of(first), toLocalRepo.resolve("feature"));
+
+            // Nothing has changed, so nothing should be synced
+            var skippedFetches = skipped("fetch");
+            var skippedPushes = skipped("push");
+            TestBotRunner.runPeriodicItems(bot);
+            assertEquals(Optional.of(first), toLocalRepo.resolve("master"));
+            assertEquals(Optional.of(first), toLocalRepo.resolve("feature"));
+            assertEquals(skippedFetches + 1, skipped("fetch"));
+            assertEquals(skippedPushes + 2, skipped("push"));
+
+            // Only the changed branch needs to be pushed
+            Files.writeString(newFile, "Hello again\n", StandardOpenOption.APPEND);
+            fromLocalRepo.add(newFile);
+            var second = fromLocalRepo.commit("Another commit", "duke", "duke@openjdk.org");
+            skippedFetches = skipped("fetch");
+            skippedPushes = skipped("push");
+            TestBotRunner.runPeriodicItems(bot);
+            assertEquals(Optional.of(second), toLocalRepo.resolve("master"));
+            assertEquals(Optional.of(first), toLocalRepo.resolve("feature"));
+            assertEquals(skippedFetches, skipped("fetch"));
+            assertEquals(skippedPushes + 1, skipped("push"));
+
+            // A branch changed in the destination is restored
+            toLocalRepo.push(second, toLocalRepo.root().toUri(), "feature", true);
+            assertEquals(Optional.of(second), toLocalRepo.resolve("feature"));
+            skippedFetches = skipped("fetch");
+            skippedPushes = skipped("push");
+            TestBotRunner.runPeriodicItems(bot);
+            assertEquals(Optional.of(first), toLocalRepo.resolve("feature"));
+            assertEquals(skippedFetches + 1, skipped("fetch"));
+            assertEquals(skippedPushes + 1, skipped("push"));
+        }
+    }
+
+    @Test
+    void mirrorMercurial(TestInfo testInfo) throws IOException {
+        assumeTrue(hgAvailable);
+        try (var temp = new TemporaryDirectory()) {
+            var host = TestHost.createNew(List.of(HostUser.create(0, "duke", "J. Duke")));
+
+            var fromDir = temp.path().resolve("from");
+            var fromLocalRepo = TestableRepository.init(fromDir, VCS.HG);
+            var fromHostedRepo = new TestHostedRepository(host, "test", fromLocalRepo);
+
+            var toDir = temp.path().resolve("to");
+            var toLocalRepo = TestableRepository.init(toDir, VCS.HG);
+            var toHostedRepo = new TestHostedRepository(host, "test-mirror", toLocalRepo);
+
+            var newFile = fromDir.resolve("this-file-cannot-exist.txt");
+            Files.writeString(newFile, "Hello world\n");
+            fromLocalRepo.add(newFile);
+            var first = fromLocalRepo.commit("An additional commit", "duke", "duke@openjdk.org");
+
+            var storage = temp.path().resolve("storage");
+            var bot = new MirrorBot(storage, fromHostedRepo, toHostedRepo);
+            TestBotRunner.runPeriodicItems(bot);
+            assertEquals(List.of(first), toLocalRepo.commits().asList().stream().map(Commit::hash).toList());
+
+            // References cannot be listed for Mercurial, so everything is synced every time
+            Files.writeString(newFile, "Hello again\n", StandardOpenOption.APPEND);
+            fromLocalRepo.add(newFile);
+            var second = fromLocalRepo.commit("Another commit", "duke", "duke@openjdk.org");
+            TestBotRunner.runPeriodicItems(bot);
+            assertEquals(List.of(second, first), toLocalRepo.commits().asList().stream().map(Commit::hash).toList());
+        }
+    }
+
     @Test
     void mirrorSelectedBranchPattern(TestInfo testInfo) throws IOException {
         try (var temp = new TemporaryDirectory()) {
@@ -65,6 +65,11 @@ public class ArchiveReaderWorkItem implements WorkItem {
                 && bot.repository().name().equals(archiveReaderWorkItem.bot.repository().name());
     }
 
+    @Override
+    public boolean needsScratchPath() {
+        return false;
+    }
+
     @Override
     public Collection<WorkItem> run(Path scratchPath) {
         // Give the bot a chance to act on all found messages
@@ -35,6 +35,7 @@ import org.openjdk.skara.mailinglist.*;
 import org.openjdk.skara.vcs.*;
 
 import java.io.*;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.*;
 import java.time.*;
 import java.util.*;
@@ -291,8 +292,24 @@ class ArchiveWorkItem implements WorkItem {
 
         var sentMails = new ArrayList<Email>();
         // Load in already sent emails from the archive, if there are any.
-        var archiveContents = bot.archiveRepo().fileContents(mboxFile(), bot.archiveRef());
-        archiveContents.ifPresent(s -> sentMails.addAll(Mbox.splitMbox(s, bot.emailAddress())));
+        Optional<String> archiveContents = Optional.empty();
+        Repository localArchive = null;
+        if (bot.appendArchive()) {
+            localArchive = materializeArchive(scratchPath.resolve("mlbridge-archive"));
+            try {
+                var mbox = localArchive.root().resolve(mboxFile());
+                if (Files.exists(mbox)) {
+                    try (var reader = Files.newBufferedReader(mbox, StandardCharsets.UTF_8)) {
+                        sentMails.addAll(Mbox.splitMbox(reader, bot.emailAddress()));
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        } else {
+            archiveContents = bot.archiveRepo().fileContents(mboxFile(), bot.archiveRef());
+            archiveContents.ifPresent(s -> sentMails.addAll(Mbox.splitMbox(s, bot.emailAddress())));
+        }
 
         var labels = new HashSet<>(pr.labelNames());
 
@@ -426,16 +443,25 @@ class ArchiveWorkItem implements WorkItem {
 
             // Push all new mails to the archive repository
             var newArchivedContents = new StringBuilder();
-            archiveContents.ifPresent(newArchivedContents::append);
             for (var newMail : newMails) {
                 var forArchiving = Email.from(newMail)
                                         .recipient(EmailAddress.from(pr.id() + "@mbox"))
                                         .build();
                 newArchivedContents.append(Mbox.fromMail(forArchiving));
             }
-            bot.archiveRepo().writeFileContents(mboxFile(), newArchivedContents.toString(), new Branch(bot.archiveRef()),
-                    "Adding comments for PR " + bot.codeRepo().name() + "/" + pr.id(),
-                    bot.emailAddress().fullName().orElseThrow(), bot.emailAddress().address(), archiveContents.isEmpty());
+            var archiveMessage = "Adding comments for PR " + bot.codeRepo().name() + "/" + pr.id();
+            if (localArchive != null) {
+                var mbox = localArchive.root().resolve(mboxFile());
+                Files.createDirectories(mbox.getParent());
+                Files.writeString(mbox, newArchivedContents, StandardCharsets.UTF_8,
+                                  StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+                pushMbox(localArchive, archiveMessage);
+            } else {
+                bot.archiveRepo().writeFileContents(mboxFile(), archiveContents.orElse("") + newArchivedContents,
+                                                    new Branch(bot.archiveRef()), archiveMessage,
+                                                    bot.emailAddress().fullName().orElseThrow(), bot.emailAddress().address(),
+                                                    archiveContents.isEmpty());
+            }
 
             // Finally post all new mails to the actual list
             for (var newMail : newMails) {
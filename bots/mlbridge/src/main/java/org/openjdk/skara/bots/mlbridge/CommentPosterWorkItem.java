@@ -71,6 +71,11 @@ public class CommentPosterWorkItem implements WorkItem {
     }
 
 
+    @Override
+    public boolean needsScratchPath() {
+        return false;
+    }
+
     @Override
     public Collection<WorkItem> run(Path scratchPath) {
         var comments = pr.comments();
@@ -57,6 +57,11 @@ public class LabelsUpdaterWorkItem implements WorkItem {
         return false;
     }
 
+    @Override
+    public boolean needsScratchPath() {
+        return false;
+    }
+
     @Override
     public Collection<WorkItem> run(Path scratchPath) {
         if (bot.labelsUpdated()) {
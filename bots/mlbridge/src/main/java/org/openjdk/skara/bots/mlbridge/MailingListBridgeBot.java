@@ -53,6 +53,7 @@ public class MailingListBridgeBot implements Bot {
     private final boolean repoInSubject;
     private final Pattern branchInSubject;
     private final Path seedStorage;
+    private final boolean appendArchive;
     private final PullRequestPoller poller;
     private final MailingListServer mailingListServer;
 
@@ -68,7 +69,7 @@ public class MailingListBridgeBot implements Bot {
                          boolean webrevGenerateHTML, boolean webrevGenerateJSON, Set<String> readyLabels,
                          Map<String, Pattern> readyComments, URI issueTracker, Map<String, String> headers,
                          Duration cooldown, boolean repoInSubject, Pattern branchInSubject,
-                         Path seedStorage, MailingListServer mailingListServer) {
+                         Path seedStorage, boolean appendArchive, MailingListServer mailingListServer) {
         emailAddress = from;
         codeRepo = repo;
         archiveRepo = archive;
@@ -86,6 +87,7 @@ public class MailingListBridgeBot implements Bot {
         this.repoInSubject = repoInSubject;
         this.branchInSubject = branchInSubject;
         this.seedStorage = seedStorage;
+        this.appendArchive = appendArchive;
         this.mailingListServer = mailingListServer;
 
         webrevStorage = new WebrevStorage(webrevStorageHTMLRepository, webrevStorageJSONRepository, webrevStorageRef,
@@ -170,6 +172,16 @@ public class MailingListBridgeBot implements Bot {
         return Optional.ofNullable(seedStorage);
     }
 
+    /**
+     * If true, the archive is kept in a local clone of the archive repository where
+     * new messages are appended to the mbox files, so that only the new messages are
+     * transferred when fetching and pushing. Otherwise the complete mbox file is read
+     * and written through the forge API.
+     */
+    boolean appendArchive() {
+        return appendArchive;
+    }
+
     public boolean labelsUpdated() {
         return labelsUpdated;
     }
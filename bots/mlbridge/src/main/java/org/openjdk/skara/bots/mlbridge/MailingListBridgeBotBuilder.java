@@ -59,6 +59,7 @@ public class MailingListBridgeBotBuilder {
     private boolean repoInSubject = false;
     private Pattern branchInSubject = Pattern.compile("a^"); // Does not match anything
     private Path seedStorage = null;
+    private boolean appendArchive = false;
     private MailingListServer mailingListServer;
 
     MailingListBridgeBotBuilder() {
@@ -184,6 +185,11 @@ public class MailingListBridgeBotBuilder {
         return this;
     }
 
+    public MailingListBridgeBotBuilder appendArchive(boolean appendArchive) {
+        this.appendArchive = appendArchive;
+        return this;
+    }
+
     public MailingListBridgeBotBuilder mailingListServer(MailingListServer mailingListServer) {
         this.mailingListServer = mailingListServer;
         return this;
@@ -195,6 +201,6 @@ public class MailingListBridgeBotBuilder {
                                         webrevStorageHTMLRepository, webrevStorageJSONRepository, webrevStorageRef,
                                         webrevStorageBase, webrevStorageBaseUri, webrevGenerateHTML, webrevGenerateJSON,
                                         readyLabels, readyComments, issueTracker, headers,
-                                        cooldown, repoInSubject, branchInSubject, seedStorage, mailingListServer);
+                                        cooldown, repoInSubject, branchInSubject, seedStorage, appendArchive, mailingListServer);
     }
 }
@@ -110,6 +110,7 @@ public class MailingListBridgeBotFactory implements BotFactory {
                 .collect(Collectors.toMap(obj -> obj.get("user").asString(),
                                           obj -> Pattern.compile(obj.get("pattern").asString())));
         var cooldown = specific.contains("cooldown") ? Duration.parse(specific.get("cooldown").asString()) : Duration.ofMinutes(1);
+        var appendArchive = specific.contains("appendarchive") && specific.get("appendarchive").asBoolean();
         boolean useEtag = false;
         if (specific.get("server").contains("etag")) {
             useEtag = specific.get("server").get("etag").asBoolean();
@@ -183,6 +184,7 @@ public class MailingListBridgeBotFactory implements BotFactory {
                                                  .headers(headers)
                                                  .cooldown(cooldown)
                                                  .seedStorage(configuration.storageFolder().resolve("seeds"))
+                                                 .appendArchive(appendArchive)
                                                  .mailingListServer(mailmanServer);
 
             if (repoConfig.contains("reponame")) {
@@ -100,6 +100,12 @@ class WebrevStorage {
                             .pullRequest(pr.webUrl().toString())
                             .username(fullName);
 
+        // Views of files that did not change since the previous revision are reused
+        var cacheDirectory = localRepository.cacheDirectory();
+        if (cacheDirectory.isPresent()) {
+            builder = builder.cache(cacheDirectory.get().resolve("webrevs"));
+        }
+
         var issue = Issue.fromStringRelaxed(pr.title());
         if (issue.isPresent()) {
             var conf = JCheckConfiguration.from(localRepository, head);
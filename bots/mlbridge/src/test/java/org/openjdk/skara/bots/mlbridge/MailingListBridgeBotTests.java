@@ -1234,6 +1234,74 @@ class MailingListBridgeBotTests {
         }
     }
 
+    @Test
+    void appendArchive(TestInfo testInfo) throws IOException {
+        try (var credentials = new HostCredentials(testInfo);
+             var tempFolder = new TemporaryDirectory();
+             var archiveFolder = new TemporaryDirectory();
+             var listServer = TestMailmanServer.createV3();
+             var webrevServer = new TestWebrevServer()) {
+            var author = credentials.getHostedRepository();
+            var archive = credentials.getHostedRepository();
+            var listAddress = listServer.createList("test");
+            var censusBuilder = credentials.getCensusBuilder()
+                                           .addAuthor(author.forge().currentUser().id());
+            var from = EmailAddress.from("test", "test@test.mail");
+            var mailmanServer = MailingListServerFactory.createMailman3Server(listServer.getArchive(), new SmtpEmailSender(listServer.getSMTP()), Duration.ZERO);
+            var mlBot = MailingListBridgeBot.newBuilder()
+                                            .from(from)
+                                            .repo(author)
+                                            .archive(archive)
+                                            .censusRepo(censusBuilder.build())
+                                            .lists(List.of(new MailingListConfiguration(listAddress, Set.of())))
+                                            .webrevStorageHTMLRepository(archive)
+                                            .webrevStorageRef("webrev")
+                                            .webrevStorageBase(Path.of("test"))
+                                            .webrevStorageBaseUri(webrevServer.uri())
+                                            .issueTracker(URIBuilder.base("http://issues.test/browse/").build())
+                                            .mailingListServer(mailmanServer)
+                                            .appendArchive(true)
+                                            .build();
+
+            // Populate the projects repository
+            var localRepo = CheckableRepository.init(tempFolder.path(), author.repositoryType());
+            var masterHash = localRepo.resolve("master").orElseThrow();
+            localRepo.push(masterHash, author.authenticatedUrl(), "master", true);
+            localRepo.push(masterHash, archive.authenticatedUrl(), "webrev", true);
+
+            // Make a change with a corresponding PR
+            var editHash = CheckableRepository.appendAndCommit(localRepo);
+            localRepo.push(editHash, author.authenticatedUrl(), "edit", true);
+            var pr = credentials.createPullRequest(archive, "master", "edit", "This is a pull request");
+            pr.setBody("This is now ready");
+            TestBotRunner.runPeriodicItems(mlBot);
+            listServer.processIncoming();
+
+            Repository.materialize(archiveFolder.path(), archive.authenticatedUrl(), "master");
+            assertEquals(1, archiveContainsCount(archiveFolder.path(), "Subject: RFR: This is a pull request"));
+            var initialArchive = archiveContents(archiveFolder.path(), "").orElseThrow();
+
+            // New comments are appended to the existing archive
+            pr.addComment("First comment");
+            TestBotRunner.runPeriodicItems(mlBot);
+            listServer.processIncoming();
+            pr.addComment("Second comment");
+            TestBotRunner.runPeriodicItems(mlBot);
+            listServer.processIncoming();
+
+            // Nothing new to archive
+            TestBotRunner.runPeriodicItems(mlBot);
+            assertThrows(RuntimeException.class, () -> listServer.processIncoming(Duration.ofMillis(1)));
+
+            Repository.materialize(archiveFolder.path(), archive.authenticatedUrl(), "master");
+            var finalArchive = archiveContents(archiveFolder.path(), "").orElseThrow();
+            assertTrue(finalArchive.startsWith(initialArchive));
+            assertEquals(1, archiveContainsCount(archiveFolder.path(), "Subject: RFR: This is a pull request"));
+            assertEquals(1, archiveContainsCount(archiveFolder.path(), "First comment"));
+            assertEquals(1, archiveContainsCount(archiveFolder.path(), "Second comment"));
+        }
+    }
+
     @Test
     void reviewCommentWithMention(TestInfo testInfo) throws IOException {
         try (var credentials = new HostCredentials(testInfo);
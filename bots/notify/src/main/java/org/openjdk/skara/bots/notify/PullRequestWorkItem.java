@@ -32,7 +32,7 @@ import org.openjdk.skara.bots.notify.prbranch.PullRequestBranchNotifier;
 import org.openjdk.skara.forge.PreIntegrations;
 import org.openjdk.skara.forge.PullRequest;
 import org.openjdk.skara.json.*;
-import org.openjdk.skara.storage.StorageBuilder;
+import org.openjdk.skara.storage.*;
 import org.openjdk.skara.vcs.Hash;
 import org.openjdk.skara.vcs.openjdk.Issue;
 
@@ -68,82 +68,90 @@ public class PullRequestWorkItem implements WorkItem {
         return integratorId != null ? pr.findIntegratedCommitHash(List.of(integratorId)).orElse(null) : null;
     }
 
-    private Set<PullRequestState> deserializePrState(String current) {
+    private static PullRequestState fromJSON(JSONObject obj) {
+        var id = obj.get("pr").asString();
+        var issues = obj.get("issues").stream()
+                                      .map(JSONValue::asString)
+                                      .collect(Collectors.toSet());
+
+        // Storage might be missing commit information
+        if (!obj.contains("commit")) {
+            obj.put("commit", Hash.zero().hex());
+        }
+        if (!obj.contains("head")) {
+            obj.put("head", Hash.zero().hex());
+        }
+        if (!obj.contains("state")) {
+            obj.put("state", JSON.of());
+        }
+
+        var commit = obj.get("commit").isNull() ?
+                null : new Hash(obj.get("commit").asString());
+        var state = obj.get("state").isNull() ?
+                null : org.openjdk.skara.issuetracker.Issue.State.valueOf(obj.get("state").asString());
+        var targetBranch = obj.get("targetBranch") == null ?
+                null : obj.get("targetBranch").asString();
+
+        return new PullRequestState(id, issues, commit, new Hash(obj.get("head").asString()), state, targetBranch);
+    }
+
+    private static JSONObject toJSON(PullRequestState pr) {
+        var issues = new JSONArray(pr.issueIds()
+                                     .stream()
+                                     .map(JSON::of)
+                                     .collect(Collectors.toList()));
+        var ret = JSON.object().put("pr", pr.prId())
+                      .put("issues",issues);
+        if (pr.commitId().isPresent()) {
+            if (!pr.commitId().get().equals(Hash.zero())) {
+                ret.put("commit", JSON.of(pr.commitId().get().hex()));
+            }
+        } else {
+            ret.putNull("commit");
+        }
+        ret.put("head", JSON.of(pr.head().hex()));
+        if (pr.state() != null) {
+            ret.put("state", JSON.of(pr.state().toString()));
+        } else {
+            ret.putNull("state");
+        }
+        if (pr.targetBranch() != null) {
+            ret.put("targetBranch", JSON.of(pr.targetBranch()));
+        }
+        return ret;
+    }
+
+    /**
+     * Reads the pull request states in the format that was used before they were
+     * stored as keyed records, a JSON array of the states.
+     */
+    private static Set<PullRequestState> deserializePrState(String current) {
         if (current.isBlank()) {
             return Set.of();
         }
         var data = JSON.parse(current);
         return data.stream()
                    .map(JSONValue::asObject)
-                   .map(obj -> {
-                       var id = obj.get("pr").asString();
-                       var issues = obj.get("issues").stream()
-                                                     .map(JSONValue::asString)
-                                                     .collect(Collectors.toSet());
-
-                       // Storage might be missing commit information
-                       if (!obj.contains("commit")) {
-                           obj.put("commit", Hash.zero().hex());
-                       }
-                       if (!obj.contains("head")) {
-                           obj.put("head", Hash.zero().hex());
-                       }
-                       if (!obj.contains("state")) {
-                           obj.put("state", JSON.of());
-                       }
-
-                       var commit = obj.get("commit").isNull() ?
-                               null : new Hash(obj.get("commit").asString());
-                       var state = obj.get("state").isNull() ?
-                               null : org.openjdk.skara.issuetracker.Issue.State.valueOf(obj.get("state").asString());
-                       var targetBranch = obj.get("targetBranch") == null ?
-                               null : obj.get("targetBranch").asString();
-
-                       return new PullRequestState(id, issues, commit, new Hash(obj.get("head").asString()), state, targetBranch);
-                   })
-                .collect(Collectors.toSet());
+                   .map(PullRequestWorkItem::fromJSON)
+                   .collect(Collectors.toSet());
     }
 
-    private String serializePrState(Collection<PullRequestState> added, Set<PullRequestState> existing) {
-        var addedPrs = added.stream()
-                            .map(PullRequestState::prId)
-                            .collect(Collectors.toSet());
-        var nonReplaced = existing.stream()
-                                  .filter(item -> !addedPrs.contains(item.prId()))
-                                  .collect(Collectors.toSet());
-
-        var entries = Stream.concat(nonReplaced.stream(),
-                                    added.stream())
-                            .sorted(Comparator.comparing(PullRequestState::prId))
-                            .map(pr -> {
-                                var issues = new JSONArray(pr.issueIds()
-                                                             .stream()
-                                                             .map(JSON::of)
-                                                             .collect(Collectors.toList()));
-                                var ret = JSON.object().put("pr", pr.prId())
-                                              .put("issues",issues);
-                                if (pr.commitId().isPresent()) {
-                                    if (!pr.commitId().get().equals(Hash.zero())) {
-                                        ret.put("commit", JSON.of(pr.commitId().get().hex()));
-                                    }
-                                } else {
-                                    ret.putNull("commit");
-                                }
-                                ret.put("head", JSON.of(pr.head().hex()));
-                                if (pr.state() != null) {
-                                    ret.put("state", JSON.of(pr.state().toString()));
-                                } else {
-                                    ret.putNull("state");
-                                }
-                                if (pr.targetBranch() != null) {
-                                    ret.put("targetBranch", JSON.of(pr.targetBranch()));
-                                }
-                                return ret;
-                            })
-                            .map(JSONObject::toString)
-                            .collect(Collectors.toList());
-        return "[\n" + String.join(",\n", entries) + "\n]";
-    }
+    private static final StorageRecordFormat<PullRequestState> PR_STATE_FORMAT = new StorageRecordFormat<>() {
+        @Override
+        public String key(PullRequestState item) {
+            return item.prId();
+        }
+
+        @Override
+        public String value(PullRequestState item) {
+            return toJSON(item).toString();
+        }
+
+        @Override
+        public PullRequestState parse(String key, String value) {
+            return fromJSON(JSON.parse(value).asObject());
+        }
+    };
 
     @Override
     public boolean concurrentWith(WorkItem other) {
@@ -156,6 +164,11 @@ public class PullRequestWorkItem implements WorkItem {
         return false;
     }
 
+    @Override
+    public Optional<String> conflictKey() {
+        return Optional.of("notify-pr:" + pr.repository().forge().name() + "/" + pr.repository().name() + "#" + pr.id());
+    }
+
     private void notifyNewIssue(String issueId, Path scratchPath) {
         listeners.forEach(c -> c.onNewIssue(pr, scratchPath.resolve(c.name()), new Issue(issueId, "")));
     }
@@ -232,23 +245,20 @@ public class PullRequestWorkItem implements WorkItem {
         var historyPath = scratchPath.resolve("notify").resolve("history").resolve("pr");
         var listenerScratchPath = scratchPath.resolve("notify").resolve("listener");
         var storage = prStateStorageBuilder
-                .serializer(this::serializePrState)
-                .deserializer(this::deserializePrState)
-                .materialize(historyPath);
+                .recordFormat(PR_STATE_FORMAT)
+                .deserializer(PullRequestWorkItem::deserializePrState)
+                .materializeKeyed(historyPath);
 
         var issues = BotUtils.parseIssues(pr.body());
         var commit = resultingCommitHash();
         var state = new PullRequestState(pr, issues, commit, pr.headHash(), pr.state());
-        var stored = storage.current();
-        if (stored.contains(state)) {
+
+        // Search for an existing
+        var storedState = storage.get(state.prId());
+        if (storedState.equals(Optional.of(state))) {
             // Already up to date
             return List.of();
         }
-
-        // Search for an existing
-        var storedState = stored.stream()
-                .filter(ss -> ss.prId().equals(state.prId()))
-                .findAny();
         // The stored entry could be old and be missing commit information - if so, upgrade it
         if (storedState.isPresent()) {
             if (storedState.get().commitId().equals(Optional.of(Hash.zero()))) {
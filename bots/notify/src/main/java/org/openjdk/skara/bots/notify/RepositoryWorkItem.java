@@ -26,7 +26,7 @@ import java.time.Duration;
 import java.time.ZonedDateTime;
 import org.openjdk.skara.bot.WorkItem;
 import org.openjdk.skara.forge.*;
-import org.openjdk.skara.storage.StorageBuilder;
+import org.openjdk.skara.storage.*;
 import org.openjdk.skara.vcs.*;
 import org.openjdk.skara.vcs.openjdk.OpenJDKTag;
 
@@ -114,7 +114,7 @@ public class RepositoryWorkItem implements WorkItem {
         listener.onNewCommits(repository, localRepo, scratchPath, commits, branch);
     }
 
-    private List<Throwable> handleRef(Repository localRepo, UpdateHistory history, Reference ref,
+    private List<Throwable> handleRef(Repository localRepo, UpdateHistory history, Storage.Batch batch, Reference ref,
                                       Collection<Reference> candidateRefs, Path scratchPath) throws IOException {
         var errors = new ArrayList<Throwable>();
         var branch = new Branch(ref.name());
@@ -124,6 +124,7 @@ public class RepositoryWorkItem implements WorkItem {
                 log.warning("No previous history found for branch '" + branch + "' and listener '" + listener.name() + " - resetting mark");
                 if (!listener.idempotent()) {
                     history.setBranchHash(branch, listener.name(), ref.hash());
+                    batch.flush();
                 }
                 try {
                     handleNewRef(localRepo, ref, candidateRefs, listener, scratchPath.resolve(listener.name()));
@@ -154,6 +155,7 @@ public class RepositoryWorkItem implements WorkItem {
                 var commits = localRepo.commits(lastHash.get() + ".." + ref.hash(), true).asList();
                 if (!listener.idempotent()) {
                     history.setBranchHash(branch, listener.name(), ref.hash());
+                    batch.flush();
                 }
                 try {
                     handleUpdatedRef(localRepo, ref, commits, listener, scratchPath.resolve(listener.name()));
@@ -200,7 +202,7 @@ public class RepositoryWorkItem implements WorkItem {
         }
     }
 
-    private List<Throwable> handleTags(Repository localRepo, UpdateHistory history, RepositoryListener listener, Path scratchPath) throws IOException {
+    private List<Throwable> handleTags(Repository localRepo, UpdateHistory history, Storage.Batch batch, RepositoryListener listener, Path scratchPath) throws IOException {
         var errors = new ArrayList<Throwable>();
         var tags = localRepo.tags();
         var newTags = tags.stream()
@@ -263,6 +265,7 @@ public class RepositoryWorkItem implements WorkItem {
 
             if (!listener.idempotent()) {
                 history.addTags(List.of(tag.tag()), listener.name());
+                batch.flush();
             }
             try {
                 listener.onNewOpenJDKTagCommits(repository, localRepo, scratchPath, commits, tag, annotation.orElse(null));
@@ -294,6 +297,7 @@ public class RepositoryWorkItem implements WorkItem {
 
             if (!listener.idempotent()) {
                 history.addTags(List.of(tag), listener.name());
+                batch.flush();
             }
             try {
                 listener.onNewTagCommit(repository, localRepo, scratchPath, commit.get(), tag, annotation.orElse(null));
@@ -365,31 +369,36 @@ public class RepositoryWorkItem implements WorkItem {
             var history = UpdateHistory.create(tagStorageBuilder, historyPath.resolve("tags"), branchStorageBuilder, historyPath.resolve("branches"));
             var errors = new ArrayList<Throwable>();
 
-            boolean hasBranchHistory = !history.isEmpty();
-            for (var ref : knownRefs) {
-                if (!hasBranchHistory) {
-                    log.warning("No previous history found for any branch - resetting mark for '" + ref.name());
-                    if (localRepo.commitCount() <= NEW_REPOSITORY_COMMIT_THRESHOLD) {
-                        log.info("This is a new repo, starting notifications from the very first commit");
-                        for (var listener : listeners) {
-                            log.info("Resetting mark for branch '" + ref.name() + "' for listener '" + listener.name() + "'");
-                            // Initialize the mark for the branches with special Git empty tree hash to trigger notifications on all existing commits.
-                            history.setBranchHash(new Branch(ref.name()), listener.name(), localRepo.initialHash());
-                        }
-                    } else {
-                        log.info("This is an existing repo with history, starting notifications from commits after " + ref.hash());
-                        for (var listener : listeners) {
-                            log.info("Resetting mark for branch '" + ref.name() + "' for listener '" + listener.name() + "'");
-                            // Initialize the mark for the branches with the current HEAD hash. Notifications will start on future commits.
-                            history.setBranchHash(new Branch(ref.name()), listener.name(), ref.hash());
+            // All history updates of a run are stored together, except for those that must be
+            // stored before a listener that is not idempotent is notified
+            try (var batch = history.batch()) {
+                if (history.isEmpty()) {
+                    for (var ref : knownRefs) {
+                        log.warning("No previous history found for any branch - resetting mark for '" + ref.name());
+                        if (localRepo.commitCount() <= NEW_REPOSITORY_COMMIT_THRESHOLD) {
+                            log.info("This is a new repo, starting notifications from the very first commit");
+                            for (var listener : listeners) {
+                                log.info("Resetting mark for branch '" + ref.name() + "' for listener '" + listener.name() + "'");
+                                // Initialize the mark for the branches with special Git empty tree hash to trigger notifications on all existing commits.
+                                history.setBranchHash(new Branch(ref.name()), listener.name(), localRepo.initialHash());
+                            }
+                        } else {
+                            log.info("This is an existing repo with history, starting notifications from commits after " + ref.hash());
+                            for (var listener : listeners) {
+                                log.info("Resetting mark for branch '" + ref.name() + "' for listener '" + listener.name() + "'");
+                                // Initialize the mark for the branches with the current HEAD hash. Notifications will start on future commits.
+                                history.setBranchHash(new Branch(ref.name()), listener.name(), ref.hash());
+                            }
                         }
                     }
                 }
-                errors.addAll(handleRef(localRepo, history, ref, candidateRefs, scratchPath));
-            }
+                for (var ref : knownRefs) {
+                    errors.addAll(handleRef(localRepo, history, batch, ref, candidateRefs, scratchPath));
+                }
 
-            for (var listener : listeners) {
-                errors.addAll(handleTags(localRepo, history, listener, notifierScratchPath.resolve(listener.name())));
+                for (var listener : listeners) {
+                    errors.addAll(handleTags(localRepo, history, batch, listener, notifierScratchPath.resolve(listener.name())));
+                }
             }
 
             if (!errors.isEmpty()) {
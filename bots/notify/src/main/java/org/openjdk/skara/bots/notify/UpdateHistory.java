@@ -159,6 +159,31 @@ class UpdateHistory {
         branchHashes = currentBranchHashes();
     }
 
+    /**
+     * Groups the updates made until the returned batch is closed, so that they are
+     * flushed to permanent storage together.
+     */
+    Storage.Batch batch() {
+        var tagBatch = tagStorage.batch();
+        var branchBatch = branchStorage.batch();
+        return new Storage.Batch() {
+            @Override
+            public void flush() {
+                branchBatch.flush();
+                tagBatch.flush();
+            }
+
+            @Override
+            public void close() {
+                try {
+                    branchBatch.close();
+                } finally {
+                    tagBatch.close();
+                }
+            }
+        };
+    }
+
     Optional<Hash> branchHash(Branch branch, String updater) {
         var entry = branchHashes.get(branch.toString() + " " + updater);
         return Optional.ofNullable(entry);
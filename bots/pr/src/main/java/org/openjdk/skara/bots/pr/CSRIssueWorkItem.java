@@ -83,6 +83,11 @@ class CSRIssueWorkItem implements WorkItem {
         return false;
     }
 
+    @Override
+    public boolean needsScratchPath() {
+        return false;
+    }
+
     @Override
     public Collection<WorkItem> run(Path scratchPath) {
         var link = csrIssue.links().stream()
@@ -83,12 +83,16 @@ class PullRequestBot implements Bot {
     private final List<PullRequest> initialPullRequestBacklog = new ArrayList<>();
     private final Approval approval;
     private boolean initialRun = true;
+    // Snapshots of the pull requests handed out in the latest call to getPeriodicItems
+    private volatile Map<String, PullRequestSnapshot> pullRequestSnapshots = Map.of();
     private final boolean versionMismatchWarning;
     private final boolean cleanCommandEnabled;
     private final boolean checkContributorStatusForBackportCommand;
     private final List<String> requiredCheckedLines;
     private final List<TrailerCommand.TrailerConfig> trailerConfigs;
     private final int workItemBatchSize;
+    private final Duration reconciliationInterval;
+    private Instant lastReconciliation;
 
     PullRequestBot(HostedRepository repo, HostedRepository censusRepo, String censusRef, LabelConfiguration labelConfiguration,
                    Map<String, String> externalPullRequestCommands, Map<String, String> externalCommitCommands,
@@ -103,7 +107,8 @@ class PullRequestBot implements Bot {
                    boolean enableMerge, Set<String> mergeSources, boolean jcheckMerge, boolean enableBackport,
                    Map<String, List<PRRecord>> issuePRMap, Approval approval, boolean versionMismatchWarning, boolean cleanCommandEnabled,
                    boolean checkContributorStatusForBackportCommand, List<String> requiredCheckedLines,
-                   List<TrailerCommand.TrailerConfig> trailerConfigs, int workItemBatchSize) {
+                   List<TrailerCommand.TrailerConfig> trailerConfigs, int workItemBatchSize,
+                   Duration reconciliationInterval) {
         remoteRepo = repo;
         this.censusRepo = censusRepo;
         this.censusRef = censusRef;
@@ -146,6 +151,7 @@ class PullRequestBot implements Bot {
         this.requiredCheckedLines = requiredCheckedLines;
         this.trailerConfigs = trailerConfigs;
         this.workItemBatchSize = workItemBatchSize;
+        this.reconciliationInterval = reconciliationInterval;
 
         poller = new PullRequestPoller(repo, true);
     }
@@ -195,6 +201,13 @@ class PullRequestBot implements Bot {
     }
 
     private void updateTargetRefPRMap(List<PullRequest> pullRequests) {
+        // Also called for pull requests received through webhooks
+        synchronized (targetRefPRMap) {
+            updateTargetRefPRMapLocked(pullRequests);
+        }
+    }
+
+    private void updateTargetRefPRMapLocked(List<PullRequest> pullRequests) {
         for (var pr : pullRequests) {
             var targetRef = pr.targetRef();
             var prId = pr.id();
@@ -212,7 +225,16 @@ class PullRequestBot implements Bot {
             workItems.add(new CommitCommentsWorkItem(this, remoteRepo, excludeCommitCommentsFrom));
         }
         if (processPR) {
-            List<PullRequest> prs = poller.updatedPullRequests();
+            // When pull requests are updated through webhooks, polling is only needed now and then to
+            // catch up on anything missed. The initial backlog, retries and scheduled rechecks are
+            // still processed every time.
+            var now = Instant.now();
+            var reconcile = reconciliationInterval == null || lastReconciliation == null ||
+                    !now.isBefore(lastReconciliation.plus(reconciliationInterval));
+            if (reconcile) {
+                lastReconciliation = now;
+            }
+            List<PullRequest> prs = reconcile ? poller.updatedPullRequests() : poller.dueRetries();
             updateTargetRefPRMap(prs);
             var currentPullRequestWorkItemCount = 0;
 
@@ -235,24 +257,28 @@ class PullRequestBot implements Bot {
                 currentPullRequestWorkItemCount += updatedPullRequestWorkItems.size();
             }
 
-            var activeBranches = remoteRepo.branches().stream()
-                    .map(HostedBranch::name)
-                    .toList();
+            if (reconcile) {
+                var activeBranches = remoteRepo.branches().stream()
+                        .map(HostedBranch::name)
+                        .toList();
 
-            var keysToRemove = targetRefPRMap.keySet().stream()
-                    .filter(key -> targetRefPRMap.get(key).isEmpty() || !activeBranches.contains(key))
-                    .toList();
-            keysToRemove.forEach(targetRefPRMap::remove);
+                synchronized (targetRefPRMap) {
+                    var keysToRemove = targetRefPRMap.keySet().stream()
+                            .filter(key -> targetRefPRMap.get(key).isEmpty() || !activeBranches.contains(key))
+                            .toList();
+                    keysToRemove.forEach(targetRefPRMap::remove);
+                }
 
-            var jCheckConfUpdateRelatedPRs = getJCheckConfUpdateRelatedPRs();
-            // Filter out duplicate prs
-            var filteredPrs = jCheckConfUpdateRelatedPRs.stream()
-                    .filter(pullRequest -> prs.stream()
-                            .noneMatch(pr -> pr.isSame(pullRequest)))
-                    .toList();
-            var jcheckConfUpdateRelatedWorkItems = getPullRequestWorkItems(filteredPrs, false);
-            workItems.addAll(jcheckConfUpdateRelatedWorkItems);
-            currentPullRequestWorkItemCount += jcheckConfUpdateRelatedWorkItems.size();
+                var jCheckConfUpdateRelatedPRs = getJCheckConfUpdateRelatedPRs();
+                // Filter out duplicate prs
+                var filteredPrs = jCheckConfUpdateRelatedPRs.stream()
+                        .filter(pullRequest -> prs.stream()
+                                .noneMatch(pr -> pr.isSame(pullRequest)))
+                        .toList();
+                var jcheckConfUpdateRelatedWorkItems = getPullRequestWorkItems(filteredPrs, false);
+                workItems.addAll(jcheckConfUpdateRelatedWorkItems);
+                currentPullRequestWorkItemCount += jcheckConfUpdateRelatedWorkItems.size();
+            }
 
             var initialPullRequestBatchSize = Math.max(0, workItemBatchSize - currentPullRequestWorkItemCount);
             var initialPullRequestBatch = nextInitialPullRequestBatch(initialPullRequestBatchSize);
@@ -261,17 +287,50 @@ class PullRequestBot implements Bot {
                         + remoteRepo.name() + ", " + initialPullRequestBacklogSize() + " remaining");
                 workItems.addAll(getPullRequestWorkItems(initialPullRequestBatch, true));
             }
-            poller.lastBatchHandled();
+            if (reconcile) {
+                poller.lastBatchHandled();
+            }
+            pullRequestSnapshots = fetchPullRequestSnapshots(workItems);
         }
         return workItems;
     }
 
+    /**
+     * Fetches snapshots of all pull requests that work items are about to be
+     * scheduled for, so that the work items do not have to list comments and
+     * reviews one pull request at a time. Failing to fetch them is not fatal,
+     * as the work items will then just fetch everything themselves.
+     */
+    private Map<String, PullRequestSnapshot> fetchPullRequestSnapshots(List<WorkItem> workItems) {
+        var ids = workItems.stream()
+                           .filter(PullRequestWorkItem.class::isInstance)
+                           .map(workItem -> ((PullRequestWorkItem) workItem).prId)
+                           .distinct()
+                           .toList();
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+        try {
+            return Map.copyOf(remoteRepo.pullRequestSnapshots(ids));
+        } catch (RuntimeException e) {
+            log.log(Level.WARNING, "Failed to fetch pull request snapshots for " + remoteRepo.name(), e);
+            return Map.of();
+        }
+    }
+
+    Optional<PullRequestSnapshot> pullRequestSnapshot(String prId) {
+        return Optional.ofNullable(pullRequestSnapshots.get(prId));
+    }
+
     private List<PullRequest> getJCheckConfUpdateRelatedPRs() {
         var ret = new ArrayList<PullRequest>();
         // If there is any pr targets on the ref, then the bot needs to check whether the .jcheck/conf updated in this ref
-        var allTargetRefs = targetRefPRMap.keySet().stream()
-                .filter(key -> !targetRefPRMap.get(key).isEmpty())
-                .toList();
+        List<String> allTargetRefs;
+        synchronized (targetRefPRMap) {
+            allTargetRefs = targetRefPRMap.keySet().stream()
+                    .filter(key -> !targetRefPRMap.get(key).isEmpty())
+                    .toList();
+        }
         for (var targetRef : allTargetRefs) {
             try {
                 var currConfOpt = remoteRepo.fileContents(".jcheck/conf", targetRef);
@@ -309,6 +368,7 @@ class PullRequestBot implements Bot {
         }
         if (processPR) {
             var updatedPullRequests = webHook.get().updatedPullRequests();
+            updateTargetRefPRMap(updatedPullRequests);
             workItems.addAll(getPullRequestWorkItems(updatedPullRequests, false));
         }
         return workItems;
@@ -481,6 +541,10 @@ class PullRequestBot implements Bot {
         return workItemBatchSize;
     }
 
+    public Optional<Duration> reconciliationInterval() {
+        return Optional.ofNullable(reconciliationInterval);
+    }
+
     public void addIssuePRMapping(String issueId, PRRecord prRecord) {
         issuePRMap.putIfAbsent(issueId, new LinkedList<>());
         List<PRRecord> prRecords = issuePRMap.get(issueId);
@@ -27,6 +27,7 @@ import org.openjdk.skara.issuetracker.IssueProject;
 import org.openjdk.skara.vcs.*;
 
 import java.nio.file.Path;
+import java.time.Duration;
 import java.util.*;
 import java.util.regex.Pattern;
 
@@ -73,6 +74,7 @@ public class PullRequestBotBuilder {
     private List<String> requiredCheckedLines = new ArrayList<String>();
     private List<TrailerCommand.TrailerConfig> trailerConfigs = List.of();
     private int workItemBatchSize = PullRequestBot.DEFAULT_WORK_ITEM_BATCH_SIZE;
+    private Duration reconciliationInterval = null;
 
     PullRequestBotBuilder() {
     }
@@ -287,6 +289,11 @@ public class PullRequestBotBuilder {
         return this;
     }
 
+    public PullRequestBotBuilder reconciliationInterval(Duration reconciliationInterval) {
+        this.reconciliationInterval = reconciliationInterval;
+        return this;
+    }
+
     public PullRequestBot build() {
         return new PullRequestBot(repo, censusRepo, censusRef, labelConfiguration, externalPullRequestCommands,
                 externalCommitCommands, blockingCheckLabels, readyLabels, twoReviewersLabels, twentyFourHoursLabels,
@@ -294,6 +301,7 @@ public class PullRequestBotBuilder {
                 confOverrideName, confOverrideRef, censusLink, forks, integrators, excludeCommitCommentsFrom, enableCsr,
                 enableJep, reviewCleanBackport, mlbridgeBotName, reviewMerge, processPR, processCommit, enableMerge,
                 mergeSources, jcheckMerge, enableBackport, issuePRMap, approval, versionMismatchWarning, cleanCommandEnabled,
-                checkContributorStatusForBackportCommand, requiredCheckedLines, trailerConfigs, workItemBatchSize);
+                checkContributorStatusForBackportCommand, requiredCheckedLines, trailerConfigs, workItemBatchSize,
+                reconciliationInterval);
     }
 }
@@ -27,6 +27,7 @@ import org.openjdk.skara.forge.*;
 import org.openjdk.skara.issuetracker.IssueProject;
 import org.openjdk.skara.json.*;
 
+import java.time.Duration;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Pattern;
@@ -96,6 +97,13 @@ public class PullRequestBotFactory implements BotFactory {
             workItemBatchSize = specific.get("workItemBatchSize").asInt();
         }
 
+        // Only poll for updated pull requests this often, used when updates arrive through webhooks.
+        // Retries and scheduled rechecks are still handled on every periodic check.
+        Duration reconciliationInterval = null;
+        if (specific.contains("reconciliationInterval")) {
+            reconciliationInterval = Duration.parse(specific.get("reconciliationInterval").asString());
+        }
+
         var readyLabels = specific.get("ready").get("labels").stream()
                                   .map(JSONValue::asString)
                                   .collect(Collectors.toSet());
@@ -144,7 +152,8 @@ public class PullRequestBotFactory implements BotFactory {
                                            .forks(forks)
                                            .mlbridgeBotName(mlbridgeBotName)
                                            .requiredCheckedLines(requiredCheckedLines)
-                                           .workItemBatchSize(workItemBatchSize);
+                                           .workItemBatchSize(workItemBatchSize)
+                                           .reconciliationInterval(reconciliationInterval);
 
             if (repo.value().contains("labels")) {
                 var labelGroup = repo.value().get("labels").asString();
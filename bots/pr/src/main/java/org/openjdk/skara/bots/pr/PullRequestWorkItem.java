@@ -28,9 +28,11 @@ import java.time.ZonedDateTime;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Optional;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import org.openjdk.skara.bot.WorkItem;
+import org.openjdk.skara.forge.MemoizingPullRequest;
 import org.openjdk.skara.forge.PullRequest;
 
 import java.util.function.Consumer;
@@ -74,6 +76,11 @@ abstract class PullRequestWorkItem implements WorkItem {
         return false;
     }
 
+    @Override
+    public final Optional<String> conflictKey() {
+        return Optional.of("pr:" + bot.repo().forge().name() + "/" + bot.repo().name() + "#" + prId);
+    }
+
     private boolean isReady() {
         if (!needsReadyCheck) {
             return true;
@@ -112,12 +119,19 @@ abstract class PullRequestWorkItem implements WorkItem {
      * PullRequestWorkItems have a coherent and current view of the PR to avoid
      * races. When the run method is called, we are guaranteed to be the only
      * WorkItem executing on this specific PR through the concurrentWith method.
+     * The PR is wrapped in a MemoizingPullRequest so that comments, reviews and
+     * checks are only fetched once unless the PR is modified. If the bot has a
+     * snapshot of the PR that is still current, the listings in it are used
+     * without fetching them at all.
      * <p>
      * Subclasses should override prRun instead of this method.
      */
     @Override
     public final Collection<WorkItem> run(Path scratchPath) {
-        pr = bot.repo().pullRequest(prId);
+        var fetched = bot.repo().pullRequest(prId);
+        pr = bot.pullRequestSnapshot(prId)
+                .map(snapshot -> new MemoizingPullRequest(fetched, snapshot))
+                .orElseGet(() -> new MemoizingPullRequest(fetched));
         // Check if PR is ready to be evaluated at all.
         if (!isReady()) {
             return List.of();
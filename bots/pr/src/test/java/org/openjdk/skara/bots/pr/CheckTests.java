@@ -96,6 +96,39 @@ class CheckTests {
         }
     }
 
+    @Test
+    void reconciliationInterval(TestInfo testInfo) throws IOException {
+        try (var credentials = new HostCredentials(testInfo)) {
+            var author = credentials.getHostedRepository();
+            var censusBuilder = credentials.getCensusBuilder()
+                                           .addAuthor(author.forge().currentUser().id());
+            var checkBot = PullRequestBot.newBuilder()
+                                         .repo(author)
+                                         .censusRepo(censusBuilder.build())
+                                         .processCommit(false)
+                                         .reconciliationInterval(Duration.ofHours(1))
+                                         .build();
+
+            var pr1 = credentials.createPullRequest(author, "master", "edit1", "PR 1");
+            var items = checkBot.getPeriodicItems();
+            assertEquals(1, items.size());
+            assertEquals("CheckWorkItem@" + author.name() + "#" + pr1.id(), items.get(0).toString());
+
+            // Updates are not polled for until the interval has passed
+            pr1.addComment("/touch");
+            items = checkBot.getPeriodicItems();
+            assertEquals(0, items.size());
+
+            // Scheduled rechecks are still handled in between
+            checkBot.scheduleRecheckAt(pr1, Instant.now().minus(Duration.ofMinutes(1)));
+            items = checkBot.getPeriodicItems();
+            assertEquals(1, items.size());
+            assertEquals("CheckWorkItem@" + author.name() + "#" + pr1.id(), items.get(0).toString());
+            items = checkBot.getPeriodicItems();
+            assertEquals(0, items.size());
+        }
+    }
+
     @Test
     void simpleCommit(TestInfo testInfo) throws IOException {
         try (var credentials = new HostCredentials(testInfo);
@@ -26,6 +26,7 @@ import org.junit.jupiter.api.Test;
 import org.openjdk.skara.json.JWCC;
 import org.openjdk.skara.test.*;
 
+import java.time.Duration;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -50,6 +51,7 @@ class PullRequestBotFactoryTest {
                           2
                       ],
                       "workItemBatchSize": 3,
+                      "reconciliationInterval": "PT10M",
                       "blockers": {
                         "test": "Signature needs verify"
                       },
@@ -232,6 +234,7 @@ class PullRequestBotFactoryTest {
             assertEquals(TrailerCommand.TrailerType.SINGLE, trailerConfig.type());
             assertEquals("foo.*", trailerConfig.values().getFirst().pattern());
             assertEquals(3, pullRequestBot2.workItemBatchSize());
+            assertEquals(Duration.ofMinutes(10), pullRequestBot2.reconciliationInterval().orElseThrow());
 
             var pullRequestBot5 = (PullRequestBot) bots.stream()
                     .filter(bot -> bot.toString().equals("PullRequestBot@repo5"))
@@ -47,6 +47,11 @@ public class SyncLabelBotFindMainIssueWorkItem implements WorkItem {
         return !o.issueId.equals(issueId);
     }
 
+    @Override
+    public boolean needsScratchPath() {
+        return false;
+    }
+
     @Override
     public Collection<WorkItem> run(Path scratchPath) {
         var issue = bot.issueProject().issue(issueId);
@@ -54,6 +54,11 @@ public class SyncLabelBotUpdateLabelWorkItem implements WorkItem {
         return "SyncLabelBotUpdateLabelWorkItem@" + mainIssueId;
     }
 
+    @Override
+    public boolean needsScratchPath() {
+        return false;
+    }
+
     @Override
     public Collection<WorkItem> run(Path scratch) {
         var issue = bot.issueProject().issue(mainIssueId);
@@ -82,6 +82,11 @@ public class TestInfoBotWorkItem implements WorkItem {
                            .build();
     }
 
+    @Override
+    public boolean needsScratchPath() {
+        return false;
+    }
+
     @Override
     public Collection<WorkItem> run(Path scratch) {
         Optional<HostedRepository> optionalSourceRepository = pr.sourceRepository();
@@ -93,6 +93,11 @@ public class GitJCheck {
                   .describe("CHECKS")
                   .helptext("Ignore errors from checks with the given name")
                   .optional(),
+            Option.shortcut("j")
+                  .fullname("jobs")
+                  .describe("N")
+                  .helptext("Check up to N commits in parallel (default: 1)")
+                  .optional(),
             Option.shortcut("")
                   .fullname("conf-rev")
                   .describe("REV")
@@ -335,11 +340,25 @@ public class GitJCheck {
                     JCheck.commitCheckNamesForStagedOrWorkingTree());
         }
 
+        var jobs = 1;
+        var jobsOption = getOption("jobs", arguments);
+        if (jobsOption != null) {
+            try {
+                jobs = Integer.parseInt(jobsOption.trim());
+            } catch (NumberFormatException e) {
+                jobs = 0;
+            }
+            if (jobs < 1) {
+                System.err.println(String.format("error: invalid number of jobs: %s", jobsOption));
+                return 1;
+            }
+        }
+
         var isLax = getSwitch("lax", arguments);
         var visitor = new JCheckCLIVisitor(ignore, isMercurial, isLax);
         var commitMessageParser = isMercurial ? CommitMessageParsers.v0 : CommitMessageParsers.v1;
         for (var range : ranges) {
-            try (var errors = JCheck.check(repo, census, commitMessageParser, range, overridingConfig)) {
+            try (var errors = JCheck.check(repo, census, commitMessageParser, range, overridingConfig, jobs)) {
                 for (var error : errors) {
                     error.accept(visitor);
                 }
@@ -27,6 +27,7 @@ module org.openjdk.skara.forge {
     requires org.openjdk.skara.process;
     requires org.openjdk.skara.email;
     requires org.openjdk.skara.network;
+    requires org.openjdk.skara.metrics;
     requires transitive org.openjdk.skara.issuetracker;
     requires transitive org.openjdk.skara.host;
     requires java.net.http;
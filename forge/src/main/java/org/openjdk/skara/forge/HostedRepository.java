@@ -66,6 +66,17 @@ public interface HostedRepository {
      * the given time, with a resolution given by Host::timeStampQueryPrecision.
      */
     List<PullRequest> openPullRequestsAfter(ZonedDateTime updatedAfter);
+
+    /**
+     * Fetches the labels, comments and reviews of several pull requests using
+     * as few calls as possible, mapped by pull request id. Pull requests that
+     * could not be completely fetched this way are left out, as are all pull
+     * requests if the forge does not support it.
+     */
+    default Map<String, PullRequestSnapshot> pullRequestSnapshots(Collection<String> ids) {
+        return Map.of();
+    }
+
     List<PullRequest> findPullRequestsWithComment(String author, String body);
     Optional<PullRequest> parsePullRequestUrl(String url);
 
@@ -0,0 +1,440 @@
+/*
+ * Copyright (c) 2024, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.openjdk.skara.forge;
+
+import org.openjdk.skara.host.HostUser;
+import org.openjdk.skara.issuetracker.*;
+import org.openjdk.skara.metrics.Counter;
+import org.openjdk.skara.vcs.*;
+
+import java.net.URI;
+import java.time.ZonedDateTime;
+import java.util.*;
+import java.util.function.Supplier;
+
+/**
+ * A view of a pull request that remembers the comments, reviews, review comments and
+ * checks after they have been fetched once, so that code inspecting the same pull
+ * request several times only makes the underlying calls once. All remembered values
+ * are dropped whenever the pull request is modified through this view, and whenever
+ * the updatedAt time reported by the underlying pull request changes. Changes made
+ * elsewhere are otherwise not detected, so a view should only be used for a short
+ * time, such as for the duration of a single work item. The view can also be seeded
+ * with a snapshot fetched in bulk, which is then used for as long as the pull
+ * request has not been updated after the snapshot was taken.
+ */
+public class MemoizingPullRequest implements PullRequest {
+    private static final Counter.WithOneLabel hitsCounter =
+            Counter.name("skara_pull_request_memoized_hits").labels("listing").register();
+    private static final Counter.WithOneLabel missesCounter =
+            Counter.name("skara_pull_request_memoized_misses").labels("listing").register();
+
+    private final PullRequest pr;
+    private final Map<String, Object> memoized = new HashMap<>();
+    private ZonedDateTime memoizedUpdatedAt;
+
+    public MemoizingPullRequest(PullRequest pr) {
+        this.pr = pr;
+    }
+
+    public MemoizingPullRequest(PullRequest pr, PullRequestSnapshot snapshot) {
+        this(pr);
+        if (snapshot.id().equals(pr.id()) && Objects.equals(snapshot.headHash(), pr.headHash())) {
+            memoizedUpdatedAt = snapshot.updatedAt();
+            memoized.put("labels", List.copyOf(snapshot.labels()));
+            memoized.put("comments", List.copyOf(snapshot.comments()));
+            memoized.put("reviews", List.copyOf(snapshot.reviews()));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T memoize(String listing, String key, Supplier<T> supplier) {
+        var updatedAt = pr.updatedAt();
+        if (!updatedAt.equals(memoizedUpdatedAt)) {
+            memoized.clear();
+            memoizedUpdatedAt = updatedAt;
+        }
+        var value = (T) memoized.get(key);
+        if (value != null) {
+            hitsCounter.labels(listing).inc();
+            return value;
+        }
+        missesCounter.labels(listing).inc();
+        value = supplier.get();
+        memoized.put(key, value);
+        return value;
+    }
+
+    private void modified() {
+        memoized.clear();
+    }
+
+    @Override
+    public List<Comment> comments() {
+        return new ArrayList<>(memoize("comments", "comments", () -> List.copyOf(pr.comments())));
+    }
+
+    @Override
+    public List<Review> reviews() {
+        return new ArrayList<>(memoize("reviews", "reviews", () -> List.copyOf(pr.reviews())));
+    }
+
+    @Override
+    public List<ReviewComment> reviewComments() {
+        return new ArrayList<>(memoize("review_comments", "review_comments", () -> List.copyOf(pr.reviewComments())));
+    }
+
+    @Override
+    public Map<String, Check> checks(Hash hash) {
+        return new HashMap<>(memoize("checks", "checks:" + hash.hex(), () -> Map.copyOf(pr.checks(hash))));
+    }
+
+    @Override
+    public Comment addComment(String body) {
+        modified();
+        return pr.addComment(body);
+    }
+
+    @Override
+    public void removeComment(Comment comment) {
+        modified();
+        pr.removeComment(comment);
+    }
+
+    @Override
+    public Comment updateComment(String id, String body) {
+        modified();
+        return pr.updateComment(id, body);
+    }
+
+    @Override
+    public void addReview(Review.Verdict verdict, String body) {
+        modified();
+        pr.addReview(verdict, body);
+    }
+
+    @Override
+    public void updateReview(String id, String body) {
+        modified();
+        pr.updateReview(id, body);
+    }
+
+    @Override
+    public ReviewComment addReviewComment(Hash base, Hash hash, String path, int line, String body) {
+        modified();
+        return pr.addReviewComment(base, hash, path, line, body);
+    }
+
+    @Override
+    public ReviewComment addReviewCommentReply(ReviewComment parent, String body) {
+        modified();
+        return pr.addReviewCommentReply(parent, body);
+    }
+
+    @Override
+    public void createCheck(Check check) {
+        modified();
+        pr.createCheck(check);
+    }
+
+    @Override
+    public void updateCheck(Check check) {
+        modified();
+        pr.updateCheck(check);
+    }
+
+    @Override
+    public void setTitle(String title) {
+        modified();
+        pr.setTitle(title);
+    }
+
+    @Override
+    public void setBody(String body) {
+        modified();
+        pr.setBody(body);
+    }
+
+    @Override
+    public void setState(State state) {
+        modified();
+        pr.setState(state);
+    }
+
+    @Override
+    public void addLabel(String label) {
+        modified();
+        pr.addLabel(label);
+    }
+
+    @Override
+    public void removeLabel(String label) {
+        modified();
+        pr.removeLabel(label);
+    }
+
+    @Override
+    public void removeLabel(Label label) {
+        modified();
+        pr.removeLabel(label);
+    }
+
+    @Override
+    public void setLabels(List<String> labels) {
+        modified();
+        pr.setLabels(labels);
+    }
+
+    @Override
+    public void setAssignees(List<HostUser> assignees) {
+        modified();
+        pr.setAssignees(assignees);
+    }
+
+    @Override
+    public void makeNotDraft() {
+        modified();
+        pr.makeNotDraft();
+    }
+
+    @Override
+    public void setTargetRef(String targetRef) {
+        modified();
+        pr.setTargetRef(targetRef);
+    }
+
+    @Override
+    public IssueProject project() {
+        return pr.project();
+    }
+
+    @Override
+    public String id() {
+        return pr.id();
+    }
+
+    @Override
+    public HostUser author() {
+        return pr.author();
+    }
+
+    @Override
+    public String title() {
+        return pr.title();
+    }
+
+    @Override
+    public String body() {
+        return pr.body();
+    }
+
+    @Override
+    public ZonedDateTime createdAt() {
+        return pr.createdAt();
+    }
+
+    @Override
+    public ZonedDateTime updatedAt() {
+        return pr.updatedAt();
+    }
+
+    @Override
+    public State state() {
+        return pr.state();
+    }
+
+    @Override
+    public boolean isOpen() {
+        return pr.isOpen();
+    }
+
+    @Override
+    public boolean isClosed() {
+        return pr.isClosed();
+    }
+
+    @Override
+    public boolean isResolved() {
+        return pr.isResolved();
+    }
+
+    @Override
+    public boolean isFixed() {
+        return pr.isFixed();
+    }
+
+    @Override
+    public List<Label> labels() {
+        return new ArrayList<>(memoize("labels", "labels", () -> List.copyOf(pr.labels())));
+    }
+
+    @Override
+    public List<String> labelNames() {
+        return pr.labelNames();
+    }
+
+    @Override
+    public URI webUrl() {
+        return pr.webUrl();
+    }
+
+    @Override
+    public URI nonTransformedWebUrl() {
+        return pr.nonTransformedWebUrl();
+    }
+
+    @Override
+    public List<HostUser> assignees() {
+        return pr.assignees();
+    }
+
+    @Override
+    public Optional<HostUser> closedBy() {
+        return pr.closedBy();
+    }
+
+    @Override
+    public URI commentUrl(Comment comment) {
+        return pr.commentUrl(comment);
+    }
+
+    @Override
+    public HostedRepository repository() {
+        return pr.repository();
+    }
+
+    @Override
+    public List<? extends Comment> reviewCommentsAsComments() {
+        return pr.reviewCommentsAsComments();
+    }
+
+    @Override
+    public Hash headHash() {
+        return pr.headHash();
+    }
+
+    @Override
+    public URI headUrl() {
+        return pr.headUrl();
+    }
+
+    @Override
+    public String fetchRef() {
+        return pr.fetchRef();
+    }
+
+    @Override
+    public String sourceRef() {
+        return pr.sourceRef();
+    }
+
+    @Override
+    public Optional<HostedRepository> sourceRepository() {
+        return pr.sourceRepository();
+    }
+
+    @Override
+    public String targetRef() {
+        return pr.targetRef();
+    }
+
+    @Override
+    public List<ReferenceChange> targetRefChanges() {
+        return pr.targetRefChanges();
+    }
+
+    @Override
+    public URI diffUrl() {
+        return pr.diffUrl();
+    }
+
+    @Override
+    public Diff diff() {
+        return pr.diff();
+    }
+
+    @Override
+    public URI changeUrl() {
+        return pr.changeUrl();
+    }
+
+    @Override
+    public URI changeUrl(Hash base) {
+        return pr.changeUrl(base);
+    }
+
+    @Override
+    public URI reviewCommentUrl(ReviewComment reviewComment) {
+        return pr.reviewCommentUrl(reviewComment);
+    }
+
+    @Override
+    public URI reviewUrl(Review review) {
+        return pr.reviewUrl(review);
+    }
+
+    @Override
+    public boolean isDraft() {
+        return pr.isDraft();
+    }
+
+    @Override
+    public Optional<ZonedDateTime> lastMarkedAsDraftTime() {
+        return pr.lastMarkedAsDraftTime();
+    }
+
+    @Override
+    public Optional<ZonedDateTime> labelAddedAt(String label) {
+        return pr.labelAddedAt(label);
+    }
+
+    @Override
+    public URI filesUrl(Hash hash) {
+        return pr.filesUrl(hash);
+    }
+
+    @Override
+    public Optional<ZonedDateTime> lastForcePushTime() {
+        return pr.lastForcePushTime();
+    }
+
+    @Override
+    public Optional<Hash> findIntegratedCommitHash() {
+        return pr.findIntegratedCommitHash();
+    }
+
+    @Override
+    public Object snapshot() {
+        return pr.snapshot();
+    }
+
+    @Override
+    public ZonedDateTime lastTouchedTime() {
+        return pr.lastTouchedTime();
+    }
+
+    @Override
+    public String toString() {
+        return pr.toString();
+    }
+}
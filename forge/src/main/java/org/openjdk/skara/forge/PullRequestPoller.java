@@ -27,6 +27,8 @@ import java.time.Instant;
 import java.time.ZonedDateTime;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.logging.Logger;
@@ -216,6 +218,36 @@ public class PullRequestPoller {
         quarantineMap.put(pr.id(), new PullRequestRetry(pr, until));
     }
 
+    /**
+     * Returns the pull requests scheduled for a retry, or with a quarantine, that has
+     * passed, without querying the repository for updated pull requests. Unlike the
+     * results of updatedPullRequests(), these are removed from the retry and quarantine
+     * sets right away and do not need to be acknowledged. Used to handle retries on
+     * time by callers that do not query for updated pull requests every time.
+     */
+    public synchronized List<PullRequest> dueRetries() {
+        var now = Instant.now();
+        var due = new LinkedHashMap<String, PullRequest>();
+        var stillQuarantined = new HashSet<String>();
+        for (var iterator = quarantineMap.values().iterator(); iterator.hasNext(); ) {
+            var prRetry = iterator.next();
+            if (prRetry.when.isBefore(now)) {
+                due.put(prRetry.pr.id(), prRetry.pr);
+                iterator.remove();
+            } else {
+                stillQuarantined.add(prRetry.pr.id());
+            }
+        }
+        for (var iterator = retryMap.values().iterator(); iterator.hasNext(); ) {
+            var prRetry = iterator.next();
+            if (prRetry.when.isBefore(now) && !stillQuarantined.contains(prRetry.pr.id())) {
+                due.putIfAbsent(prRetry.pr.id(), prRetry.pr);
+                iterator.remove();
+            }
+        }
+        return List.copyOf(due.values());
+    }
+
     /**
      * Queries the repository for pull requests. On the first round (or until any
      * results have been received), get all pull requests. After that limit the
@@ -29,6 +29,7 @@ import java.util.logging.Logger;
 import java.util.regex.Matcher;
 import org.openjdk.skara.forge.*;
 import org.openjdk.skara.host.HostUser;
+import org.openjdk.skara.issuetracker.Comment;
 import org.openjdk.skara.issuetracker.Label;
 import org.openjdk.skara.json.*;
 import org.openjdk.skara.network.*;
@@ -198,6 +199,178 @@ public class GitHubRepository implements HostedRepository {
                 .collect(Collectors.toList());
     }
 
+    @Override
+    public Map<String, PullRequestSnapshot> pullRequestSnapshots(Collection<String> ids) {
+        var numbers = ids.stream()
+                         .filter(id -> id.matches("[0-9]+"))
+                         .distinct()
+                         .toList();
+        var ret = new HashMap<String, PullRequestSnapshot>();
+        for (int i = 0; i < numbers.size(); i += SNAPSHOT_BATCH_SIZE) {
+            var batch = numbers.subList(i, Math.min(i + SNAPSHOT_BATCH_SIZE, numbers.size()));
+            ret.putAll(pullRequestSnapshotBatch(batch));
+        }
+        return ret;
+    }
+
+    private static final int SNAPSHOT_BATCH_SIZE = 20;
+
+    private static final String SNAPSHOT_AUTHOR_FIELDS =
+            "author { __typename, login, ... on User { databaseId }, ... on Bot { databaseId } }";
+
+    private Map<String, PullRequestSnapshot> pullRequestSnapshotBatch(List<String> numbers) {
+        var parts = name().split("/");
+        var owner = parts[0];
+        var name = parts[1];
+
+        var query = new StringBuilder();
+        query.append("{\n");
+        query.append("  repository(owner: \"" + owner + "\", name: \"" + name + "\") {\n");
+        for (var number : numbers) {
+            query.append(String.join("\n", List.of(
+                "    pr" + number + ": pullRequest(number: " + number + ") {",
+                "      updatedAt,",
+                "      headRefOid,",
+                "      baseRefName,",
+                "      labels(first: 100) { totalCount, nodes { name, description } },",
+                "      comments(first: 100) {",
+                "        totalCount,",
+                "        nodes { fullDatabaseId, body, createdAt, updatedAt, " + SNAPSHOT_AUTHOR_FIELDS + " }",
+                "      },",
+                "      reviews(first: 100) {",
+                "        totalCount,",
+                "        nodes { fullDatabaseId, state, body, submittedAt, commit { oid }, " + SNAPSHOT_AUTHOR_FIELDS + " }",
+                "      },",
+                "      timelineItems(itemTypes: BASE_REF_CHANGED_EVENT, last: 10) {",
+                "        nodes { ... on BaseRefChangedEvent { currentRefName, previousRefName, createdAt } }",
+                "      }",
+                "    }\n")));
+        }
+        query.append("  }\n");
+        query.append("}");
+
+        var data = gitHubHost.graphQL()
+                             .post()
+                             .body(JSON.object().put("query", query.toString()))
+                             .execute()
+                             .get("data");
+        return parsePullRequestSnapshots(numbers, data);
+    }
+
+    /**
+     * Parses the data of a snapshot query, leaving out the pull requests that
+     * are missing or have to be queried the regular way.
+     */
+    Map<String, PullRequestSnapshot> parsePullRequestSnapshots(List<String> numbers, JSONValue data) {
+        var ret = new HashMap<String, PullRequestSnapshot>();
+        if (data == null || data.isNull() || data.get("repository") == null || data.get("repository").isNull()) {
+            return ret;
+        }
+        var repositoryData = data.get("repository");
+        for (var number : numbers) {
+            var pr = repositoryData.get("pr" + number);
+            if (pr == null || pr.isNull()) {
+                continue;
+            }
+            var snapshot = parsePullRequestSnapshot(number, pr);
+            if (snapshot != null) {
+                ret.put(number, snapshot);
+            } else {
+                log.fine("Pull request " + number + " in " + name() + " is too large for a snapshot");
+            }
+        }
+        return ret;
+    }
+
+    private static boolean isComplete(JSONValue connection) {
+        return connection.get("totalCount").asInt() == connection.get("nodes").asArray().size();
+    }
+
+    private static String snapshotId(JSONValue node) {
+        var id = node.get("fullDatabaseId");
+        return id.isString() ? id.asString() : id.toString();
+    }
+
+    /**
+     * Parses a user the same way as the REST API would report it, or returns
+     * null if the user cannot be identified (e.g. a deleted account).
+     */
+    private HostUser snapshotUser(JSONValue node) {
+        var author = node.get("author");
+        if (author == null || author.isNull() || author.get("databaseId") == null) {
+            return null;
+        }
+        var username = author.get("login").asString();
+        if (author.get("__typename").asString().equals("Bot")) {
+            username += "[bot]";
+        }
+        return gitHubHost.hostUser(author.get("databaseId").asInt(), username);
+    }
+
+    /**
+     * Returns null if any of the listings could not be fetched completely, in
+     * which case the pull request has to be queried the regular way.
+     */
+    private PullRequestSnapshot parsePullRequestSnapshot(String id, JSONValue pr) {
+        if (!isComplete(pr.get("labels")) || !isComplete(pr.get("comments")) || !isComplete(pr.get("reviews"))) {
+            return null;
+        }
+
+        var labels = pr.get("labels").get("nodes").stream()
+                       .map(node -> new Label(node.get("name").asString(),
+                                              node.get("description").isNull() ? null : node.get("description").asString()))
+                       .sorted()
+                       .toList();
+
+        var comments = new ArrayList<Comment>();
+        for (var node : pr.get("comments").get("nodes").asArray()) {
+            var user = snapshotUser(node);
+            if (user == null) {
+                return null;
+            }
+            comments.add(new Comment(snapshotId(node),
+                                     node.get("body").asString(),
+                                     user,
+                                     ZonedDateTime.parse(node.get("createdAt").asString()),
+                                     ZonedDateTime.parse(node.get("updatedAt").asString())));
+        }
+
+        var targetRef = pr.get("baseRefName").asString();
+        var reviews = new ArrayList<Review>();
+        for (var node : pr.get("reviews").get("nodes").asArray()) {
+            var state = node.get("state").asString();
+            if (node.get("submittedAt").isNull() || (state.equals("COMMENTED") && node.get("body").asString().isEmpty())) {
+                continue;
+            }
+            var user = snapshotUser(node);
+            if (user == null) {
+                return null;
+            }
+            var commit = node.get("commit");
+            var hash = commit.isNull() ? null : new Hash(commit.get("oid").asString());
+            var verdict = switch (state) {
+                case "APPROVED" -> Review.Verdict.APPROVED;
+                case "CHANGES_REQUESTED" -> Review.Verdict.DISAPPROVED;
+                default -> Review.Verdict.NONE;
+            };
+            reviews.add(new Review(ZonedDateTime.parse(node.get("submittedAt").asString()), user, verdict, hash,
+                                   snapshotId(node), node.get("body").asString(), targetRef));
+        }
+        var targetRefChanges = pr.get("timelineItems").get("nodes").stream()
+                                 .filter(node -> node.contains("currentRefName"))
+                                 .map(node -> new ReferenceChange(node.get("previousRefName").asString(),
+                                                                  node.get("currentRefName").asString(),
+                                                                  ZonedDateTime.parse(node.get("createdAt").asString())))
+                                 .toList();
+
+        return new PullRequestSnapshot(id,
+                                       ZonedDateTime.parse(pr.get("updatedAt").asString()),
+                                       new Hash(pr.get("headRefOid").asString()),
+                                       labels,
+                                       comments,
+                                       PullRequest.calculateReviewTargetRefs(reviews, targetRefChanges));
+    }
+
     @Override
     public List<PullRequest> findPullRequestsWithComment(String author, String body) {
         var query = "\"" + body + "\" in:comments type:pr repo:" + repository;
@@ -340,7 +513,29 @@ public class GitHubRepository implements HostedRepository {
 
     @Override
     public Optional<WebHook> parseWebHook(JSONValue body) {
-        throw new RuntimeException("not implemented yet");
+        if (!body.contains("repository") || !body.get("repository").contains("full_name")) {
+            return Optional.empty();
+        }
+        if (!body.get("repository").get("full_name").asString().equalsIgnoreCase(repository)) {
+            return Optional.empty();
+        }
+
+        // Pull request, review and review comment events include the pull request itself. The
+        // payload is not authenticated, so only the number is used and the pull request is fetched.
+        if (body.contains("pull_request") && body.get("pull_request").contains("number")) {
+            var pr = pullRequest(body.get("pull_request").get("number").toString());
+            return Optional.of(new WebHook(List.of(pr)));
+        }
+
+        // Comments on pull requests are sent as issue comment events
+        if (body.contains("issue") && body.get("issue").contains("pull_request")) {
+            var pr = pullRequest(body.get("issue").get("number").toString());
+            return Optional.of(new WebHook(List.of(pr)));
+        }
+
+        // Other events, such as pushes, do not affect a specific pull request. Pushes
+        // to the source branch of a pull request are also sent as pull request events.
+        return Optional.empty();
     }
 
     @Override
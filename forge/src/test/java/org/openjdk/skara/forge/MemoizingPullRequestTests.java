@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2024, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.openjdk.skara.forge;
+
+import java.io.IOException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInfo;
+import org.openjdk.skara.issuetracker.Comment;
+import org.openjdk.skara.test.HostCredentials;
+import org.openjdk.skara.vcs.Hash;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MemoizingPullRequestTests {
+    @Test
+    void comments(TestInfo testInfo) throws IOException {
+        try (var credentials = new HostCredentials(testInfo)) {
+            var repo = credentials.getHostedRepository();
+            var pr = credentials.createPullRequest(repo, null, null, "Foo");
+            var memoizing = new MemoizingPullRequest(repo.pullRequest(pr.id()));
+            assertEquals(0, memoizing.comments().size());
+
+            // Changes made elsewhere are not seen by the view
+            pr.addComment("First");
+            assertEquals(0, memoizing.comments().size());
+
+            // Changes made through the view are
+            memoizing.addComment("Second");
+            var comments = memoizing.comments();
+            assertEquals(2, comments.size());
+            assertEquals("Second", comments.get(1).body());
+
+            // The returned lists are private copies
+            comments.clear();
+            assertEquals(2, memoizing.comments().size());
+        }
+    }
+
+    @Test
+    void checks(TestInfo testInfo) throws IOException {
+        try (var credentials = new HostCredentials(testInfo)) {
+            var repo = credentials.getHostedRepository();
+            var pr = credentials.createPullRequest(repo, null, null, "Foo");
+            var memoizing = new MemoizingPullRequest(repo.pullRequest(pr.id()));
+            var hash = new Hash("0123456789012345678901234567890123456789");
+            assertEquals(0, memoizing.checks(hash).size());
+
+            pr.createCheck(CheckBuilder.create("Elsewhere", hash).build());
+            assertEquals(0, memoizing.checks(hash).size());
+
+            memoizing.createCheck(CheckBuilder.create("Here", hash).build());
+            assertEquals(2, memoizing.checks(hash).size());
+        }
+    }
+
+    @Test
+    void snapshot(TestInfo testInfo) throws IOException {
+        try (var credentials = new HostCredentials(testInfo)) {
+            var repo = credentials.getHostedRepository();
+            var pr = credentials.createPullRequest(repo, null, null, "Foo");
+            pr.addComment("Real");
+            var current = repo.pullRequest(pr.id());
+            var comment = new Comment("1", "Snapshot", pr.author(), current.updatedAt(), current.updatedAt());
+
+            // A snapshot taken at the current update time is used instead of fetching
+            var snapshot = new PullRequestSnapshot(pr.id(), current.updatedAt(), current.headHash(),
+                                                   List.of(), List.of(comment), List.of());
+            var memoizing = new MemoizingPullRequest(current, snapshot);
+            assertEquals(List.of(comment), memoizing.comments());
+            assertEquals(0, memoizing.reviews().size());
+
+            // An outdated snapshot is ignored
+            var outdated = new PullRequestSnapshot(pr.id(), current.updatedAt().minusMinutes(1), current.headHash(),
+                                                   List.of(), List.of(comment), List.of());
+            memoizing = new MemoizingPullRequest(current, outdated);
+            assertEquals("Real", memoizing.comments().get(0).body());
+
+            // Modifying the pull request drops the snapshot
+            memoizing = new MemoizingPullRequest(current, snapshot);
+            memoizing.addComment("Another");
+            assertEquals(2, memoizing.comments().size());
+        }
+    }
+}
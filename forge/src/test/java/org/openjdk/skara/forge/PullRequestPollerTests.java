@@ -26,6 +26,7 @@ import java.io.IOException;
 import java.time.Duration;
 import java.time.Instant;
 import java.time.ZonedDateTime;
+import java.util.List;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestInfo;
 import org.openjdk.skara.issuetracker.Issue;
@@ -254,6 +255,40 @@ public class PullRequestPollerTests {
         }
     }
 
+    @Test
+    void dueRetries(TestInfo testInfo) throws IOException {
+        try (var credentials = new HostCredentials(testInfo)) {
+            var repo = credentials.getHostedRepository();
+            var prPoller = new PullRequestPoller(repo, false);
+
+            var pr1 = credentials.createPullRequest(repo, null, null, "Foo");
+            var pr2 = credentials.createPullRequest(repo, null, null, "Bar");
+            var prs = prPoller.updatedPullRequests();
+            assertEquals(2, prs.size());
+            prPoller.lastBatchHandled();
+
+            // Only retries that are due are returned, and only once
+            prPoller.retryPullRequest(pr1);
+            prPoller.retryPullRequest(pr2, Instant.now().plus(Duration.ofDays(1)));
+            prs = prPoller.dueRetries();
+            assertEquals(List.of(pr1.id()), prs.stream().map(PullRequest::id).toList());
+            assertEquals(0, prPoller.dueRetries().size());
+
+            // A quarantine in the future blocks a retry, one in the past is returned
+            prPoller.retryPullRequest(pr1);
+            prPoller.quarantinePullRequest(pr1, Instant.now().plus(Duration.ofDays(1)));
+            assertEquals(0, prPoller.dueRetries().size());
+            prPoller.quarantinePullRequest(pr1, Instant.now().minus(Duration.ofMinutes(1)));
+            prs = prPoller.dueRetries();
+            assertEquals(List.of(pr1.id()), prs.stream().map(PullRequest::id).toList());
+
+            // Retries handed out are not returned by the next query
+            prs = prPoller.updatedPullRequests();
+            assertEquals(0, prs.size());
+            prPoller.lastBatchHandled();
+        }
+    }
+
     @Test
     void quarantine(TestInfo testInfo) throws IOException {
         try (var credentials = new HostCredentials(testInfo)) {
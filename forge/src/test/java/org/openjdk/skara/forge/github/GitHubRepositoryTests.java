@@ -0,0 +1,293 @@
+/*
+ * Copyright (c) 2024, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.openjdk.skara.forge.github;
+
+import org.junit.jupiter.api.Test;
+import org.openjdk.skara.forge.*;
+import org.openjdk.skara.issuetracker.*;
+import org.openjdk.skara.json.JSON;
+import org.openjdk.skara.network.URIBuilder;
+import org.openjdk.skara.vcs.Hash;
+
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GitHubRepositoryTests {
+    private GitHubRepository repository() {
+        var host = new GitHubHost(URIBuilder.base("http://www.example.com").build(),
+                Pattern.compile("^(http://www.example.com)/test/(.*)$"), "$1/another/$2",
+                List.of(), Set.of(), null, false);
+        return new GitHubRepository(host, "openjdk/playground");
+    }
+
+    @Test
+    void pullRequestWebHook() {
+        var host = new GitHubHost(URIBuilder.base("http://www.example.com").build(),
+                Pattern.compile("^(http://www.example.com)/test/(.*)$"), "$1/another/$2",
+                List.of(), Set.of(), null, false);
+        var fetched = new ArrayList<String>();
+        var repository = new GitHubRepository(host, "openjdk/playground") {
+            @Override
+            public PullRequest pullRequest(String id) {
+                fetched.add(id);
+                var json = JSON.object()
+                               .put("number", Integer.parseInt(id))
+                               .put("state", "open")
+                               .put("labels", JSON.array());
+                return new GitHubPullRequest(this, json, null);
+            }
+        };
+        var body = JSON.parse("""
+                {
+                  "action": "synchronize",
+                  "number": 17,
+                  "pull_request": {
+                    "number": 17,
+                    "state": "closed",
+                    "updated_at": "2024-01-02T03:04:05Z",
+                    "labels": []
+                  },
+                  "repository": {
+                    "full_name": "openjdk/playground"
+                  }
+                }
+                """);
+        var webHook = repository.parseWebHook(body).orElseThrow();
+        assertEquals(1, webHook.updatedPullRequests().size());
+        assertEquals("17", webHook.updatedPullRequests().get(0).id());
+
+        // The state in the payload is not trusted, the pull request is fetched instead
+        assertEquals(List.of("17"), fetched);
+        assertEquals(Issue.State.OPEN, webHook.updatedPullRequests().get(0).state());
+    }
+
+    @Test
+    void otherRepositoryWebHook() {
+        var body = JSON.parse("""
+                {
+                  "action": "opened",
+                  "pull_request": {
+                    "number": 17,
+                    "labels": []
+                  },
+                  "repository": {
+                    "full_name": "openjdk/other"
+                  }
+                }
+                """);
+        assertTrue(repository().parseWebHook(body).isEmpty());
+    }
+
+    @Test
+    void unrelatedWebHooks() {
+        var issueComment = JSON.parse("""
+                {
+                  "action": "created",
+                  "issue": {
+                    "number": 17
+                  },
+                  "repository": {
+                    "full_name": "openjdk/playground"
+                  }
+                }
+                """);
+        assertTrue(repository().parseWebHook(issueComment).isEmpty());
+
+        var push = JSON.parse("""
+                {
+                  "ref": "refs/heads/master",
+                  "repository": {
+                    "full_name": "openjdk/playground"
+                  }
+                }
+                """);
+        assertTrue(repository().parseWebHook(push).isEmpty());
+    }
+
+    @Test
+    void pullRequestSnapshots() {
+        var data = JSON.parse("""
+                {
+                  "repository": {
+                    "pr1": {
+                      "updatedAt": "2024-01-05T00:00:00Z",
+                      "headRefOid": "0123456789012345678901234567890123456789",
+                      "baseRefName": "master",
+                      "labels": {
+                        "totalCount": 2,
+                        "nodes": [
+                          { "name": "rfr", "description": null },
+                          { "name": "core", "description": "Core libraries" }
+                        ]
+                      },
+                      "comments": {
+                        "totalCount": 2,
+                        "nodes": [
+                          {
+                            "fullDatabaseId": "1001",
+                            "body": "Looks good",
+                            "createdAt": "2024-01-02T00:00:00Z",
+                            "updatedAt": "2024-01-02T01:00:00Z",
+                            "author": { "__typename": "User", "login": "duke", "databaseId": 17 }
+                          },
+                          {
+                            "fullDatabaseId": "1002",
+                            "body": "Webrevs",
+                            "createdAt": "2024-01-03T00:00:00Z",
+                            "updatedAt": "2024-01-03T00:00:00Z",
+                            "author": { "__typename": "Bot", "login": "bridge", "databaseId": 18 }
+                          }
+                        ]
+                      },
+                      "reviews": {
+                        "totalCount": 4,
+                        "nodes": [
+                          {
+                            "fullDatabaseId": "2001",
+                            "state": "APPROVED",
+                            "body": "",
+                            "submittedAt": "2024-01-02T00:00:00Z",
+                            "commit": { "oid": "9876543210987654321098765432109876543210" },
+                            "author": { "__typename": "User", "login": "duke", "databaseId": 17 }
+                          },
+                          {
+                            "fullDatabaseId": "2002",
+                            "state": "COMMENTED",
+                            "body": "",
+                            "submittedAt": "2024-01-03T00:00:00Z",
+                            "commit": null,
+                            "author": { "__typename": "User", "login": "duke", "databaseId": 17 }
+                          },
+                          {
+                            "fullDatabaseId": "2003",
+                            "state": "PENDING",
+                            "body": "",
+                            "submittedAt": null,
+                            "commit": null,
+                            "author": { "__typename": "User", "login": "duke", "databaseId": 17 }
+                          },
+                          {
+                            "fullDatabaseId": "2004",
+                            "state": "CHANGES_REQUESTED",
+                            "body": "Please fix",
+                            "submittedAt": "2024-01-04T00:00:00Z",
+                            "commit": null,
+                            "author": { "__typename": "User", "login": "ojdk", "databaseId": 19 }
+                          }
+                        ]
+                      },
+                      "timelineItems": {
+                        "nodes": [
+                          { "currentRefName": "master", "previousRefName": "jdk22", "createdAt": "2024-01-03T00:00:00Z" }
+                        ]
+                      }
+                    },
+                    "pr2": {
+                      "updatedAt": "2024-01-05T00:00:00Z",
+                      "headRefOid": "0123456789012345678901234567890123456789",
+                      "baseRefName": "master",
+                      "labels": { "totalCount": 0, "nodes": [] },
+                      "comments": {
+                        "totalCount": 101,
+                        "nodes": [
+                          {
+                            "fullDatabaseId": "1003",
+                            "body": "First page only",
+                            "createdAt": "2024-01-02T00:00:00Z",
+                            "updatedAt": "2024-01-02T00:00:00Z",
+                            "author": { "__typename": "User", "login": "duke", "databaseId": 17 }
+                          }
+                        ]
+                      },
+                      "reviews": { "totalCount": 0, "nodes": [] },
+                      "timelineItems": { "nodes": [] }
+                    },
+                    "pr3": {
+                      "updatedAt": "2024-01-05T00:00:00Z",
+                      "headRefOid": "0123456789012345678901234567890123456789",
+                      "baseRefName": "master",
+                      "labels": { "totalCount": 0, "nodes": [] },
+                      "comments": {
+                        "totalCount": 1,
+                        "nodes": [
+                          {
+                            "fullDatabaseId": "1004",
+                            "body": "From a deleted account",
+                            "createdAt": "2024-01-02T00:00:00Z",
+                            "updatedAt": "2024-01-02T00:00:00Z",
+                            "author": null
+                          }
+                        ]
+                      },
+                      "reviews": { "totalCount": 0, "nodes": [] },
+                      "timelineItems": { "nodes": [] }
+                    },
+                    "pr4": null
+                  }
+                }
+                """);
+        var snapshots = repository().parsePullRequestSnapshots(List.of("1", "2", "3", "4"), data);
+
+        // Truncated listings, unknown authors and missing pull requests are left out
+        assertEquals(Set.of("1"), snapshots.keySet());
+
+        var snapshot = snapshots.get("1");
+        assertEquals("1", snapshot.id());
+        assertEquals(ZonedDateTime.parse("2024-01-05T00:00:00Z"), snapshot.updatedAt());
+        assertEquals(new Hash("0123456789012345678901234567890123456789"), snapshot.headHash());
+
+        assertEquals(List.of("core", "rfr"), snapshot.labels().stream().map(Label::name).toList());
+        assertEquals(Optional.of("Core libraries"), snapshot.labels().get(0).description());
+        assertEquals(Optional.empty(), snapshot.labels().get(1).description());
+
+        assertEquals(2, snapshot.comments().size());
+        var comment = snapshot.comments().get(0);
+        assertEquals("1001", comment.id());
+        assertEquals("Looks good", comment.body());
+        assertEquals("duke", comment.author().username());
+        assertEquals("17", comment.author().id());
+        assertEquals(ZonedDateTime.parse("2024-01-02T01:00:00Z"), comment.updatedAt());
+        assertEquals("bridge[bot]", snapshot.comments().get(1).author().username());
+
+        // Pending reviews and empty comment reviews are not reported
+        assertEquals(List.of("2001", "2004"), snapshot.reviews().stream().map(Review::id).toList());
+        var approval = snapshot.reviews().get(0);
+        assertEquals(Review.Verdict.APPROVED, approval.verdict());
+        assertEquals(Optional.of(new Hash("9876543210987654321098765432109876543210")), approval.hash());
+        assertEquals("duke", approval.reviewer().username());
+        var disapproval = snapshot.reviews().get(1);
+        assertEquals(Review.Verdict.DISAPPROVED, disapproval.verdict());
+        assertEquals(Optional.empty(), disapproval.hash());
+        assertEquals(Optional.of("Please fix"), disapproval.body());
+
+        // The approval was made before the pull request was retargeted
+        assertEquals("jdk22", approval.targetRef());
+        assertEquals("master", disapproval.targetRef());
+    }
+}
@@ -47,9 +47,14 @@ public class JiraIssue implements IssueTrackerIssue {
     private static final List<String> FILTER_OUT_FIELDS = List.of("fields.customfield_11700");
     private static final List<String> VALID_RESOLUTIONS = List.of("Fixed", "Delivered");
 
+    private final JiraIssueCache linkedIssues;
     private List<Label> labels;
 
     JiraIssue(JiraProject jiraProject, RestRequest request, JSONValue json) {
+        this(jiraProject, request, json, new JiraIssueCache(jiraProject));
+    }
+
+    JiraIssue(JiraProject jiraProject, RestRequest request, JSONValue json, JiraIssueCache linkedIssues) {
         this.jiraProject = jiraProject;
         this.request = request;
         this.json = json;
@@ -57,6 +62,8 @@ public class JiraIssue implements IssueTrackerIssue {
                 .map(s -> new Label(s.asString()))
                 .collect(Collectors.toList());
         this.needSecurity = jiraProject.jiraHost().visibilityRole().isPresent();
+        this.linkedIssues = linkedIssues;
+        linkedIssues.add(this);
     }
 
     private enum JiraIssueState {
@@ -93,6 +100,7 @@ public class JiraIssue implements IssueTrackerIssue {
 
     @Override
     public void setTitle(String title) {
+        linkedIssues.clear();
         if (needSecurity) {
             log.warning("Issue title does not support setting a visibility role - ignoring");
             return;
@@ -115,6 +123,7 @@ public class JiraIssue implements IssueTrackerIssue {
 
     @Override
     public void setBody(String body) {
+        linkedIssues.clear();
         if (needSecurity) {
             log.warning("Issue body does not support setting a visibility role - ignoring");
             return;
@@ -260,6 +269,7 @@ public class JiraIssue implements IssueTrackerIssue {
 
     @Override
     public void setState(State state) {
+        linkedIssues.clear();
         var availableTransitions = availableTransitions();
 
         if (availableTransitions.isEmpty()) {
@@ -307,6 +317,7 @@ public class JiraIssue implements IssueTrackerIssue {
 
     @Override
     public void addLabel(String label) {
+        linkedIssues.clear();
         labels = null;
         var query = JSON.object()
                         .put("update", JSON.object()
@@ -317,6 +328,7 @@ public class JiraIssue implements IssueTrackerIssue {
 
     @Override
     public void removeLabel(String label) {
+        linkedIssues.clear();
         labels = null;
         var query = JSON.object()
                         .put("update", JSON.object()
@@ -327,6 +339,7 @@ public class JiraIssue implements IssueTrackerIssue {
 
     @Override
     public void setLabels(List<String> labels) {
+        linkedIssues.clear();
         var labelsArray = JSON.array();
         for (var label : labels) {
             labelsArray.add(label);
@@ -371,6 +384,7 @@ public class JiraIssue implements IssueTrackerIssue {
 
     @Override
     public void setAssignees(List<HostUser> assignees) {
+        linkedIssues.clear();
         String assignee;
         switch (assignees.size()) {
             case 0:
@@ -438,15 +452,24 @@ public class JiraIssue implements IssueTrackerIssue {
         result.addAll(commentLinks);
 
         if (json.get("fields").contains("issuelinks")) {
-            var issueLinks = json.get("fields").get("issuelinks").stream()
-                                 .map(JSONValue::asObject)
-                                 .map(o -> Link.create(o.contains("inwardIssue") ? jiraProject.issue(o.get("inwardIssue").get("key").asString()).orElseThrow() :
-                                                               jiraProject.issue(o.get("outwardIssue").get("key").asString()).orElseThrow(),
-                                                       o.contains("inwardIssue") ? o.get("type").get("inward").asString() :
-                                                               o.get("type").get("outward").asString())
-                                               .build())
-                                 .collect(Collectors.toList());
-            result.addAll(issueLinks);
+            var links = json.get("fields").get("issuelinks").stream()
+                            .map(JSONValue::asObject)
+                            .toList();
+            var keys = links.stream()
+                            .map(o -> o.contains("inwardIssue") ? o.get("inwardIssue").get("key").asString() :
+                                              o.get("outwardIssue").get("key").asString())
+                            .toList();
+            var issues = linkedIssues.issues(keys);
+            for (int i = 0; i < links.size(); i++) {
+                var o = links.get(i);
+                var issue = issues.get(keys.get(i));
+                if (issue == null) {
+                    throw new NoSuchElementException("Linked issue " + keys.get(i) + " not found");
+                }
+                result.add(Link.create(issue, o.contains("inwardIssue") ? o.get("type").get("inward").asString() :
+                                                      o.get("type").get("outward").asString())
+                               .build());
+            }
         }
 
         return result;
@@ -568,6 +591,7 @@ public class JiraIssue implements IssueTrackerIssue {
 
     @Override
     public void addLink(Link link) {
+        linkedIssues.clear();
         if (link.uri().isPresent() && link.title().isPresent()) {
             addWebLink(link);
         } else if (link.issue().isPresent() && link.relationship().isPresent()) {
@@ -601,6 +625,7 @@ public class JiraIssue implements IssueTrackerIssue {
 
     @Override
     public void removeLink(Link link) {
+        linkedIssues.clear();
         if (link.uri().isPresent()) {
             removeWebLink(link);
         } else if (link.issue().isPresent() && link.relationship().isPresent()) {
@@ -624,6 +649,7 @@ public class JiraIssue implements IssueTrackerIssue {
 
     @Override
     public void setProperty(String name, JSONValue value) {
+        linkedIssues.clear();
         var encoded = jiraProject.encodeProperty(name, value);
         if (encoded.isEmpty()) {
             log.warning("Ignoring unknown property: " + name);
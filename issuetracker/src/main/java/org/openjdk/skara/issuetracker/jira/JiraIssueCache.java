@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2024, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.openjdk.skara.issuetracker.jira;
+
+import java.util.*;
+
+/**
+ * Issues fetched while following links from a single issue. Issues resolved
+ * through the links of an issue share the cache of that issue, so that walking
+ * the links of related issues (such as a main issue and its backports) fetches
+ * each issue at most once, and fetches them in batches. The cache lives only as
+ * long as the issues referring to it, which is typically a single work item.
+ */
+class JiraIssueCache {
+    private final JiraProject jiraProject;
+    private final Map<String, JiraIssue> issues = new HashMap<>();
+
+    JiraIssueCache(JiraProject jiraProject) {
+        this.jiraProject = jiraProject;
+    }
+
+    /**
+     * Forgets all issues, called when any of the issues sharing the cache is
+     * modified, as the linked issues may then be affected as well.
+     */
+    synchronized void clear() {
+        issues.clear();
+    }
+
+    synchronized void add(JiraIssue issue) {
+        issues.putIfAbsent(issue.id(), issue);
+    }
+
+    /**
+     * Returns the issues with the given keys, fetching the ones not already known
+     * using as few requests as possible. Keys of issues that cannot be found are
+     * left out of the result.
+     */
+    synchronized Map<String, JiraIssue> issues(Collection<String> keys) {
+        var missing = keys.stream()
+                          .filter(key -> !issues.containsKey(key))
+                          .distinct()
+                          .toList();
+        if (!missing.isEmpty()) {
+            issues.putAll(jiraProject.issuesByKey(missing, this));
+            // Keys not found by the search, e.g. because the issue has been moved,
+            // are fetched one at a time to get the same result as issue() would
+            for (var key : missing) {
+                if (!issues.containsKey(key)) {
+                    jiraProject.issue(key, this).ifPresent(issue -> issues.put(key, issue));
+                }
+            }
+        }
+        var ret = new HashMap<String, JiraIssue>();
+        for (var key : keys) {
+            var issue = issues.get(key);
+            if (issue != null) {
+                ret.put(key, issue);
+            }
+        }
+        return ret;
+    }
+}
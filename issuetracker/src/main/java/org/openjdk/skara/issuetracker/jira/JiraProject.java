@@ -425,6 +425,14 @@ public class JiraProject implements IssueProject {
 
     @Override
     public Optional<IssueTrackerIssue> issue(String id) {
+        return issue(id, null).map(IssueTrackerIssue.class::cast);
+    }
+
+    /**
+     * Fetches a single issue. If a cache is given, the issue will resolve its
+     * links through it.
+     */
+    Optional<JiraIssue> issue(String id, JiraIssueCache cache) {
         if (id.indexOf('-') < 0) {
             id = projectName.toUpperCase() + "-" + id;
         }
@@ -437,12 +445,47 @@ public class JiraProject implements IssueProject {
                                 })
                                 .execute();
         if (!issue.contains("NOT_FOUND")) {
-            return Optional.of(new JiraIssue(this, issueRequest, issue));
+            return Optional.of(cache != null ? new JiraIssue(this, issueRequest, issue, cache) : new JiraIssue(this, issueRequest, issue));
         } else {
             return Optional.empty();
         }
     }
 
+    private static final int ISSUE_BATCH_SIZE = 50;
+
+    /**
+     * Fetches several issues by key, using a single search request for each batch
+     * of keys. All fields are requested, so that the issues are the same as if they
+     * had been fetched one at a time. Keys that are not found are left out. The
+     * returned issues resolve their links through the given cache.
+     */
+    Map<String, JiraIssue> issuesByKey(List<String> keys, JiraIssueCache cache) {
+        var ret = new HashMap<String, JiraIssue>();
+        for (int i = 0; i < keys.size(); i += ISSUE_BATCH_SIZE) {
+            var batch = keys.subList(i, Math.min(i + ISSUE_BATCH_SIZE, keys.size()));
+            var jql = "key in (" + batch.stream()
+                                        .map(key -> "\"" + key + "\"")
+                                        .collect(Collectors.joining(", ")) + ")";
+            var query = JSON.object()
+                            .put("jql", jql)
+                            // Report unknown keys as warnings instead of failing the whole search
+                            .put("validateQuery", "warn")
+                            .put("maxResults", batch.size())
+                            .put("fields", JSON.array().add("*all"));
+            var issues = request.post("search")
+                                .body(query)
+                                .onError(r -> {
+                                    log.info("Searching for issues " + batch + " failed with " + r.statusCode());
+                                    return r.statusCode() < 500 ? Optional.of(JSON.object().put("issues", JSON.array())) : Optional.empty();
+                                })
+                                .execute();
+            for (var issue : issues.get("issues").asArray()) {
+                ret.put(JiraIssue.id(issue), new JiraIssue(this, generateIssueRequest(issue), issue, cache));
+            }
+        }
+        return ret;
+    }
+
     @Override
     public Optional<IssueTrackerIssue> jepIssue(String jepId) {
         var issues = request.post("search")
@@ -128,4 +128,21 @@ class JiraIntegrationTests {
         assertTrue(issue.resolution().isPresent());
         assertEquals("Fixed", issue.resolution().get());
     }
+
+    @Test
+    @EnabledIfTestProperties({"jira.uri", "jira.pat", "jira.project", "jira.issue"})
+    void testLinkedIssuesFetchedInBulk() {
+        var project = tracker.project(props.get("jira.project"));
+        var issueId = props.get("jira.issue");
+
+        var issue = project.issue(issueId).orElseThrow();
+        for (var link : issue.links()) {
+            if (link.issue().isEmpty()) {
+                continue;
+            }
+            // Issues found through a bulk search are the same as when fetched one at a time
+            var linked = link.issue().get();
+            assertEquals(project.issue(linked.id()).orElseThrow(), linked);
+        }
+    }
 }
@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) 2024, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.openjdk.skara.jcheck;
+
+import org.openjdk.skara.census.Census;
+import org.openjdk.skara.vcs.*;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.*;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Logger;
+
+/**
+ * Caches parsed .jcheck/conf files by the hash of their content, and censuses
+ * by their URI and version. The caches are shared by all JCheck instances in a
+ * process, so that checking many commits, or the same commits many times, does
+ * not read and parse the same configuration over and over again.
+ */
+class ConfigurationCache {
+    static final Path CONF_PATH = Path.of(".jcheck", "conf");
+    static final int MAX_CONFIGURATIONS = 256;
+    static final Duration CENSUS_TIMEOUT = Duration.ofMinutes(5);
+
+    private record ConfigurationKey(Hash blob, List<String> additionalConfiguration) {
+    }
+
+    private record CensusKey(URI uri, int version) {
+    }
+
+    private record CachedCensus(Census census, Instant fetched) {
+    }
+
+    private static final Logger log = Logger.getLogger("org.openjdk.skara.jcheck");
+    private static final Map<ConfigurationKey, Optional<JCheckConfiguration>> configurations =
+            new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<ConfigurationKey, Optional<JCheckConfiguration>> eldest) {
+                    return size() > MAX_CONFIGURATIONS;
+                }
+            };
+    private static final Map<CensusKey, CachedCensus> censuses = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the configuration in the given commit, combined with the additional
+     * configuration.
+     */
+    static Optional<JCheckConfiguration> configuration(ReadOnlyRepository repository, Hash hash,
+                                                       List<String> additionalConfiguration) throws IOException {
+        var entries = repository.files(hash, CONF_PATH);
+        if (entries.size() != 1 || !entries.get(0).type().isRegular()) {
+            return parse(repository, hash, additionalConfiguration);
+        }
+
+        var key = new ConfigurationKey(entries.get(0).hash(), List.copyOf(additionalConfiguration));
+        synchronized (configurations) {
+            var cached = configurations.get(key);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        var configuration = parse(repository, hash, additionalConfiguration);
+        synchronized (configurations) {
+            configurations.put(key, configuration);
+        }
+        return configuration;
+    }
+
+    private static Optional<JCheckConfiguration> parse(ReadOnlyRepository repository, Hash hash,
+                                                       List<String> additionalConfiguration) throws IOException {
+        var content = repository.lines(CONF_PATH, hash).orElse(List.of());
+        return JCheck.parseConfiguration(content, additionalConfiguration);
+    }
+
+    /**
+     * Returns the census for the configuration, downloading it again if the cached
+     * copy is older than CENSUS_TIMEOUT.
+     */
+    static Census census(CensusConfiguration configuration) throws IOException {
+        var key = new CensusKey(configuration.url(), configuration.version());
+        var cached = censuses.get(key);
+        var now = Instant.now();
+        if (cached != null && cached.fetched().plus(CENSUS_TIMEOUT).isAfter(now)) {
+            return cached.census();
+        }
+        log.fine("Fetching census from " + configuration.url());
+        var census = Census.from(configuration.url());
+        censuses.put(key, new CachedCensus(census, now));
+        return census;
+    }
+
+    static void clear() {
+        synchronized (configurations) {
+            configurations.clear();
+        }
+        censuses.clear();
+    }
+}
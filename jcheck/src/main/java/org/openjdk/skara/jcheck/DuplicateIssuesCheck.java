@@ -26,7 +26,6 @@ import org.openjdk.skara.census.Census;
 import org.openjdk.skara.vcs.Commit;
 import org.openjdk.skara.vcs.Hash;
 import org.openjdk.skara.vcs.ReadOnlyRepository;
-import org.openjdk.skara.vcs.openjdk.Issue;
 import org.openjdk.skara.vcs.openjdk.CommitMessage;
 
 import java.io.IOException;
@@ -37,60 +36,48 @@ import java.util.logging.Logger;
 public class DuplicateIssuesCheck extends CommitCheck {
     private final Logger log = Logger.getLogger("org.openjdk.skara.jcheck.duplicate-issues");
     private final ReadOnlyRepository repo;
-    private Map<String, List<Hash>> issuesToHashes = null;
+    private IssueIndex index = null;
 
     DuplicateIssuesCheck(ReadOnlyRepository repo) {
         this.repo = repo;
     }
 
-    private void populateIssuesToHashesMap() throws IOException {
-        issuesToHashes = new HashMap<>();
-
-        for (var metadata : repo.commitMetadata()) {
-            for (var line : metadata.message()) {
-                var issue = Issue.fromString(line);
-                if (issue.isPresent()) {
-                    var id = issue.get().id();
-                    if (!issuesToHashes.containsKey(id)) {
-                        issuesToHashes.put(id, new ArrayList<>());
-                    }
-                    issuesToHashes.get(id).add(metadata.hash());
-                }
+    private synchronized IssueIndex index() {
+        if (index == null) {
+            try {
+                index = IssueIndex.of(repo);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
             }
         }
+        return index;
     }
 
     @Override
     Iterator<org.openjdk.skara.jcheck.Issue> check(Commit commit, CommitMessage message, JCheckConfiguration conf, Census census) {
-        try {
-            if (issuesToHashes == null) {
-                populateIssuesToHashesMap();
-            }
-        } catch (IOException e) {
-            throw new UncheckedIOException(e);
-        }
+        var index = index();
 
         var metadata = CommitIssue.metadata(commit, message, conf, this);
         var issues = new ArrayList<org.openjdk.skara.jcheck.Issue>();
         for (var issue : message.issues()) {
-            var hashes = issuesToHashes.get(issue.id());
-            if (hashes != null && hashes.size() > 1) {
+            List<Hash> hashes;
+            try {
+                hashes = index.hashes(issue.id());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            if (hashes.size() > 1) {
                 // Check if any of the found hashes is an ancestor of the current commit
-                var ancestorHashes = new ArrayList<Hash>();
-                for (var hash : hashes) {
-                    if (hash.equals(commit.hash())) {
-                        ancestorHashes.add(hash);
-                    } else {
-                        try {
-                            if (repo.isAncestor(hash, commit.hash())) {
-                                ancestorHashes.add(hash);
-                            }
-                        } catch (IOException e) {
-                            throw new UncheckedIOException(e);
-                        }
-                    }
+                Set<Hash> ancestors;
+                try {
+                    ancestors = repo.ancestors(new HashSet<>(hashes), commit.hash());
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
                 }
-                if (ancestorHashes.size() > 1) {
+                var ancestorHashes = hashes.stream()
+                                           .filter(ancestors::contains)
+                                           .count();
+                if (ancestorHashes > 1) {
                     log.finer("issue: the JBS issue " + issue.toString() + " has been used in multiple commits");
                     var uniqueHashes = new ArrayList<>(new HashSet<>(hashes));
                     issues.add(new DuplicateIssuesIssue(issue, uniqueHashes, metadata));
@@ -0,0 +1,504 @@
+/*
+ * Copyright (c) 2024, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.openjdk.skara.jcheck;
+
+import org.openjdk.skara.vcs.*;
+import org.openjdk.skara.vcs.openjdk.Issue;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.logging.Logger;
+
+/**
+ * Maps issue ids to the commits whose messages mention them, for all commits
+ * reachable from the branches, tags and other refs of a repository.
+ * <p>
+ * If the repository has a cache directory, the index is stored there in two
+ * files. The base file holds the entries for a set of tips, sorted by issue id,
+ * so that a single issue can be looked up without reading the whole file. The
+ * log file is only ever appended to, and holds one record of added and removed
+ * commits for every later set of tips. Using the index therefore only reads the
+ * log and the base entries for the issues that are looked up, and only writes
+ * the commits that have been added or removed since the last use. The log is
+ * merged into a new base file once it has grown large compared to the base.
+ * <p>
+ * Commits that are only reachable from a detached HEAD, such as the commit of a
+ * pull request being checked, are included in the index but never stored.
+ */
+class IssueIndex {
+    static final String FILE_NAME = "jcheck-issues.index";
+    static final String LOG_FILE_NAME = "jcheck-issues.log";
+    private static final String HEADER = "skara-issue-index 2";
+    private static final String LOG_HEADER = "skara-issue-log 2";
+
+    private static final Logger log = Logger.getLogger("org.openjdk.skara.jcheck.duplicate-issues");
+
+    private record Change(boolean added, Hash hash) {
+    }
+
+    /**
+     * Reads lines from a file starting at a given position, and keeps track of
+     * the position of the next line.
+     */
+    private static class LineReader {
+        private final RandomAccessFile file;
+        private final byte[] buffer = new byte[8192];
+        private long bufferStart;
+        private int length = 0;
+        private int offset = 0;
+
+        LineReader(RandomAccessFile file, long position) {
+            this.file = file;
+            this.bufferStart = position;
+        }
+
+        long position() {
+            return bufferStart + offset;
+        }
+
+        String readLine() throws IOException {
+            var line = new ByteArrayOutputStream();
+            while (true) {
+                if (offset == length) {
+                    bufferStart += length;
+                    offset = 0;
+                    file.seek(bufferStart);
+                    length = Math.max(file.read(buffer), 0);
+                    if (length == 0) {
+                        return line.size() > 0 ? line.toString(StandardCharsets.UTF_8) : null;
+                    }
+                }
+                for (var i = offset; i < length; i++) {
+                    if (buffer[i] == '\n') {
+                        line.write(buffer, offset, i - offset);
+                        offset = i + 1;
+                        return line.toString(StandardCharsets.UTF_8);
+                    }
+                }
+                line.write(buffer, offset, length - offset);
+                offset = length;
+            }
+        }
+    }
+
+    private final ReadOnlyRepository repo;
+    private final Path baseFile;
+    private final Path logFile;
+    // Changes from the log and from commits that are not stored, to apply on top of the base
+    private final Map<String, List<Change>> changes = new HashMap<>();
+    private String generation;
+    private long dataStart;
+    private List<Hash> storedTips;
+    private long logEnd = 0;
+    private volatile IssueIndex reloaded;
+
+    private IssueIndex(ReadOnlyRepository repo, Path baseFile, Path logFile) {
+        this.repo = repo;
+        this.baseFile = baseFile;
+        this.logFile = logFile;
+    }
+
+    /**
+     * Returns the commits mentioning the issue. A commit that mentions the issue
+     * more than once is included once for each mention.
+     */
+    List<Hash> hashes(String issueId) throws IOException {
+        if (reloaded != null) {
+            return reloaded.hashes(issueId);
+        }
+        var hashes = new ArrayList<Hash>();
+        if (generation != null) {
+            var stored = lookup(issueId);
+            if (stored.isEmpty()) {
+                // The base has been merged with the log by someone else, start over
+                log.info("Issue index " + baseFile + " has been replaced - reloading");
+                reloaded = IssueIndex.of(repo);
+                return reloaded.hashes(issueId);
+            }
+            hashes.addAll(stored.get());
+        }
+        for (var change : changes.getOrDefault(issueId, List.of())) {
+            if (change.added()) {
+                hashes.add(change.hash());
+            } else {
+                hashes.removeIf(h -> h.equals(change.hash()));
+            }
+        }
+        return hashes;
+    }
+
+    private static List<String> issueIds(CommitMetadata metadata) {
+        var ids = new ArrayList<String>();
+        for (var line : metadata.message()) {
+            var issue = Issue.fromString(line);
+            if (issue.isPresent()) {
+                ids.add(issue.get().id());
+            }
+        }
+        return ids;
+    }
+
+    private static void add(Map<String, List<Hash>> issuesToHashes, List<CommitMetadata> commits) {
+        for (var metadata : commits) {
+            for (var id : issueIds(metadata)) {
+                issuesToHashes.computeIfAbsent(id, i -> new ArrayList<>()).add(metadata.hash());
+            }
+        }
+    }
+
+    private void change(String issueId, Change change) {
+        changes.computeIfAbsent(issueId, i -> new ArrayList<>()).add(change);
+    }
+
+    private static boolean sameTips(List<Hash> a, List<Hash> b) {
+        return new HashSet<>(a).equals(new HashSet<>(b));
+    }
+
+    /**
+     * Returns the tips without a detached HEAD, as those are the tips that the
+     * stored index is kept up to date with. A detached HEAD that is also the tip
+     * of some other ref is left out as well, its commits are then simply read
+     * every time.
+     */
+    private static List<Hash> sharedTips(ReadOnlyRepository repo, List<Hash> tips) throws IOException {
+        if (tips.isEmpty() || repo.currentBranch().isPresent()) {
+            return tips;
+        }
+        var head = repo.head();
+        return tips.stream()
+                   .filter(tip -> !tip.equals(head))
+                   .toList();
+    }
+
+    static IssueIndex of(ReadOnlyRepository repo) throws IOException {
+        var cacheDirectory = repo.cacheDirectory();
+        if (cacheDirectory.isEmpty()) {
+            var index = new IssueIndex(repo, null, null);
+            index.apply(repo.commitMetadata(), List.of());
+            return index;
+        }
+
+        var baseFile = cacheDirectory.get().resolve(FILE_NAME);
+        var logFile = cacheDirectory.get().resolve(LOG_FILE_NAME);
+        var tips = repo.tips();
+        var sharedTips = sharedTips(repo, tips);
+
+        var index = new IssueIndex(repo, baseFile, logFile);
+        var loaded = index.load();
+        if (loaded && !sameTips(index.storedTips, sharedTips)) {
+            try {
+                var added = repo.commitMetadata(sharedTips, index.storedTips);
+                var removed = repo.commitMetadata(index.storedTips, sharedTips);
+                index.append(sharedTips, added, removed);
+            } catch (IOException e) {
+                // Commits from the previous tips may no longer be present
+                log.info("Rebuilding issue index " + baseFile + ": " + e.getMessage());
+                loaded = false;
+            }
+        }
+        if (!loaded) {
+            index = new IssueIndex(repo, baseFile, logFile);
+            index.build(sharedTips);
+        }
+
+        if (!sameTips(tips, sharedTips)) {
+            index.apply(repo.commitMetadata(tips, sharedTips), List.of());
+        }
+        return index;
+    }
+
+    private void apply(List<CommitMetadata> added, List<CommitMetadata> removed) {
+        for (var metadata : added) {
+            for (var id : issueIds(metadata)) {
+                change(id, new Change(true, metadata.hash()));
+            }
+        }
+        for (var metadata : removed) {
+            for (var id : issueIds(metadata)) {
+                change(id, new Change(false, metadata.hash()));
+            }
+        }
+    }
+
+    /**
+     * Reads the tips of the base file and all complete records of the log.
+     */
+    private boolean load() {
+        if (!Files.exists(baseFile)) {
+            return false;
+        }
+        try (var file = new RandomAccessFile(baseFile.toFile(), "r")) {
+            var reader = new LineReader(file, 0);
+            var header = reader.readLine();
+            if (header == null || !header.startsWith(HEADER + " ")) {
+                throw new IOException("Unknown format");
+            }
+            generation = header.substring(HEADER.length() + 1);
+            storedTips = readTips(reader, reader.readLine());
+            dataStart = reader.position();
+        } catch (IOException | RuntimeException e) {
+            log.warning("Ignoring unreadable issue index " + baseFile + ": " + e.getMessage());
+            generation = null;
+            return false;
+        }
+
+        if (!Files.exists(logFile)) {
+            return true;
+        }
+        try (var file = new RandomAccessFile(logFile.toFile(), "r")) {
+            var reader = new LineReader(file, 0);
+            if (!(LOG_HEADER + " " + generation).equals(reader.readLine())) {
+                // Left behind when merging the log into a new base was interrupted
+                return true;
+            }
+            logEnd = reader.position();
+            while (true) {
+                var line = reader.readLine();
+                if (line == null || !line.startsWith("tips ")) {
+                    break;
+                }
+                var tips = readTips(reader, line.substring("tips ".length()));
+                var recordChanges = new ArrayList<Map.Entry<String, Change>>();
+                line = reader.readLine();
+                while (line != null && !line.equals("end")) {
+                    var parts = line.split(" ");
+                    if (parts.length != 3 || !(parts[0].equals("+") || parts[0].equals("-"))) {
+                        throw new IOException("Malformed log entry");
+                    }
+                    recordChanges.add(Map.entry(parts[1], new Change(parts[0].equals("+"), new Hash(parts[2]))));
+                    line = reader.readLine();
+                }
+                if (line == null) {
+                    // An incomplete record is overwritten by the next one
+                    break;
+                }
+                recordChanges.forEach(entry -> change(entry.getKey(), entry.getValue()));
+                storedTips = tips;
+                logEnd = reader.position();
+            }
+        } catch (IOException | RuntimeException e) {
+            log.warning("Ignoring the rest of the issue index log " + logFile + ": " + e.getMessage());
+        }
+        return true;
+    }
+
+    private static List<Hash> readTips(LineReader reader, String count) throws IOException {
+        var tipCount = Integer.parseInt(count);
+        var tips = new ArrayList<Hash>(tipCount);
+        for (var i = 0; i < tipCount; i++) {
+            var line = reader.readLine();
+            if (line == null) {
+                throw new IOException("Missing tips");
+            }
+            tips.add(new Hash(line));
+        }
+        return tips;
+    }
+
+    /**
+     * Looks up the stored entry for the issue with a binary search over the lines
+     * of the base file. Returns an empty optional if the base file has been
+     * replaced since it was loaded.
+     */
+    private Optional<List<Hash>> lookup(String issueId) throws IOException {
+        try (var file = new RandomAccessFile(baseFile.toFile(), "r")) {
+            if (!(HEADER + " " + generation).equals(new LineReader(file, 0).readLine())) {
+                return Optional.empty();
+            }
+            // The line for the issue, if any, starts at or after low and before high
+            var low = dataStart;
+            var high = file.length();
+            while (low < high) {
+                var middle = low + (high - low) / 2;
+                var reader = new LineReader(file, middle == low ? low : middle - 1);
+                if (middle != low) {
+                    // Skip to the first line starting at or after the middle
+                    reader.readLine();
+                }
+                var start = reader.position();
+                if (start >= high) {
+                    high = middle;
+                    continue;
+                }
+                var line = reader.readLine();
+                var separator = line.indexOf(' ');
+                var id = separator == -1 ? line : line.substring(0, separator);
+                var comparison = id.compareTo(issueId);
+                if (comparison == 0) {
+                    var hashes = new ArrayList<Hash>();
+                    for (var hash : line.substring(separator + 1).split(" ")) {
+                        hashes.add(new Hash(hash));
+                    }
+                    return Optional.of(hashes);
+                } else if (comparison < 0) {
+                    low = reader.position();
+                } else {
+                    high = middle;
+                }
+            }
+            return Optional.of(List.of());
+        }
+    }
+
+    /**
+     * Stores the index for the tips in a new base file, and discards the log.
+     */
+    private void build(List<Hash> tips) throws IOException {
+        var issuesToHashes = new TreeMap<String, List<Hash>>();
+        add(issuesToHashes, repo.commitMetadata(tips, List.of()));
+        if (!store(tips, issuesToHashes)) {
+            // Keep the index in memory only
+            for (var entry : issuesToHashes.entrySet()) {
+                for (var hash : entry.getValue()) {
+                    change(entry.getKey(), new Change(true, hash));
+                }
+            }
+        }
+    }
+
+    private boolean store(List<Hash> tips, SortedMap<String, List<Hash>> issuesToHashes) {
+        var newGeneration = UUID.randomUUID().toString();
+        var header = new StringBuilder();
+        header.append(HEADER).append(' ').append(newGeneration).append('\n');
+        header.append(tips.size()).append('\n');
+        for (var tip : tips) {
+            header.append(tip.hex()).append('\n');
+        }
+        try {
+            Files.createDirectories(baseFile.getParent());
+            var tmp = Files.createTempFile(baseFile.getParent(), FILE_NAME, ".partial");
+            try {
+                try (var writer = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+                    writer.write(header.toString());
+                    for (var entry : issuesToHashes.entrySet()) {
+                        writer.write(entry.getKey());
+                        for (var hash : entry.getValue()) {
+                            writer.write(' ');
+                            writer.write(hash.hex());
+                        }
+                        writer.newLine();
+                    }
+                }
+                Files.move(tmp, baseFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(tmp);
+            }
+            // A log with another generation is ignored, so a failure here is harmless
+            Files.deleteIfExists(logFile);
+        } catch (IOException e) {
+            log.warning("Failed to store issue index " + baseFile + ": " + e.getMessage());
+            return false;
+        }
+        generation = newGeneration;
+        dataStart = header.toString().getBytes(StandardCharsets.UTF_8).length;
+        storedTips = tips;
+        logEnd = 0;
+        return true;
+    }
+
+    /**
+     * Appends a record for the new tips to the log, and merges the log into a new
+     * base file if it has grown large.
+     */
+    private void append(List<Hash> tips, List<CommitMetadata> added, List<CommitMetadata> removed) {
+        apply(added, removed);
+        var record = new StringBuilder();
+        if (logEnd == 0) {
+            record.append(LOG_HEADER).append(' ').append(generation).append('\n');
+        }
+        record.append("tips ").append(tips.size()).append('\n');
+        for (var tip : tips) {
+            record.append(tip.hex()).append('\n');
+        }
+        for (var metadata : added) {
+            for (var id : issueIds(metadata)) {
+                record.append("+ ").append(id).append(' ').append(metadata.hash().hex()).append('\n');
+            }
+        }
+        for (var metadata : removed) {
+            for (var id : issueIds(metadata)) {
+                record.append("- ").append(id).append(' ').append(metadata.hash().hex()).append('\n');
+            }
+        }
+        record.append("end\n");
+
+        try {
+            var bytes = ByteBuffer.wrap(record.toString().getBytes(StandardCharsets.UTF_8));
+            try (var channel = FileChannel.open(logFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+                // Drop an incomplete record or a log for another generation
+                channel.truncate(logEnd);
+                channel.position(logEnd);
+                while (bytes.hasRemaining()) {
+                    channel.write(bytes);
+                }
+            }
+            logEnd += bytes.limit();
+            storedTips = tips;
+            if (logEnd > Files.size(baseFile) / 4) {
+                compact();
+            }
+        } catch (IOException e) {
+            log.warning("Failed to update issue index log " + logFile + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Merges the log into a new base file.
+     */
+    private void compact() throws IOException {
+        var issuesToHashes = new TreeMap<String, List<Hash>>();
+        try (var file = new RandomAccessFile(baseFile.toFile(), "r")) {
+            var reader = new LineReader(file, dataStart);
+            var line = reader.readLine();
+            while (line != null) {
+                var parts = line.split(" ");
+                var hashes = new ArrayList<Hash>(parts.length - 1);
+                for (var i = 1; i < parts.length; i++) {
+                    hashes.add(new Hash(parts[i]));
+                }
+                issuesToHashes.put(parts[0], hashes);
+                line = reader.readLine();
+            }
+        }
+        for (var entry : changes.entrySet()) {
+            var hashes = issuesToHashes.computeIfAbsent(entry.getKey(), i -> new ArrayList<>());
+            for (var change : entry.getValue()) {
+                if (change.added()) {
+                    hashes.add(change.hash());
+                } else {
+                    hashes.removeIf(h -> h.equals(change.hash()));
+                }
+            }
+            if (hashes.isEmpty()) {
+                issuesToHashes.remove(entry.getKey());
+            }
+        }
+        if (store(storedTips, issuesToHashes)) {
+            changes.clear();
+        }
+    }
+}
@@ -30,8 +30,8 @@ import org.openjdk.skara.vcs.openjdk.CommitMessageParsers;
 
 import java.net.URI;
 import java.io.*;
-import java.nio.file.Paths;
 import java.util.*;
+import java.util.concurrent.*;
 import java.util.regex.Pattern;
 import java.util.stream.*;
 import java.util.logging.Logger;
@@ -53,7 +53,9 @@ public class JCheck {
     private final List<String> additionalConfiguration;
     private final JCheckConfiguration overridingConfiguration;
     private final Census overridingCensus;
-    private final Map<URI, Census> censuses = new HashMap<>();
+    private final Map<URI, Census> censuses = new ConcurrentHashMap<>();
+    private final Map<Hash, Optional<JCheckConfiguration>> configurations = new ConcurrentHashMap<>();
+    private final int parallelism;
     private final Logger log = Logger.getLogger("org.openjdk.skara.jcheck");
 
     public final static String WORKING_TREE_REV = "SKARA_GIT_WORKING_TREE_AS_REV";
@@ -68,7 +70,21 @@ public class JCheck {
            List<String> additionalConfiguration,
            JCheckConfiguration overridingConfiguration,
            Census overridingCensus) throws IOException {
+        this(repository, parser, revisionRange, allowedBranches, allowedTags, additionalConfiguration,
+             overridingConfiguration, overridingCensus, 1);
+    }
+
+    JCheck(ReadOnlyRepository repository,
+           CommitMessageParser parser,
+           String revisionRange,
+           Pattern allowedBranches,
+           Pattern allowedTags,
+           List<String> additionalConfiguration,
+           JCheckConfiguration overridingConfiguration,
+           Census overridingCensus,
+           int parallelism) throws IOException {
         this.repository = repository;
+        this.parallelism = parallelism;
         this.parser = parser;
         this.revisionRange = revisionRange;
         this.additionalConfiguration = additionalConfiguration;
@@ -110,8 +126,7 @@ public class JCheck {
 
     public static Optional<JCheckConfiguration> parseConfiguration(ReadOnlyRepository r, Hash h, List<String> additionalConfiguration) {
         try {
-            var content = new ArrayList<>(r.lines(Paths.get(".jcheck/conf"), h).orElse(Collections.emptyList()));
-            return parseConfiguration(content, additionalConfiguration);
+            return ConfigurationCache.configuration(r, h, additionalConfiguration);
         } catch (IOException e) {
             throw new UncheckedIOException(e);
         }
@@ -121,7 +136,7 @@ public class JCheck {
         if (overridingConfiguration != null) {
             return Optional.of(overridingConfiguration);
         }
-        return parseConfiguration(repository, c.hash(), additionalConfiguration);
+        return configurations.computeIfAbsent(c.hash(), h -> parseConfiguration(repository, h, additionalConfiguration));
     }
 
     private Iterator<Issue> checkCommit(Commit commit) {
@@ -135,15 +150,13 @@ public class JCheck {
         var conf = configuration.get();
         var census = overridingCensus;
         if (census == null) {
-            var uri = conf.census().url();
-            if (!censuses.containsKey(uri)) {
+            census = censuses.computeIfAbsent(conf.census().url(), uri -> {
                 try {
-                    censuses.put(uri, Census.from(uri));
+                    return ConfigurationCache.census(conf.census());
                 } catch (IOException e) {
                     throw new UncheckedIOException(e);
                 }
-            }
-            census = censuses.get(uri);
+            });
         }
         var finalCensus = census;
         var message = parser.parse(commit);
@@ -217,6 +230,20 @@ public class JCheck {
                 new MapIterator<>(commits.iterator(), this::checkCommit));
     }
 
+    /**
+     * Checks up to twice the number of threads commits ahead of the consumer. All
+     * issues for a commit are found by the worker thread, the iterators returned by
+     * checkCommit are lazy.
+     */
+    private Iterator<Issue> commitIssues(Commits commits, ExecutorService executor) {
+        return new FlatMapIterator<>(
+                new ParallelMapIterator<>(commits.iterator(), commit -> {
+                    var issues = new ArrayList<Issue>();
+                    checkCommit(commit).forEachRemaining(issues::add);
+                    return issues.iterator();
+                }, executor, 2 * parallelism));
+    }
+
     private Iterator<Issue> repositoryIssues() {
         var iterator = new MapIterator<>(repositoryChecks.iterator(), c -> {
             log.finer("Running repository check '" + c.name() + "'");
@@ -230,16 +257,28 @@ public class JCheck {
 
         var repositoryIssues = repositoryIssues();
         Iterator<Issue> commitIssues;
+        Closeable resource = commits;
         if (revisionRange.equals(STAGED_REV)) {
             commitIssues = checkCommit(repository.staged());
         } else if (revisionRange.equals(WORKING_TREE_REV)) {
             commitIssues = checkCommit(repository.workingTree());
+        } else if (parallelism > 1) {
+            var executor = Executors.newFixedThreadPool(parallelism, r -> {
+                var thread = new Thread(r, "jcheck");
+                thread.setDaemon(true);
+                return thread;
+            });
+            commitIssues = commitIssues(commits, executor);
+            resource = () -> {
+                executor.shutdownNow();
+                commits.close();
+            };
         } else {
             commitIssues = commitIssues(commits);
         }
 
         var errors = new ConcatIterator<>(repositoryIssues, commitIssues);
-        return new Issues(errors, commits);
+        return new Issues(errors, resource);
     }
 
     private static Issues check(ReadOnlyRepository repository,
@@ -249,7 +288,8 @@ public class JCheck {
                                 String revisionRange,
                                 List<String> additionalConfiguration,
                                 JCheckConfiguration configuration,
-                                Census census) throws IOException {
+                                Census census,
+                                int parallelism) throws IOException {
 
         var defaultBranchRegex = "|" + repository.defaultBranch().name();
         var allowedBranches = Pattern.compile("^(?:" + branchRegex + defaultBranchRegex + ")$");
@@ -258,7 +298,7 @@ public class JCheck {
         var defaultTagRegex = defaultTag.isPresent() ? "|" + defaultTag.get().name() : "";
         var allowedTags = Pattern.compile("^(?:" + tagRegex + defaultTagRegex + ")$");
 
-        var jcheck = new JCheck(repository, parser, revisionRange, allowedBranches, allowedTags, additionalConfiguration, configuration, census);
+        var jcheck = new JCheck(repository, parser, revisionRange, allowedBranches, allowedTags, additionalConfiguration, configuration, census, parallelism);
         return jcheck.issues();
     }
 
@@ -274,7 +314,7 @@ public class JCheck {
         var branchRegex = configuration.repository().branches();
         var tagRegex = configuration.repository().tags();
 
-        return check(repository, parser, branchRegex, tagRegex, repository.range(toCheck), List.of(), configuration, census);
+        return check(repository, parser, branchRegex, tagRegex, repository.range(toCheck), List.of(), configuration, census, 1);
     }
 
     public static Issues check(ReadOnlyRepository repository,
@@ -282,6 +322,20 @@ public class JCheck {
                                CommitMessageParser parser,
                                String revisionRange,
                                JCheckConfiguration overridingConfig) throws IOException {
+        return check(repository, census, parser, revisionRange, overridingConfig, 1);
+    }
+
+    /**
+     * Checks the commits in the range, using up to <code>parallelism</code> threads
+     * to check several commits at the same time. The issues are returned in the
+     * same order as when checking the commits one at a time.
+     */
+    public static Issues check(ReadOnlyRepository repository,
+                               Census census,
+                               CommitMessageParser parser,
+                               String revisionRange,
+                               JCheckConfiguration overridingConfig,
+                               int parallelism) throws IOException {
         if (repository.isEmpty()) {
             return new Issues(new ArrayList<Issue>().iterator(), null);
         }
@@ -295,7 +349,7 @@ public class JCheck {
         var branchRegex = conf.isPresent() ? conf.get().repository().branches() : ".*";
         var tagRegex = conf.isPresent() ? conf.get().repository().tags() : ".*";
 
-        return check(repository, parser, branchRegex, tagRegex, revisionRange, List.of(), overridingConfig, census);
+        return check(repository, parser, branchRegex, tagRegex, revisionRange, List.of(), overridingConfig, census, parallelism);
     }
 
     public static Set<Check> checksFor(ReadOnlyRepository repository, Hash hash) throws IOException {
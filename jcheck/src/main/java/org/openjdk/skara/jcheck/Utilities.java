@@ -27,9 +27,10 @@ import org.openjdk.skara.vcs.Hash;
 
 import java.util.HashSet;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 class Utilities {
-    private final Set<Hash> addsHgTagCache = new HashSet<>();
+    private final Set<Hash> addsHgTagCache = ConcurrentHashMap.newKeySet();
 
     boolean addsHgTag(Commit commit) {
         if (addsHgTagCache.contains(commit.hash())) {
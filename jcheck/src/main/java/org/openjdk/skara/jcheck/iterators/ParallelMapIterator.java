@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2024, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.openjdk.skara.jcheck.iterators;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Function;
+
+/**
+ * Like MapIterator, but applies the function to up to <code>window</code> elements
+ * ahead of the consumer using the given executor. The results are returned in
+ * the same order as the elements of the source.
+ */
+public class ParallelMapIterator<S, T> implements Iterator<T> {
+    private final Iterator<S> source;
+    private final Function<S, T> f;
+    private final ExecutorService executor;
+    private final int window;
+    private final ArrayDeque<Future<T>> pending = new ArrayDeque<>();
+
+    public ParallelMapIterator(Iterator<S> source, Function<S, T> f, ExecutorService executor, int window) {
+        this.source = source;
+        this.f = f;
+        this.executor = executor;
+        this.window = window;
+    }
+
+    private void fill() {
+        while (pending.size() < window && source.hasNext()) {
+            var element = source.next();
+            pending.addLast(executor.submit(() -> f.apply(element)));
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        fill();
+        return !pending.isEmpty();
+    }
+
+    @Override
+    public T next() {
+        fill();
+        if (pending.isEmpty()) {
+            return null;
+        }
+
+        try {
+            return pending.removeFirst().get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Interrupted while waiting for result");
+        } catch (ExecutionException e) {
+            var cause = e.getCause();
+            if (cause instanceof RuntimeException r) {
+                throw r;
+            }
+            if (cause instanceof Error err) {
+                throw err;
+            }
+            throw new CompletionException(cause);
+        }
+    }
+}
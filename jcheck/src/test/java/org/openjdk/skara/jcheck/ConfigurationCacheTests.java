@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2024, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.openjdk.skara.jcheck;
+
+import org.openjdk.skara.test.TestableRepository;
+import org.openjdk.skara.vcs.*;
+import org.openjdk.skara.test.TemporaryDirectory;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+import java.io.IOException;
+import java.nio.file.*;
+
+class ConfigurationCacheTests {
+    private static Hash commit(Repository r, Path file, List<String> lines) throws IOException {
+        Files.createDirectories(file.getParent());
+        Files.write(file, lines);
+        r.add(file);
+        return r.commit("Update " + file.getFileName(), "duke", "duke@openjdk.org");
+    }
+
+    @Test
+    void sharedBetweenCommits() throws IOException {
+        try (var dir = new TemporaryDirectory()) {
+            ConfigurationCache.clear();
+            var r = TestableRepository.init(dir.path(), VCS.GIT);
+            var conf = dir.path().resolve(".jcheck/conf");
+            var first = commit(r, conf, List.of("[general]", "project = first"));
+            var second = commit(r, dir.path().resolve("README"), List.of("Hello"));
+            var third = commit(r, conf, List.of("[general]", "project = third"));
+
+            var firstConf = ConfigurationCache.configuration(r, first, List.of()).orElseThrow();
+            assertEquals("first", firstConf.general().project());
+            assertSame(firstConf, ConfigurationCache.configuration(r, second, List.of()).orElseThrow());
+
+            var thirdConf = ConfigurationCache.configuration(r, third, List.of()).orElseThrow();
+            assertEquals("third", thirdConf.general().project());
+
+            var additional = ConfigurationCache.configuration(r, first, List.of("[checks]", "error=author")).orElseThrow();
+            assertNotSame(firstConf, additional);
+            assertEquals("first", additional.general().project());
+        }
+    }
+
+    @Test
+    void missingConfiguration() throws IOException {
+        try (var dir = new TemporaryDirectory()) {
+            var r = TestableRepository.init(dir.path(), VCS.GIT);
+            var hash = commit(r, dir.path().resolve("README"), List.of("Hello"));
+            assertEquals(Optional.empty(), ConfigurationCache.configuration(r, hash, List.of()));
+
+            var additional = ConfigurationCache.configuration(r, hash, List.of("[general]", "project = extra"));
+            assertEquals("extra", additional.orElseThrow().general().project());
+        }
+    }
+}
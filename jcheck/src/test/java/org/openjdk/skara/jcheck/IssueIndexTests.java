@@ -0,0 +1,190 @@
+/*
+ * Copyright (c) 2024, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.openjdk.skara.jcheck;
+
+import org.openjdk.skara.test.TestableRepository;
+import org.openjdk.skara.vcs.*;
+import org.openjdk.skara.test.TemporaryDirectory;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+import java.io.IOException;
+import java.nio.file.*;
+import static java.nio.file.StandardOpenOption.*;
+
+class IssueIndexTests {
+    private static Hash commit(Repository r, Path dir, String message) throws IOException {
+        var readme = dir.resolve("README");
+        Files.write(readme, List.of(message), CREATE, WRITE, APPEND);
+        r.add(readme);
+        return r.commit(message, "duke", "duke@openjdk.org");
+    }
+
+    private static Path indexFile(Repository r) throws IOException {
+        return r.cacheDirectory().orElseThrow().resolve(IssueIndex.FILE_NAME);
+    }
+
+    private static Path logFile(Repository r) throws IOException {
+        return r.cacheDirectory().orElseThrow().resolve(IssueIndex.LOG_FILE_NAME);
+    }
+
+    @Test
+    void storedAndUpdated() throws IOException {
+        try (var dir = new TemporaryDirectory()) {
+            var r = TestableRepository.init(dir.path(), VCS.GIT);
+            var first = commit(r, dir.path(), "1: First");
+            var second = commit(r, dir.path(), "2: Second");
+
+            var index = IssueIndex.of(r);
+            assertEquals(List.of(first), index.hashes("1"));
+            assertEquals(List.of(second), index.hashes("2"));
+            assertEquals(List.of(), index.hashes("3"));
+            assertTrue(Files.exists(indexFile(r)));
+
+            var third = commit(r, dir.path(), "1: First again");
+            index = IssueIndex.of(r);
+            assertEquals(Set.of(first, third), new HashSet<>(index.hashes("1")));
+            assertEquals(List.of(second), index.hashes("2"));
+        }
+    }
+
+    @Test
+    void removedCommits() throws IOException {
+        try (var dir = new TemporaryDirectory()) {
+            var r = TestableRepository.init(dir.path(), VCS.GIT);
+            var first = commit(r, dir.path(), "1: First");
+            var current = r.currentBranch().orElseThrow();
+            var branch = r.branch(first, "other");
+            r.checkout(branch);
+            var second = commit(r, dir.path(), "2: Second");
+            r.checkout(current);
+
+            var index = IssueIndex.of(r);
+            assertEquals(List.of(second), index.hashes("2"));
+
+            r.delete(branch);
+            index = IssueIndex.of(r);
+            assertEquals(List.of(), index.hashes("2"));
+            assertEquals(List.of(first), index.hashes("1"));
+        }
+    }
+
+    @Test
+    void multipleMentions() throws IOException {
+        try (var dir = new TemporaryDirectory()) {
+            var r = TestableRepository.init(dir.path(), VCS.GIT);
+            var first = commit(r, dir.path(), "1: First\n1: First");
+            assertEquals(List.of(first, first), IssueIndex.of(r).hashes("1"));
+            // Read back from the stored index
+            assertEquals(List.of(first, first), IssueIndex.of(r).hashes("1"));
+        }
+    }
+
+    @Test
+    void unreadableIndex() throws IOException {
+        try (var dir = new TemporaryDirectory()) {
+            var r = TestableRepository.init(dir.path(), VCS.GIT);
+            var first = commit(r, dir.path(), "1: First");
+            IssueIndex.of(r);
+
+            Files.writeString(indexFile(r), "garbage");
+            assertEquals(List.of(first), IssueIndex.of(r).hashes("1"));
+
+            // Tips that no longer exist cause the index to be rebuilt
+            Files.writeString(indexFile(r), "skara-issue-index 2 gen\n1\n0123456789012345678901234567890123456789\n");
+            assertEquals(List.of(first), IssueIndex.of(r).hashes("1"));
+        }
+    }
+
+    @Test
+    void appendedToLog() throws IOException {
+        try (var dir = new TemporaryDirectory()) {
+            var r = TestableRepository.init(dir.path(), VCS.GIT);
+            var hashes = new ArrayList<Hash>();
+            for (var i = 0; i < 100; i++) {
+                hashes.add(commit(r, dir.path(), i + ": Commit " + i));
+            }
+            IssueIndex.of(r);
+            var base = Files.readString(indexFile(r));
+
+            // New commits are appended to the log, the base is left as is
+            var added = commit(r, dir.path(), "5: Again");
+            var index = IssueIndex.of(r);
+            assertEquals(List.of(hashes.get(5), added), index.hashes("5"));
+            assertEquals(List.of(hashes.get(50)), index.hashes("50"));
+            assertEquals(List.of(), index.hashes("100"));
+            assertEquals(base, Files.readString(indexFile(r)));
+            assertTrue(Files.readString(logFile(r)).contains(added.hex()));
+
+            // Read back from the base and the log
+            index = IssueIndex.of(r);
+            assertEquals(List.of(hashes.get(5), added), index.hashes("5"));
+            assertEquals(List.of(hashes.get(99)), index.hashes("99"));
+
+            // An incomplete record at the end of the log is ignored and overwritten
+            Files.writeString(logFile(r), "tips 1\n", APPEND);
+            assertEquals(List.of(hashes.get(5), added), IssueIndex.of(r).hashes("5"));
+            var more = commit(r, dir.path(), "6: Again");
+            assertEquals(List.of(hashes.get(6), more), IssueIndex.of(r).hashes("6"));
+            assertEquals(List.of(hashes.get(6), more), IssueIndex.of(r).hashes("6"));
+        }
+    }
+
+    @Test
+    void compacted() throws IOException {
+        try (var dir = new TemporaryDirectory()) {
+            var r = TestableRepository.init(dir.path(), VCS.GIT);
+            var first = commit(r, dir.path(), "1: First");
+            IssueIndex.of(r);
+
+            // The log soon grows larger than the small base, and is merged into it
+            var hashes = new ArrayList<Hash>();
+            for (var i = 0; i < 5; i++) {
+                hashes.add(commit(r, dir.path(), "2: Commit " + i));
+                IssueIndex.of(r);
+            }
+            assertFalse(Files.exists(logFile(r)) && Files.readString(logFile(r)).contains(hashes.get(0).hex()));
+            assertTrue(Files.readString(indexFile(r)).contains(hashes.get(0).hex()));
+            assertEquals(hashes, IssueIndex.of(r).hashes("2"));
+            assertEquals(List.of(first), IssueIndex.of(r).hashes("1"));
+        }
+    }
+
+    @Test
+    void detachedHeadNotStored() throws IOException {
+        try (var dir = new TemporaryDirectory()) {
+            var r = TestableRepository.init(dir.path(), VCS.GIT);
+            var first = commit(r, dir.path(), "1: First");
+            IssueIndex.of(r);
+            var base = Files.readString(indexFile(r));
+
+            r.checkout(first, false);
+            var detached = commit(r, dir.path(), "1: Detached");
+            assertEquals(List.of(first, detached), IssueIndex.of(r).hashes("1"));
+            assertEquals(base, Files.readString(indexFile(r)));
+            assertFalse(Files.exists(logFile(r)));
+        }
+    }
+}
@@ -372,4 +372,50 @@ class JCheckTests {
             assertEquals(Set.of("org.openjdk.skara.jcheck.TooFewReviewersIssue"), visitor.issueNames());
         }
     }
+
+    private static List<String> describe(JCheck.Issues issues) {
+        return issues.stream()
+                     .map(issue -> issue.getClass().getSimpleName() +
+                                   (issue instanceof CommitIssue c ? " " + c.commit().hash().hex() : ""))
+                     .collect(Collectors.toList());
+    }
+
+    @ParameterizedTest
+    @EnumSource(VCS.class)
+    void checkInParallel(VCS vcs) throws Exception {
+        assumeFalse(vcs == VCS.HG && !hgAvailable);
+        try (var dir = new TemporaryDirectory()) {
+            var repoPath = dir.path().resolve("repo");
+            var repo = CheckableRepository.create(repoPath, vcs);
+            var initialCommit = repo.commits().asList().get(0);
+
+            var file = repoPath.resolve("File.java");
+            Hash last = null;
+            for (var i = 0; i < 20; i++) {
+                // Every third commit adds trailing whitespace, every other commit lacks reviewers
+                Files.write(file, List.of("Line " + i + (i % 3 == 0 ? " " : "")), StandardOpenOption.CREATE,
+                            StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+                repo.add(file);
+                var message = "Change " + i + (i % 2 == 0 ? "" : "\n\nReviewed-by: user2");
+                last = repo.commit(message, "user3", "user3@openjdk.org");
+            }
+
+            var censusPath = dir.path().resolve("census");
+            Files.createDirectories(censusPath);
+            CensusCreator.populateCensusDirectory(censusPath);
+            var census = Census.parse(censusPath);
+
+            var range = initialCommit.hash().hex() + ".." + last.hex();
+            List<String> sequential;
+            try (var issues = JCheck.check(repo, census, CommitMessageParsers.v1, range, null)) {
+                sequential = describe(issues);
+            }
+            List<String> parallel;
+            try (var issues = JCheck.check(repo, census, CommitMessageParsers.v1, range, null, 4)) {
+                parallel = describe(issues);
+            }
+            assertEquals(10 + 7, sequential.size());
+            assertEquals(sequential, parallel);
+        }
+    }
 }
@@ -194,6 +194,14 @@ class TestRepository implements ReadOnlyRepository {
         return List.of();
     }
 
+    public List<CommitMetadata> commitMetadata(List<Hash> reachableFrom, List<Hash> unreachableFrom) throws IOException {
+        return List.of();
+    }
+
+    public List<Hash> tips() throws IOException {
+        return List.of();
+    }
+
     public Path root() throws IOException {
         return null;
     }
@@ -299,6 +307,10 @@ class TestRepository implements ReadOnlyRepository {
         return null;
     }
 
+    public List<Reference> remoteReferences(String remote) throws IOException {
+        return null;
+    }
+
     public List<String> remotes() throws IOException {
         return null;
     }
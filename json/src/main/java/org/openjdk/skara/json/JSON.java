@@ -22,11 +22,30 @@
  */
 package org.openjdk.skara.json;
 
+import java.io.*;
+
 public class JSON {
     public static JSONValue parse(String s) {
         return new JSONParser().parse(s);
     }
 
+    /**
+     * Parses UTF-8 encoded JSON from the stream without reading it into a string first.
+     * Returns null if the stream is empty, in the same way as {@link #parse(String)}.
+     */
+    public static JSONValue parse(InputStream in) throws IOException {
+        try (var reader = new JSONReader(in)) {
+            if (!reader.hasNext()) {
+                return null;
+            }
+            var result = reader.readValue();
+            reader.next();
+            return result;
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
     public static JSONValue of(int i) {
         return JSONValue.from(i);
     }
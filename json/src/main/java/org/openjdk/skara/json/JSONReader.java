@@ -0,0 +1,527 @@
+/*
+ * Copyright (c) 2024, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.openjdk.skara.json;
+
+import java.io.*;
+import java.nio.*;
+import java.nio.charset.*;
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * A streaming pull parser for JSON. The input is read through a fixed size
+ * buffer, so a large document never has to be held in memory as a whole.
+ * Callers step through the document one token at a time using {@link #peek()}
+ * and {@link #next()}, and can at any point materialize the value starting
+ * at the current position as a {@link JSONValue} using {@link #readValue()},
+ * or skip it using {@link #skipValue()}.
+ * <p>
+ * Syntax errors are reported as {@link IllegalStateException}, in the same
+ * way as {@link JSON#parse(String)}. Errors reading the underlying input are
+ * reported as {@link UncheckedIOException}.
+ */
+public class JSONReader implements AutoCloseable {
+    public enum Token {
+        START_OBJECT,
+        END_OBJECT,
+        START_ARRAY,
+        END_ARRAY,
+        NAME,
+        STRING,
+        NUMBER,
+        DECIMAL,
+        BOOLEAN,
+        NULL,
+        END
+    }
+
+    // The kinds of scope the parser can be in
+    private static final byte EMPTY_DOCUMENT = 0;
+    private static final byte NONEMPTY_DOCUMENT = 1;
+    private static final byte EMPTY_ARRAY = 2;
+    private static final byte NONEMPTY_ARRAY = 3;
+    private static final byte EMPTY_OBJECT = 4;
+    private static final byte NONEMPTY_OBJECT = 5;
+    private static final byte DANGLING_NAME = 6;
+
+    private final Reader input;
+    private final char[] buffer = new char[8192];
+    private int pos = 0;
+    private int limit = 0;
+    // Number of characters consumed before the current buffer, used for error messages
+    private long offset = 0;
+
+    private byte[] scopes = new byte[32];
+    private int depth = 1;
+
+    private final StringBuilder builder = new StringBuilder();
+    private Token peeked = null;
+    private String string;
+    private long longValue;
+    private double doubleValue;
+    private boolean booleanValue;
+
+    public JSONReader(Reader input) {
+        this.input = input;
+        scopes[0] = EMPTY_DOCUMENT;
+    }
+
+    /**
+     * Reads UTF-8 encoded JSON from the given stream.
+     */
+    public JSONReader(InputStream input) {
+        this(new InputStreamReader(input, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Reads UTF-8 encoded JSON from the remaining bytes of the given buffer.
+     */
+    public JSONReader(ByteBuffer input) {
+        this(new ByteBufferReader(input));
+    }
+
+    private IllegalStateException failure(String message) {
+        return new IllegalStateException(String.format("[%d]: %s", offset + pos, message));
+    }
+
+    private boolean fill() {
+        if (pos < limit) {
+            return true;
+        }
+        offset += limit;
+        pos = 0;
+        try {
+            limit = Math.max(input.read(buffer, 0, buffer.length), 0);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return limit > 0;
+    }
+
+    private int read() {
+        return fill() ? buffer[pos++] : -1;
+    }
+
+    private int nextNonWhitespace() {
+        while (fill()) {
+            var c = buffer[pos++];
+            if (c != ' ' && c != '\n' && c != '\r' && c != '\t') {
+                return c;
+            }
+        }
+        return -1;
+    }
+
+    private void push(byte scope) {
+        if (depth == scopes.length) {
+            scopes = Arrays.copyOf(scopes, depth * 2);
+        }
+        scopes[depth++] = scope;
+    }
+
+    /**
+     * Returns the next token without consuming it.
+     */
+    public Token peek() {
+        if (peeked == null) {
+            peeked = advance();
+        }
+        return peeked;
+    }
+
+    /**
+     * Returns true if there are more tokens before the end of the document.
+     */
+    public boolean hasNext() {
+        return peek() != Token.END;
+    }
+
+    /**
+     * Consumes and returns the next token. The value of a NAME or STRING token is
+     * available through {@link #string()}, the value of a NUMBER, DECIMAL or BOOLEAN
+     * token through the corresponding accessor.
+     */
+    public Token next() {
+        var token = peek();
+        peeked = null;
+        return token;
+    }
+
+    private Token advance() {
+        int c;
+        switch (scopes[depth - 1]) {
+            case EMPTY_DOCUMENT:
+                scopes[depth - 1] = NONEMPTY_DOCUMENT;
+                c = nextNonWhitespace();
+                if (c == -1) {
+                    return Token.END;
+                }
+                return valueToken(c);
+            case NONEMPTY_DOCUMENT:
+                if (nextNonWhitespace() != -1) {
+                    throw failure("can only have one top-level JSON value");
+                }
+                return Token.END;
+            case EMPTY_ARRAY:
+                c = nextNonWhitespace();
+                if (c == ']') {
+                    depth--;
+                    return Token.END_ARRAY;
+                }
+                scopes[depth - 1] = NONEMPTY_ARRAY;
+                return valueToken(c);
+            case NONEMPTY_ARRAY:
+                c = nextNonWhitespace();
+                if (c == ']') {
+                    depth--;
+                    return Token.END_ARRAY;
+                }
+                if (c != ',') {
+                    throw failure("array elements must be separated by ','");
+                }
+                return valueToken(nextNonWhitespace());
+            case EMPTY_OBJECT:
+                c = nextNonWhitespace();
+                if (c == '}') {
+                    depth--;
+                    return Token.END_OBJECT;
+                }
+                return nameToken(c);
+            case NONEMPTY_OBJECT:
+                c = nextNonWhitespace();
+                if (c == '}') {
+                    depth--;
+                    return Token.END_OBJECT;
+                }
+                if (c != ',') {
+                    throw failure("object fields must be separated by ','");
+                }
+                return nameToken(nextNonWhitespace());
+            case DANGLING_NAME:
+                scopes[depth - 1] = NONEMPTY_OBJECT;
+                return valueToken(nextNonWhitespace());
+            default:
+                throw new IllegalStateException("Unknown scope " + scopes[depth - 1]);
+        }
+    }
+
+    private Token nameToken(int c) {
+        if (c != '"') {
+            throw failure("a field must of type string");
+        }
+        string = readString();
+        if (nextNonWhitespace() != ':') {
+            throw failure("a field must be followed by ':'");
+        }
+        scopes[depth - 1] = DANGLING_NAME;
+        return Token.NAME;
+    }
+
+    private Token valueToken(int c) {
+        switch (c) {
+            case '{':
+                push(EMPTY_OBJECT);
+                return Token.START_OBJECT;
+            case '[':
+                push(EMPTY_ARRAY);
+                return Token.START_ARRAY;
+            case '"':
+                string = readString();
+                return Token.STRING;
+            case 't':
+                expectLiteral("rue");
+                booleanValue = true;
+                return Token.BOOLEAN;
+            case 'f':
+                expectLiteral("alse");
+                booleanValue = false;
+                return Token.BOOLEAN;
+            case 'n':
+                expectLiteral("ull");
+                return Token.NULL;
+            case -1:
+                throw failure("unexpected end of input");
+            default:
+                if (c == '-' || isDigit(c)) {
+                    return readNumber(c);
+                }
+                throw failure("not a valid start of a JSON value");
+        }
+    }
+
+    private void expectLiteral(String rest) {
+        for (int i = 0; i < rest.length(); i++) {
+            if (read() != rest.charAt(i)) {
+                throw failure(String.format("Expected character %c", rest.charAt(i)));
+            }
+        }
+    }
+
+    private static boolean isDigit(int c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private boolean peekDigit() {
+        return fill() && isDigit(buffer[pos]);
+    }
+
+    private boolean peekChar(char c) {
+        return fill() && buffer[pos] == c;
+    }
+
+    private void readDigits() {
+        while (peekDigit()) {
+            builder.append(buffer[pos++]);
+        }
+    }
+
+    private Token readNumber(int first) {
+        var isInteger = true;
+        builder.setLength(0);
+        builder.append((char) first);
+        if (first == '-') {
+            if (!peekDigit()) {
+                throw failure("a number cannot consist of only '-'");
+            }
+            first = buffer[pos++];
+            builder.append((char) first);
+        }
+        if (first != '0') {
+            readDigits();
+        }
+        if (peekChar('.')) {
+            isInteger = false;
+            builder.append(buffer[pos++]);
+            if (!peekDigit()) {
+                throw failure("must be at least one digit after '.'");
+            }
+            readDigits();
+        }
+        if (peekChar('e') || peekChar('E')) {
+            isInteger = false;
+            builder.append(buffer[pos++]);
+            if (peekChar('+') || peekChar('-')) {
+                builder.append(buffer[pos++]);
+            }
+            if (!peekDigit()) {
+                throw failure("a digit must follow {'e','E'}{'+','-'}");
+            }
+            readDigits();
+        }
+
+        var value = builder.toString();
+        if (isInteger) {
+            longValue = Long.parseLong(value);
+            return Token.NUMBER;
+        }
+        doubleValue = Double.parseDouble(value);
+        return Token.DECIMAL;
+    }
+
+    private String readString() {
+        var missingEndChar = "string is not terminated with '\"'";
+        builder.setLength(0);
+        while (true) {
+            if (!fill()) {
+                throw failure(missingEndChar);
+            }
+            // Copy runs of plain characters straight from the buffer
+            var start = pos;
+            while (pos < limit && buffer[pos] != '"' && buffer[pos] != '\\') {
+                pos++;
+            }
+            builder.append(buffer, start, pos - start);
+            if (pos == limit) {
+                continue;
+            }
+            if (buffer[pos++] == '"') {
+                return builder.toString();
+            }
+
+            var n = read();
+            switch (n) {
+                case '"' -> builder.append('"');
+                case '\\' -> builder.append('\\');
+                case '/' -> builder.append('/');
+                case 'b' -> builder.append('\b');
+                case 'f' -> builder.append('\f');
+                case 'n' -> builder.append('\n');
+                case 'r' -> builder.append('\r');
+                case 't' -> builder.append('\t');
+                case 'u' -> {
+                    var cp = 0;
+                    for (int i = 0; i < 4; i++) {
+                        var digit = Character.digit(read(), 16);
+                        if (digit == -1) {
+                            throw failure("Invalid unicode escape");
+                        }
+                        cp = (cp << 4) | digit;
+                    }
+                    builder.append((char) cp);
+                }
+                case -1 -> throw failure(missingEndChar);
+                default -> throw failure(String.format("Unexpected escaped character '%c'", n));
+            }
+        }
+    }
+
+    /**
+     * The name of the current NAME token, or the value of the current STRING token.
+     */
+    public String string() {
+        return string;
+    }
+
+    /**
+     * The value of the current NUMBER token.
+     */
+    public long longValue() {
+        return longValue;
+    }
+
+    /**
+     * The value of the current DECIMAL token.
+     */
+    public double doubleValue() {
+        return doubleValue;
+    }
+
+    /**
+     * The value of the current BOOLEAN token.
+     */
+    public boolean booleanValue() {
+        return booleanValue;
+    }
+
+    /**
+     * Consumes the next value, including all nested values, and returns it as a tree.
+     */
+    public JSONValue readValue() {
+        var token = next();
+        switch (token) {
+            case START_OBJECT:
+                var map = new HashMap<String, JSONValue>();
+                while (peek() != Token.END_OBJECT) {
+                    next();
+                    var name = string;
+                    map.put(name, readValue());
+                }
+                next();
+                return new JSONObject(map);
+            case START_ARRAY:
+                var list = new ArrayList<JSONValue>();
+                while (peek() != Token.END_ARRAY) {
+                    list.add(readValue());
+                }
+                next();
+                return new JSONArray(list);
+            case STRING:
+                return new JSONString(string);
+            case NUMBER:
+                return new JSONNumber(longValue);
+            case DECIMAL:
+                return new JSONDecimal(doubleValue);
+            case BOOLEAN:
+                return new JSONBoolean(booleanValue);
+            case NULL:
+                return JSONNull.instance;
+            default:
+                throw failure("expected a value, found " + token);
+        }
+    }
+
+    /**
+     * Consumes the next value, including all nested values, without building a tree.
+     */
+    public void skipValue() {
+        var nesting = 0;
+        do {
+            switch (next()) {
+                case START_OBJECT, START_ARRAY -> nesting++;
+                case END_OBJECT, END_ARRAY -> nesting--;
+                case NAME -> { }
+                case END -> throw failure("unexpected end of input");
+                default -> { }
+            }
+        } while (nesting > 0);
+    }
+
+    /**
+     * Consumes the next value, which must be an array, and passes each element to the
+     * consumer as soon as it has been read. Only one element at a time is kept in memory
+     * by the reader.
+     */
+    public void forEachElement(Consumer<JSONValue> consumer) {
+        if (next() != Token.START_ARRAY) {
+            throw failure("expected an array");
+        }
+        while (peek() != Token.END_ARRAY) {
+            consumer.accept(readValue());
+        }
+        next();
+    }
+
+    @Override
+    public void close() {
+        try {
+            input.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Decodes UTF-8 from a ByteBuffer on demand, without copying the whole buffer.
+     */
+    private static class ByteBufferReader extends Reader {
+        private final ByteBuffer bytes;
+        private final CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder();
+        private boolean done = false;
+
+        ByteBufferReader(ByteBuffer bytes) {
+            this.bytes = bytes;
+        }
+
+        @Override
+        public int read(char[] cbuf, int off, int len) throws IOException {
+            if (done) {
+                return -1;
+            }
+            var chars = CharBuffer.wrap(cbuf, off, len);
+            var result = decoder.decode(bytes, chars, true);
+            if (result.isError()) {
+                result.throwException();
+            }
+            if (result.isUnderflow()) {
+                decoder.flush(chars);
+                done = true;
+            }
+            var n = chars.position() - off;
+            return n == 0 && done ? -1 : n;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2024, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.openjdk.skara.json;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JSONReaderTests {
+    private static JSONReader reader(String s) {
+        return new JSONReader(new StringReader(s));
+    }
+
+    @Test
+    void tokens() {
+        var reader = reader("{\"a\": [1, 2.5, \"x\", true, null], \"b\": {}}");
+        assertEquals(JSONReader.Token.START_OBJECT, reader.next());
+        assertEquals(JSONReader.Token.NAME, reader.next());
+        assertEquals("a", reader.string());
+        assertEquals(JSONReader.Token.START_ARRAY, reader.next());
+        assertEquals(JSONReader.Token.NUMBER, reader.next());
+        assertEquals(1, reader.longValue());
+        assertEquals(JSONReader.Token.DECIMAL, reader.next());
+        assertEquals(2.5, reader.doubleValue());
+        assertEquals(JSONReader.Token.STRING, reader.next());
+        assertEquals("x", reader.string());
+        assertEquals(JSONReader.Token.BOOLEAN, reader.next());
+        assertTrue(reader.booleanValue());
+        assertEquals(JSONReader.Token.NULL, reader.next());
+        assertEquals(JSONReader.Token.END_ARRAY, reader.next());
+        assertEquals(JSONReader.Token.NAME, reader.next());
+        assertEquals("b", reader.string());
+        assertEquals(JSONReader.Token.START_OBJECT, reader.peek());
+        assertEquals(JSONReader.Token.START_OBJECT, reader.next());
+        assertEquals(JSONReader.Token.END_OBJECT, reader.next());
+        assertEquals(JSONReader.Token.END_OBJECT, reader.next());
+        assertFalse(reader.hasNext());
+    }
+
+    @Test
+    void sameAsParser() {
+        var input = "{\"name\": \"foo \\\"bar\\\" \\u00e5\\n\", \"list\": [-1, 0, 10e2, -0.5E-1, [], {}],"
+                  + " \"nested\": {\"a\": {\"b\": [false]}}, \"none\": null}";
+        var expected = JSON.parse(input);
+        assertEquals(expected, reader(input).readValue());
+        var bytes = input.getBytes(StandardCharsets.UTF_8);
+        assertEquals(expected, new JSONReader(ByteBuffer.wrap(bytes)).readValue());
+    }
+
+    @Test
+    void parseStream() throws IOException {
+        var input = "[\"\u00e5\u00e4\u00f6\", {\"key\": 17}]";
+        var value = JSON.parse(new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)));
+        assertEquals(JSON.parse(input), value);
+        assertNull(JSON.parse(new ByteArrayInputStream(new byte[0])));
+    }
+
+    @Test
+    void longInput() {
+        // Larger than the internal buffer, with strings crossing buffer boundaries
+        var builder = new StringBuilder("[");
+        for (int i = 0; i < 5000; i++) {
+            if (i > 0) {
+                builder.append(", ");
+            }
+            builder.append("{\"id\": ").append(i).append(", \"text\": \"line ").append(i).append("\\ttab\"}");
+        }
+        builder.append("]");
+        var elements = new ArrayList<JSONValue>();
+        reader(builder.toString()).forEachElement(elements::add);
+        assertEquals(5000, elements.size());
+        assertEquals(4711, elements.get(4711).get("id").asInt());
+        assertEquals("line 4711\ttab", elements.get(4711).get("text").asString());
+    }
+
+    @Test
+    void skipValue() {
+        var reader = reader("{\"skip\": {\"a\": [1, {\"b\": 2}]}, \"keep\": \"yes\"}");
+        assertEquals(JSONReader.Token.START_OBJECT, reader.next());
+        assertEquals(JSONReader.Token.NAME, reader.next());
+        reader.skipValue();
+        assertEquals(JSONReader.Token.NAME, reader.next());
+        assertEquals("keep", reader.string());
+        assertEquals("yes", reader.readValue().asString());
+    }
+
+    @Test
+    void invalid() {
+        assertThrows(IllegalStateException.class, () -> reader("[1 2]").readValue());
+        assertThrows(IllegalStateException.class, () -> reader("{\"a\" 1}").readValue());
+        assertThrows(IllegalStateException.class, () -> reader("[1,").readValue());
+        assertThrows(IllegalStateException.class, () -> reader("\"abc").readValue());
+        assertThrows(IllegalStateException.class, () -> reader("tru").readValue());
+        assertThrows(IllegalStateException.class, () -> reader("-").readValue());
+        assertThrows(IllegalStateException.class, () -> JSON.parse(new ByteArrayInputStream("1 2".getBytes())));
+    }
+}
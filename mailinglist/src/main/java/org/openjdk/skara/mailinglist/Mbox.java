@@ -73,6 +73,126 @@ public class Mbox {
         return parsedMails;
     }
 
+    /**
+     * Splits an mbox read from the given reader into emails without reading the
+     * complete mbox into memory. A message starts with a line starting with "From "
+     * that is either the first such line or preceded by an empty line, in the same
+     * way as for {@link #splitMbox(String, EmailAddress)}. A message that cannot be
+     * parsed on its own is assumed to be the continuation of the previous message,
+     * as Pipermail can fail to encode "From " at the start of a line in a body.
+     */
+    public static List<Email> splitMbox(Reader mbox, EmailAddress sender) throws IOException {
+        var parsedMails = new ArrayList<Email>();
+        StringBuilder message = null;
+        String previous = null;
+        String pendingEmptyLine = null;
+
+        var reader = mbox instanceof BufferedReader ? mbox : new BufferedReader(mbox);
+        var line = new StringBuilder();
+        while (true) {
+            var endOfInput = !readLine(reader, line);
+            if (endOfInput || (pendingEmptyLine != null && isFromLine(line))) {
+                if (message != null) {
+                    if (!endOfInput) {
+                        // The last character of the line before the empty line is not part of the message
+                        message.setLength(message.length() - 1);
+                    } else if (pendingEmptyLine != null) {
+                        message.append(pendingEmptyLine);
+                    }
+                    previous = addMessage(parsedMails, previous, decodeFromStrings(message.toString()), sender);
+                }
+                if (endOfInput) {
+                    break;
+                }
+                message = new StringBuilder(line);
+                pendingEmptyLine = null;
+                continue;
+            }
+            if (message == null) {
+                if (isFromLine(line)) {
+                    message = new StringBuilder(line);
+                }
+                continue;
+            }
+            if (pendingEmptyLine != null) {
+                message.append(pendingEmptyLine);
+                pendingEmptyLine = null;
+            }
+            if (line.length() > 0 && (line.charAt(0) == '\n' || line.charAt(0) == '\r')) {
+                pendingEmptyLine = line.toString();
+            } else {
+                message.append(line);
+            }
+        }
+        return parsedMails;
+    }
+
+    private static boolean isFromLine(CharSequence line) {
+        return line.length() >= 5 && line.subSequence(0, 5).toString().equals("From ");
+    }
+
+    /**
+     * Reads the next line including its line terminator into the given builder.
+     * Returns false if there are no more lines.
+     */
+    private static boolean readLine(Reader reader, StringBuilder line) throws IOException {
+        line.setLength(0);
+        while (true) {
+            reader.mark(1);
+            var c = reader.read();
+            if (c == -1) {
+                return line.length() > 0;
+            }
+            if (line.length() > 0 && line.charAt(line.length() - 1) == '\r') {
+                if (c == '\n') {
+                    line.append('\n');
+                } else {
+                    reader.reset();
+                }
+                return true;
+            }
+            line.append((char) c);
+            if (c == '\n') {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Parses a message and adds it to the list of emails. If it cannot be parsed, it
+     * is instead appended to the previous message, which then replaces the email
+     * parsed from the previous message. Returns the text of the last added email.
+     */
+    private static String addMessage(List<Email> parsedMails, String previous, String message, EmailAddress sender) {
+        if (message.isEmpty()) {
+            return previous;
+        }
+        try {
+            parsedMails.add(parseMessage(message, sender));
+            return message;
+        } catch (RuntimeException e) {
+            if (previous != null) {
+                var combined = previous + message;
+                try {
+                    var email = parseMessage(combined, sender);
+                    parsedMails.set(parsedMails.size() - 1, email);
+                    return combined;
+                } catch (RuntimeException ignored) {
+                }
+            }
+            log.log(Level.WARNING, "Failed to parse email: " + e.getMessage(), e);
+            return previous;
+        }
+    }
+
+    private static Email parseMessage(String message, EmailAddress sender) {
+        var email = Email.from(Email.parse(message));
+        if (sender != null) {
+            email.sender(sender);
+        }
+        return email.build();
+    }
+
     private static String encodeFromStrings(String body) {
         var fromStringMatcher = fromStringEncodePattern.matcher(body);
         return fromStringMatcher.replaceAll(">$1");
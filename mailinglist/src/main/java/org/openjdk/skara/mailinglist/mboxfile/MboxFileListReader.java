@@ -48,8 +48,9 @@ public class MboxFileListReader implements MailingListReader {
         for (var name : names) {
             try {
                 var file = base.resolve(name.localPart() + ".mbox");
-                var currentMbox = Files.readString(file);
-                emails.addAll(Mbox.splitMbox(currentMbox, name));
+                try (var reader = Files.newBufferedReader(file)) {
+                    emails.addAll(Mbox.splitMbox(reader, name));
+                }
             } catch (IOException e) {
                 log.info("Failed to open mbox file");
             }
@@ -26,9 +26,10 @@ import org.junit.jupiter.api.Test;
 import org.openjdk.skara.email.*;
 import org.openjdk.skara.test.TemporaryDirectory;
 
-import java.io.IOException;
+import java.io.*;
 import java.nio.file.Files;
 import java.time.Duration;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -414,4 +415,36 @@ class MboxTests {
             assertEquals(2, conversation.allMessages().size());
         }
     }
+
+    @Test
+    void splitFromReader() throws IOException {
+        var sender = EmailAddress.from("test", "test@test.mail");
+        var first = Email.create(sender, "First", "Body\n\nFrom is encoded\n")
+                         .recipient(EmailAddress.from("test@mbox"))
+                         .build();
+        var second = Email.create(sender, "Second", "Another body")
+                          .recipient(EmailAddress.from("test@mbox"))
+                          .build();
+        var mboxes = List.of(Mbox.fromMail(first) + Mbox.fromMail(second),
+                             "garbage before the first message\n" + Mbox.fromMail(first),
+                             (Mbox.fromMail(first) + Mbox.fromMail(second)).replace("\n", "\r\n"),
+                             """
+                             From test at example.com  Wed Aug 21 17:22:50 2019
+                             From: test at example.com (test at example.com)
+                             Date: Wed, 21 Aug 2019 17:22:50 +0000
+                             Subject: this is a test
+                             Message-ID: <abc123@example.com>
+
+                             Sometimes there are unencoded from lines as well
+
+                             From this point onwards, it may be hard to parse this
+                             """,
+                             "");
+        for (var mbox : mboxes) {
+            var expected = Mbox.splitMbox(mbox, sender);
+            assertEquals(expected, Mbox.splitMbox(new StringReader(mbox), sender));
+        }
+        assertEquals(2, Mbox.splitMbox(new StringReader(mboxes.get(0)), sender).size());
+        assertEquals(1, Mbox.splitMbox(new StringReader(mboxes.get(3)), sender).size());
+    }
 }
@@ -0,0 +1,352 @@
+/*
+ * Copyright (c) 2024, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.openjdk.skara.metrics;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.*;
+
+/**
+ * A histogram counts observed values, typically durations in seconds, in a fixed
+ * set of buckets. Each bucket is exported with its upper bound as the "le" label,
+ * together with the sum and the count of all observations, which allows quantiles
+ * to be computed when the metrics are queried. Observations only increment adders,
+ * so observing a value never blocks.
+ */
+public final class Histogram implements Collector {
+    /**
+     * Default buckets, suitable for durations in seconds ranging from a few
+     * milliseconds to several minutes.
+     */
+    public static final double[] DEFAULT_BUCKETS =
+            {0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10, 30, 60, 120, 300, 600};
+
+    public final static class Builder {
+        public final static class WithOneLabel {
+            private final String name;
+            private final double[] buckets;
+            private final String label;
+
+            WithOneLabel(String name, double[] buckets, String label) {
+                this.name = name;
+                this.buckets = buckets;
+                this.label = label;
+            }
+
+            public Histogram.WithOneLabel register() {
+                return register(CollectorRegistry.defaultRegistry());
+            }
+
+            public Histogram.WithOneLabel register(CollectorRegistry registry) {
+                var histogram = new Histogram.WithOneLabel(name, buckets, label);
+                registry.register(histogram);
+                return histogram;
+            }
+        }
+
+        public final static class WithTwoLabels {
+            private final String name;
+            private final double[] buckets;
+            private final String label1;
+            private final String label2;
+
+            WithTwoLabels(String name, double[] buckets, String label1, String label2) {
+                this.name = name;
+                this.buckets = buckets;
+                this.label1 = label1;
+                this.label2 = label2;
+            }
+
+            public Histogram.WithTwoLabels register() {
+                return register(CollectorRegistry.defaultRegistry());
+            }
+
+            public Histogram.WithTwoLabels register(CollectorRegistry registry) {
+                var histogram = new Histogram.WithTwoLabels(name, buckets, label1, label2);
+                registry.register(histogram);
+                return histogram;
+            }
+        }
+
+        public final static class WithThreeLabels {
+            private final String name;
+            private final double[] buckets;
+            private final String label1;
+            private final String label2;
+            private final String label3;
+
+            WithThreeLabels(String name, double[] buckets, String label1, String label2, String label3) {
+                this.name = name;
+                this.buckets = buckets;
+                this.label1 = label1;
+                this.label2 = label2;
+                this.label3 = label3;
+            }
+
+            public Histogram.WithThreeLabels register() {
+                return register(CollectorRegistry.defaultRegistry());
+            }
+
+            public Histogram.WithThreeLabels register(CollectorRegistry registry) {
+                var histogram = new Histogram.WithThreeLabels(name, buckets, label1, label2, label3);
+                registry.register(histogram);
+                return histogram;
+            }
+        }
+
+        private final String name;
+        private double[] buckets = DEFAULT_BUCKETS;
+
+        Builder(String name) {
+            this.name = name;
+        }
+
+        /**
+         * Sets the upper bounds of the buckets, which must be in increasing order. A
+         * bucket for all values larger than the last bound is always added.
+         */
+        public Builder buckets(double... buckets) {
+            if (buckets.length == 0) {
+                throw new IllegalArgumentException("At least one bucket is required");
+            }
+            for (int i = 1; i < buckets.length; i++) {
+                if (buckets[i] <= buckets[i - 1]) {
+                    throw new IllegalArgumentException("Buckets must be in increasing order");
+                }
+            }
+            this.buckets = buckets.clone();
+            return this;
+        }
+
+        public Histogram register() {
+            return register(CollectorRegistry.defaultRegistry());
+        }
+
+        public Histogram register(CollectorRegistry registry) {
+            var histogram = new Histogram(name, buckets);
+            registry.register(histogram);
+            return histogram;
+        }
+
+        public Builder.WithOneLabel labels(String label) {
+            return new Builder.WithOneLabel(name, buckets, label);
+        }
+
+        public Builder.WithTwoLabels labels(String label1, String label2) {
+            return new Builder.WithTwoLabels(name, buckets, label1, label2);
+        }
+
+        public Builder.WithThreeLabels labels(String label1, String label2, String label3) {
+            return new Builder.WithThreeLabels(name, buckets, label1, label2, label3);
+        }
+    }
+
+    /**
+     * The buckets for one set of label values.
+     */
+    private static final class Buckets {
+        private final double[] bounds;
+        // Non-cumulative counts, the last one is for values larger than all bounds
+        private final LongAdder[] counts;
+        private final DoubleAdder sum = new DoubleAdder();
+
+        Buckets(double[] bounds) {
+            this.bounds = bounds;
+            this.counts = new LongAdder[bounds.length + 1];
+            for (int i = 0; i < counts.length; i++) {
+                counts[i] = new LongAdder();
+            }
+        }
+
+        void observe(double value) {
+            var index = Arrays.binarySearch(bounds, value);
+            if (index < 0) {
+                index = -index - 1;
+            }
+            counts[index].increment();
+            sum.add(value);
+        }
+
+        void collect(String name, List<Metric.Label> labels, List<Metric> metrics) {
+            var cumulative = 0L;
+            for (int i = 0; i < counts.length; i++) {
+                cumulative += counts[i].sum();
+                var bound = i < bounds.length ? Double.toString(bounds[i]) : "+Inf";
+                var bucketLabels = new ArrayList<>(labels);
+                bucketLabels.add(new Metric.Label("le", bound));
+                metrics.add(new Metric(Metric.Type.HISTOGRAM, name, "_bucket", bucketLabels, cumulative));
+            }
+            metrics.add(new Metric(Metric.Type.HISTOGRAM, name, "_sum", labels, sum.sum()));
+            metrics.add(new Metric(Metric.Type.HISTOGRAM, name, "_count", labels, cumulative));
+        }
+    }
+
+    public static final class Observer {
+        private final Buckets buckets;
+
+        Observer(Buckets buckets) {
+            this.buckets = buckets;
+        }
+
+        public void observe(double value) {
+            buckets.observe(value);
+        }
+
+        /**
+         * Observes the duration in seconds.
+         */
+        public void observe(Duration duration) {
+            observe(duration.toNanos() / 1_000_000_000.0);
+        }
+    }
+
+    private final String name;
+    private final Buckets buckets;
+
+    Histogram(String name, double[] bounds) {
+        this.name = name;
+        this.buckets = new Buckets(bounds);
+    }
+
+    public static Histogram.Builder name(String name) {
+        return new Histogram.Builder(name);
+    }
+
+    public void observe(double value) {
+        buckets.observe(value);
+    }
+
+    /**
+     * Observes the duration in seconds.
+     */
+    public void observe(Duration duration) {
+        observe(duration.toNanos() / 1_000_000_000.0);
+    }
+
+    @Override
+    public List<Metric> collect() {
+        var metrics = new ArrayList<Metric>();
+        buckets.collect(name, List.of(), metrics);
+        return metrics;
+    }
+
+    public static final class WithOneLabel implements Collector {
+        private final String name;
+        private final double[] bounds;
+        private final String label;
+        private final ConcurrentHashMap<String, Buckets> value;
+
+        public WithOneLabel(String name, double[] bounds, String label) {
+            this.name = name;
+            this.bounds = bounds;
+            this.label = label;
+            this.value = new ConcurrentHashMap<>();
+        }
+
+        public Observer labels(String labelValue) {
+            return new Observer(value.computeIfAbsent(labelValue, k -> new Buckets(bounds)));
+        }
+
+        @Override
+        public List<Metric> collect() {
+            var metrics = new ArrayList<Metric>();
+            for (var entry : value.entrySet()) {
+                var labels = List.of(new Metric.Label(label, entry.getKey()));
+                entry.getValue().collect(name, labels, metrics);
+            }
+            return metrics;
+        }
+    }
+
+    public static final class WithTwoLabels implements Collector {
+        private final String name;
+        private final double[] bounds;
+        private final String label1;
+        private final String label2;
+        private final ConcurrentHashMap<List<String>, Buckets> value;
+
+        public WithTwoLabels(String name, double[] bounds, String label1, String label2) {
+            this.name = name;
+            this.bounds = bounds;
+            this.label1 = label1;
+            this.label2 = label2;
+            this.value = new ConcurrentHashMap<>();
+        }
+
+        public Observer labels(String labelValue1, String labelValue2) {
+            var key = List.of(labelValue1, labelValue2);
+            return new Observer(value.computeIfAbsent(key, k -> new Buckets(bounds)));
+        }
+
+        @Override
+        public List<Metric> collect() {
+            var metrics = new ArrayList<Metric>();
+            for (var entry : value.entrySet()) {
+                var values = entry.getKey();
+                var labels =
+                    List.of(new Metric.Label(label1, values.get(0)),
+                            new Metric.Label(label2, values.get(1)));
+                entry.getValue().collect(name, labels, metrics);
+            }
+            return metrics;
+        }
+    }
+
+    public static final class WithThreeLabels implements Collector {
+        private final String name;
+        private final double[] bounds;
+        private final String label1;
+        private final String label2;
+        private final String label3;
+        private final ConcurrentHashMap<List<String>, Buckets> value;
+
+        public WithThreeLabels(String name, double[] bounds, String label1, String label2, String label3) {
+            this.name = name;
+            this.bounds = bounds;
+            this.label1 = label1;
+            this.label2 = label2;
+            this.label3 = label3;
+            this.value = new ConcurrentHashMap<>();
+        }
+
+        public Observer labels(String labelValue1, String labelValue2, String labelValue3) {
+            var key = List.of(labelValue1, labelValue2, labelValue3);
+            return new Observer(value.computeIfAbsent(key, k -> new Buckets(bounds)));
+        }
+
+        @Override
+        public List<Metric> collect() {
+            var metrics = new ArrayList<Metric>();
+            for (var entry : value.entrySet()) {
+                var values = entry.getKey();
+                var labels =
+                    List.of(new Metric.Label(label1, values.get(0)),
+                            new Metric.Label(label2, values.get(1)),
+                            new Metric.Label(label3, values.get(2)));
+                entry.getValue().collect(name, labels, metrics);
+            }
+            return metrics;
+        }
+    }
+}
@@ -68,12 +68,23 @@ public final class Metric {
 
     private final Type type;
     private final String name;
+    private final String suffix;
     private final List<Label> labels;
     private final double value;
 
     public Metric(Type type, String name, List<Label> labels, double value) {
+        this(type, name, "", labels, value);
+    }
+
+    /**
+     * Creates one of several samples making up a metric, such as the buckets of a
+     * histogram. The suffix is appended to the name of the metric for the sample,
+     * for example "_bucket", "_sum" or "_count".
+     */
+    public Metric(Type type, String name, String suffix, List<Label> labels, double value) {
         this.type = type;
         this.name = name;
+        this.suffix = suffix;
         this.labels = labels;
         this.value = value;
     }
@@ -86,6 +97,10 @@ public final class Metric {
         return name;
     }
 
+    public String suffix() {
+        return suffix;
+    }
+
     public List<Label> labels() {
         return labels;
     }
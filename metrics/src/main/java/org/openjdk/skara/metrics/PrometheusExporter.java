@@ -40,6 +40,7 @@ public class PrometheusExporter implements Exporter {
                 typed.add(metric.name());
             }
             sb.append(metric.name());
+            sb.append(metric.suffix());
             var labels = metric.labels();
             if (!labels.isEmpty()) {
                 sb.append("{");
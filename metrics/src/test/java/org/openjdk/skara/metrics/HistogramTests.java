@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2024, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.openjdk.skara.metrics;
+
+import org.junit.jupiter.api.*;
+import java.time.Duration;
+import java.util.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class HistogramTests {
+    private static Map<String, Double> samples(List<Metric> metrics) {
+        var result = new HashMap<String, Double>();
+        for (var metric : metrics) {
+            var key = new StringBuilder(metric.suffix());
+            for (var label : metric.labels()) {
+                key.append(" ").append(label.name()).append("=").append(label.value());
+            }
+            result.put(key.toString(), metric.value());
+        }
+        return result;
+    }
+
+    @Test
+    void observe() {
+        var registry = new CollectorRegistry(false, false);
+        var histogram = Histogram.name("test").buckets(1, 2, 5).register(registry);
+        histogram.observe(0.5);
+        histogram.observe(1);
+        histogram.observe(3);
+        histogram.observe(10);
+
+        var metrics = histogram.collect();
+        assertEquals(6, metrics.size());
+        assertTrue(metrics.stream().allMatch(m -> m.type() == Metric.Type.HISTOGRAM && m.name().equals("test")));
+        var samples = samples(metrics);
+        assertEquals(2, samples.get("_bucket le=1.0"));
+        assertEquals(2, samples.get("_bucket le=2.0"));
+        assertEquals(3, samples.get("_bucket le=5.0"));
+        assertEquals(4, samples.get("_bucket le=+Inf"));
+        assertEquals(14.5, samples.get("_sum"));
+        assertEquals(4, samples.get("_count"));
+    }
+
+    @Test
+    void observeDuration() {
+        var registry = new CollectorRegistry(false, false);
+        var histogram = Histogram.name("test").buckets(0.1, 1).register(registry);
+        histogram.observe(Duration.ofMillis(250));
+        var samples = samples(histogram.collect());
+        assertEquals(0, samples.get("_bucket le=0.1"));
+        assertEquals(1, samples.get("_bucket le=1.0"));
+        assertEquals(0.25, samples.get("_sum"));
+    }
+
+    @Test
+    void invalidBuckets() {
+        assertThrows(IllegalArgumentException.class, () -> Histogram.name("test").buckets());
+        assertThrows(IllegalArgumentException.class, () -> Histogram.name("test").buckets(2, 1));
+    }
+
+    @Test
+    void twoLabels() {
+        var registry = new CollectorRegistry(false, false);
+        var histogram = Histogram.name("test").buckets(1).labels("a", "b").register(registry);
+        histogram.labels("1", "2").observe(0.5);
+        histogram.labels("1", "2").observe(1.5);
+        histogram.labels("3", "4").observe(0.5);
+
+        var samples = samples(histogram.collect());
+        assertEquals(8, samples.size());
+        assertEquals(1, samples.get("_bucket a=1 b=2 le=1.0"));
+        assertEquals(2, samples.get("_bucket a=1 b=2 le=+Inf"));
+        assertEquals(2, samples.get("_count a=1 b=2"));
+        assertEquals(1, samples.get("_count a=3 b=4"));
+    }
+
+    @Test
+    void export() {
+        var registry = new CollectorRegistry(false, false);
+        var histogram = Histogram.name("test").buckets(1).labels("a").register(registry);
+        histogram.labels("x").observe(0.5);
+
+        var lines = Arrays.asList(new PrometheusExporter().export(histogram.collect()).split("\n"));
+        assertEquals(List.of("# TYPE test histogram",
+                             "test_bucket{a=\"x\",le=\"1.0\"} 1.0",
+                             "test_bucket{a=\"x\",le=\"+Inf\"} 1.0",
+                             "test_sum{a=\"x\"} 0.5",
+                             "test_count{a=\"x\"} 1.0"), lines);
+    }
+}
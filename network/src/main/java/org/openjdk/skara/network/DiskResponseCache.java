@@ -0,0 +1,296 @@
+/*
+ * Copyright (c) 2024, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.openjdk.skara.network;
+
+import javax.net.ssl.SSLSession;
+import java.io.*;
+import java.net.URI;
+import java.net.http.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.security.*;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.BiPredicate;
+import java.util.logging.Logger;
+import java.util.zip.*;
+
+/**
+ * Keeps responses that carry an ETag on disk, so that conditional requests can
+ * be made right away after a restart. Each response is stored in a separate file
+ * named after a hash of the authentication id and the request URI. The file starts
+ * with an uncompressed header followed by the compressed response body, so that
+ * the index of stored URIs can be built without reading the bodies.
+ */
+class DiskResponseCache {
+    private static final int VERSION = 1;
+    private static final String SUFFIX = ".response";
+
+    record StoredResponse(String authId, String uri, Instant callTime, HttpResponse<String> response) {
+    }
+
+    private final Logger log = Logger.getLogger("org.openjdk.skara.network");
+    private final Path directory;
+    // URIs of all stored responses, mapped to the authentication ids they are stored for
+    private final ConcurrentSkipListMap<String, Set<String>> index = new ConcurrentSkipListMap<>();
+    private volatile boolean indexed = false;
+
+    DiskResponseCache(Path directory) {
+        this.directory = directory;
+    }
+
+    private Path fileFor(String authId, String uri) {
+        try {
+            var digest = MessageDigest.getInstance("SHA-256");
+            digest.update(authId.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) '\n');
+            digest.update(uri.getBytes(StandardCharsets.UTF_8));
+            return directory.resolve(HexFormat.of().formatHex(digest.digest()) + SUFFIX);
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException("Cannot find SHA-256");
+        }
+    }
+
+    /**
+     * Builds the index of stored URIs the first time it is needed.
+     */
+    private void ensureIndexed() {
+        if (indexed) {
+            return;
+        }
+        synchronized (this) {
+            if (indexed) {
+                return;
+            }
+            if (Files.isDirectory(directory)) {
+                try (var files = Files.newDirectoryStream(directory, "*" + SUFFIX)) {
+                    for (var file : files) {
+                        try (var input = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+                            var header = readHeader(input);
+                            index.computeIfAbsent(header.uri(), u -> ConcurrentHashMap.newKeySet()).add(header.authId());
+                        } catch (IOException e) {
+                            log.warning("Removing unreadable cached response " + file + ": " + e.getMessage());
+                            Files.deleteIfExists(file);
+                        }
+                    }
+                } catch (IOException e) {
+                    log.warning("Failed to index cached responses in " + directory + ": " + e.getMessage());
+                }
+            }
+            indexed = true;
+        }
+    }
+
+    private record Header(String authId, String uri, Instant callTime) {
+    }
+
+    private static Header readHeader(DataInputStream input) throws IOException {
+        var version = input.readInt();
+        if (version != VERSION) {
+            throw new IOException("Unknown version " + version);
+        }
+        var authId = input.readUTF();
+        var uri = input.readUTF();
+        var callTime = Instant.ofEpochMilli(input.readLong());
+        return new Header(authId, uri, callTime);
+    }
+
+    Optional<StoredResponse> load(String authId, String uri) {
+        ensureIndexed();
+        var authIds = index.get(uri);
+        if (authIds == null || !authIds.contains(authId)) {
+            return Optional.empty();
+        }
+        var file = fileFor(authId, uri);
+        try (var input = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            var header = readHeader(input);
+            if (!header.authId().equals(authId) || !header.uri().equals(uri)) {
+                return Optional.empty();
+            }
+            var statusCode = input.readInt();
+            var headerCount = input.readInt();
+            var headers = new HashMap<String, List<String>>();
+            for (int i = 0; i < headerCount; ++i) {
+                var name = input.readUTF();
+                var valueCount = input.readInt();
+                var values = new ArrayList<String>(valueCount);
+                for (int j = 0; j < valueCount; ++j) {
+                    values.add(input.readUTF());
+                }
+                headers.put(name, values);
+            }
+            var body = new String(new GZIPInputStream(input).readAllBytes(), StandardCharsets.UTF_8);
+            var response = new StoredHttpResponse(URI.create(uri), statusCode,
+                                                  HttpHeaders.of(headers, (a, b) -> true), body);
+            return Optional.of(new StoredResponse(authId, uri, header.callTime(), response));
+        } catch (NoSuchFileException e) {
+            remove(authId, uri);
+            return Optional.empty();
+        } catch (IOException | RuntimeException e) {
+            log.warning("Failed to load cached response for " + uri + ": " + e.getMessage());
+            remove(authId, uri);
+            return Optional.empty();
+        }
+    }
+
+    void store(String authId, String uri, Instant callTime, HttpResponse<String> response) {
+        ensureIndexed();
+        var file = fileFor(authId, uri);
+        try {
+            Files.createDirectories(directory);
+            var tmp = Files.createTempFile(directory, "tmp", ".partial");
+            try {
+                try (var output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+                    output.writeInt(VERSION);
+                    output.writeUTF(authId);
+                    output.writeUTF(uri);
+                    output.writeLong(callTime.toEpochMilli());
+                    output.writeInt(response.statusCode());
+                    var headers = response.headers().map();
+                    output.writeInt(headers.size());
+                    for (var header : headers.entrySet()) {
+                        output.writeUTF(header.getKey());
+                        output.writeInt(header.getValue().size());
+                        for (var value : header.getValue()) {
+                            output.writeUTF(value);
+                        }
+                    }
+                    var compressed = new GZIPOutputStream(output);
+                    compressed.write(response.body().getBytes(StandardCharsets.UTF_8));
+                    compressed.finish();
+                }
+                Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(tmp);
+            }
+            index.computeIfAbsent(uri, u -> ConcurrentHashMap.newKeySet()).add(authId);
+        } catch (IOException | RuntimeException e) {
+            log.warning("Failed to store cached response for " + uri + ": " + e.getMessage());
+        }
+    }
+
+    private void remove(String authId, String uri) {
+        var authIds = index.get(uri);
+        if (authIds != null) {
+            authIds.remove(authId);
+            if (authIds.isEmpty()) {
+                index.remove(uri, authIds);
+            }
+        }
+        try {
+            Files.deleteIfExists(fileFor(authId, uri));
+        } catch (IOException e) {
+            log.warning("Failed to remove cached response for " + uri + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Removes all stored responses for URIs starting with the given prefix.
+     */
+    void invalidate(String uriPrefix) {
+        ensureIndexed();
+        var matching = index.subMap(uriPrefix, true, uriPrefix + Character.MAX_VALUE, false);
+        for (var entry : List.copyOf(matching.entrySet())) {
+            for (var authId : List.copyOf(entry.getValue())) {
+                remove(authId, entry.getKey());
+            }
+        }
+    }
+
+    /**
+     * Removes all stored responses matching the predicate, which is given the
+     * request URI and the time of the call.
+     */
+    void removeIf(BiPredicate<String, Instant> predicate) {
+        ensureIndexed();
+        for (var entry : List.copyOf(index.entrySet())) {
+            for (var authId : List.copyOf(entry.getValue())) {
+                var file = fileFor(authId, entry.getKey());
+                try (var input = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+                    var header = readHeader(input);
+                    if (!predicate.test(header.uri(), header.callTime())) {
+                        continue;
+                    }
+                } catch (IOException e) {
+                    // Unreadable entries are removed as well
+                }
+                remove(authId, entry.getKey());
+            }
+        }
+    }
+
+    private static class StoredHttpResponse implements HttpResponse<String> {
+        private final URI uri;
+        private final int statusCode;
+        private final HttpHeaders headers;
+        private final String body;
+
+        StoredHttpResponse(URI uri, int statusCode, HttpHeaders headers, String body) {
+            this.uri = uri;
+            this.statusCode = statusCode;
+            this.headers = headers;
+            this.body = body;
+        }
+
+        @Override
+        public int statusCode() {
+            return statusCode;
+        }
+
+        @Override
+        public HttpRequest request() {
+            return HttpRequest.newBuilder(uri).build();
+        }
+
+        @Override
+        public Optional<HttpResponse<String>> previousResponse() {
+            return Optional.empty();
+        }
+
+        @Override
+        public HttpHeaders headers() {
+            return headers;
+        }
+
+        @Override
+        public String body() {
+            return body;
+        }
+
+        @Override
+        public Optional<SSLSession> sslSession() {
+            return Optional.empty();
+        }
+
+        @Override
+        public URI uri() {
+            return uri;
+        }
+
+        @Override
+        public HttpClient.Version version() {
+            return HttpClient.Version.HTTP_1_1;
+        }
+    }
+}
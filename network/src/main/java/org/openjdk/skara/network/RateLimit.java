@@ -0,0 +1,51 @@
+/*
+ * Copyright (c) 2024, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.openjdk.skara.network;
+
+import java.net.http.HttpHeaders;
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * The rate limit state reported by a forge through the x-ratelimit-* response headers.
+ */
+record RateLimit(int limit, int remaining, Instant reset) {
+    static Optional<RateLimit> from(HttpHeaders headers) {
+        var limit = headers.firstValue("x-ratelimit-limit");
+        var remaining = headers.firstValue("x-ratelimit-remaining");
+        var reset = headers.firstValue("x-ratelimit-reset");
+        if (limit.isEmpty() || remaining.isEmpty() || reset.isEmpty()) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(new RateLimit(Integer.parseInt(limit.get()), Integer.parseInt(remaining.get()),
+                                             Instant.ofEpochSecond(Long.parseLong(reset.get()))));
+        } catch (NumberFormatException e) {
+            return Optional.empty();
+        }
+    }
+
+    int remainingPercentage() {
+        return limit > 0 ? (remaining * 100) / limit : 100;
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ * Copyright (c) 2024, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.openjdk.skara.network;
+
+import java.net.http.HttpResponse;
+import java.time.Instant;
+import java.util.*;
+import java.util.function.*;
+
+/**
+ * A least recently used cache of responses, bounded both by the number of
+ * entries and by the estimated number of bytes used by the response bodies.
+ * Entries are also indexed by the URI of the request, so that all entries
+ * for URIs starting with a given prefix can be invalidated without looking
+ * at every entry.
+ */
+class ResponseCache<K> {
+    // Rough estimate of the memory used by an entry apart from the body
+    private static final long ENTRY_OVERHEAD = 512;
+
+    record Entry(HttpResponse<String> response, Instant callTime, long size) {
+    }
+
+    private final Function<K, String> uriOf;
+    private final LinkedHashMap<K, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final NavigableMap<String, Set<K>> keysByUri = new TreeMap<>();
+    private long maxBytes;
+    private int maxEntries;
+    private long bytes = 0;
+
+    ResponseCache(Function<K, String> uriOf, long maxBytes, int maxEntries) {
+        this.uriOf = uriOf;
+        this.maxBytes = maxBytes;
+        this.maxEntries = maxEntries;
+    }
+
+    static long estimateSize(HttpResponse<String> response) {
+        var body = response.body();
+        return ENTRY_OVERHEAD + (body == null ? 0 : 2L * body.length());
+    }
+
+    synchronized Entry get(K key) {
+        return entries.get(key);
+    }
+
+    /**
+     * Adds or replaces the response for the given key, evicting the least recently
+     * used entries if needed. Returns the number of evicted entries.
+     */
+    synchronized int put(K key, HttpResponse<String> response, Instant callTime) {
+        var entry = new Entry(response, callTime, estimateSize(response));
+        var previous = entries.put(key, entry);
+        if (previous != null) {
+            bytes -= previous.size();
+        } else {
+            keysByUri.computeIfAbsent(uriOf.apply(key), uri -> new HashSet<>()).add(key);
+        }
+        bytes += entry.size();
+        return trim();
+    }
+
+    /**
+     * Removes all entries for URIs starting with the given prefix. Returns the number
+     * of removed entries.
+     */
+    synchronized int invalidate(String uriPrefix) {
+        var matching = keysByUri.subMap(uriPrefix, true, uriPrefix + Character.MAX_VALUE, false);
+        var removed = 0;
+        for (var keys : matching.values()) {
+            for (var key : keys) {
+                var entry = entries.remove(key);
+                if (entry != null) {
+                    bytes -= entry.size();
+                    removed++;
+                }
+            }
+        }
+        matching.clear();
+        return removed;
+    }
+
+    /**
+     * Removes all entries matching the predicate. Returns the number of removed entries.
+     */
+    synchronized int removeIf(BiPredicate<K, Entry> predicate) {
+        var removed = 0;
+        var iterator = entries.entrySet().iterator();
+        while (iterator.hasNext()) {
+            var entry = iterator.next();
+            if (predicate.test(entry.getKey(), entry.getValue())) {
+                iterator.remove();
+                removeFromIndex(entry.getKey());
+                bytes -= entry.getValue().size();
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * Changes the limits of the cache, evicting entries if needed. Returns the number
+     * of evicted entries.
+     */
+    synchronized int setLimits(long maxBytes, int maxEntries) {
+        this.maxBytes = maxBytes;
+        this.maxEntries = maxEntries;
+        return trim();
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+
+    synchronized long bytes() {
+        return bytes;
+    }
+
+    private int trim() {
+        var evicted = 0;
+        var iterator = entries.entrySet().iterator();
+        while ((bytes > maxBytes || entries.size() > maxEntries) && iterator.hasNext()) {
+            var eldest = iterator.next();
+            iterator.remove();
+            removeFromIndex(eldest.getKey());
+            bytes -= eldest.getValue().size();
+            evicted++;
+        }
+        return evicted;
+    }
+
+    private void removeFromIndex(K key) {
+        var uri = uriOf.apply(key);
+        var keys = keysByUri.get(uri);
+        if (keys != null) {
+            keys.remove(key);
+            if (keys.isEmpty()) {
+                keysByUri.remove(uri);
+            }
+        }
+    }
+}
@@ -29,6 +29,7 @@ import java.io.*;
 import java.net.URI;
 import java.net.http.*;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.time.*;
@@ -298,19 +299,17 @@ public class RestRequest {
     }
 
     private void logRateLimit(HttpHeaders headers) {
-        if ((headers.firstValue("x-ratelimit-limit").isEmpty()) ||
-                (headers.firstValue("x-ratelimit-remaining").isEmpty()) ||
-                (headers.firstValue("x-ratelimit-reset").isEmpty())) {
+        var rateLimit = RateLimit.from(headers);
+        if (rateLimit.isEmpty()) {
             return;
         }
 
-        var limit = Integer.parseInt(headers.firstValue("x-ratelimit-limit").get());
-        var remaining = Integer.parseInt(headers.firstValue("x-ratelimit-remaining").get());
-        var reset = Integer.parseInt(headers.firstValue("x-ratelimit-reset").get());
-        var timeToReset = Duration.between(Instant.now(), Instant.ofEpochSecond(reset));
+        var limit = rateLimit.get().limit();
+        var remaining = rateLimit.get().remaining();
+        var timeToReset = Duration.between(Instant.now(), rateLimit.get().reset());
 
         var level = Level.FINE;
-        var remainingPercentage = (remaining * 100) / limit;
+        var remainingPercentage = rateLimit.get().remainingPercentage();
         if (remainingPercentage < 10) {
             level = Level.SEVERE;
         } else if (remainingPercentage < 20) {
@@ -480,37 +479,65 @@ public class RestRequest {
                           .collect(Collectors.toMap(m -> m.group(2), m -> m.group(1)));
     }
 
-    private JSONValue combinePages(List<JSONValue> pages) {
-        if (pages.get(0).isArray()) {
-            return new JSONArray(pages.stream()
-                                      .map(JSONValue::asArray)
-                                      .flatMap(JSONArray::stream)
-                                      .toArray(JSONValue[]::new));
-        } else {
-            // Find the largest array - that should be the paginated one
-            JSONValue paginated = null;
-            for (var field : pages.get(0).fields()) {
-                if (field.value().isArray()) {
-                    if ((paginated == null) || field.value().asArray().size() > paginated.asArray().size()) {
-                        paginated = field.value();
-                    }
+    /**
+     * Returns the name of the field holding the paginated array in an object response.
+     * If the object has several array fields, the largest one is assumed to be the
+     * paginated one.
+     */
+    private Optional<String> paginatedField(JSONValue firstPage) {
+        JSONObject.Field paginated = null;
+        for (var field : firstPage.fields()) {
+            if (field.value().isArray()) {
+                if ((paginated == null) || field.value().asArray().size() > paginated.value().asArray().size()) {
+                    paginated = field;
                 }
             }
+        }
+        return Optional.ofNullable(paginated).map(JSONObject.Field::name);
+    }
 
-            var ret = JSON.object();
-            for (var field : pages.get(0).fields()) {
-                if (field.value() == paginated) {
-                    var combined = new JSONArray(pages.stream()
-                                                      .map(page -> page.get(field.name()).asArray())
-                                                      .flatMap(JSONArray::stream)
-                                                      .toArray(JSONValue[]::new));
-                    ret.put(field.name(), combined);
+    /**
+     * Appends the paginated elements of a following page to the combined elements. The page
+     * is streamed, so only the elements that are kept are ever built as JSON values. If no
+     * paginated field is given, the page is expected to be an array.
+     */
+    private void appendPage(HttpResponse<String> response, Optional<String> paginatedField, List<JSONValue> combined) {
+        if (response.body().isEmpty()) {
+            return;
+        }
+        try (var reader = new JSONReader(new StringReader(response.body()))) {
+            if (paginatedField.isEmpty()) {
+                reader.forEachElement(combined::add);
+                return;
+            }
+            if (reader.next() != JSONReader.Token.START_OBJECT) {
+                throw new IllegalStateException("Expected a JSON object");
+            }
+            while (reader.next() == JSONReader.Token.NAME) {
+                if (reader.string().equals(paginatedField.get())) {
+                    reader.forEachElement(combined::add);
                 } else {
-                    ret.put(field.name(), field.value());
+                    reader.skipValue();
                 }
             }
-            return ret;
+        } catch (RuntimeException e) {
+            throw new UncheckedRestException("Failed to parse response", e, response.statusCode(), response.request());
+        }
+    }
+
+    private JSONValue combinePages(JSONValue firstPage, Optional<String> paginatedField, List<JSONValue> combined) {
+        if (firstPage.isArray()) {
+            return new JSONArray(combined);
+        }
+        var ret = JSON.object();
+        for (var field : firstPage.fields()) {
+            if (paginatedField.isPresent() && field.name().equals(paginatedField.get())) {
+                ret.put(field.name(), new JSONArray(combined));
+            } else {
+                ret.put(field.name(), field.value());
+            }
         }
+        return ret;
     }
 
     private Optional<HttpRequest.Builder> getNextLinkRequest(HttpResponse<String> response) {
@@ -552,12 +579,20 @@ public class RestRequest {
             return parseResponse(response);
         }
 
-        // If a pagination header is present, we have to collect all responses
-        var ret = new LinkedList<JSONValue>();
-        var parsedResponse = parseResponse(response);
-        ret.add(parsedResponse);
+        // If a pagination header is present, we have to collect all responses. Only the
+        // first page is parsed as a whole, the paginated elements of the following pages
+        // are appended as they are parsed.
+        var firstPage = parseResponse(response);
+        var paginatedField = firstPage.isArray() ? Optional.<String>empty() : paginatedField(firstPage);
+        var combined = new ArrayList<JSONValue>();
+        if (firstPage.isArray()) {
+            firstPage.asArray().forEach(combined::add);
+        } else if (paginatedField.isPresent()) {
+            firstPage.get(paginatedField.get()).asArray().forEach(combined::add);
+        }
+        var pages = 1;
 
-        while (nextRequest.isPresent() && ret.size() < queryBuilder.maxPages) {
+        while (nextRequest.isPresent() && pages < queryBuilder.maxPages) {
             requestCounter.labels(queryBuilder.queryType.toString()).inc();
             response = sendRequest(nextRequest.get(), queryBuilder.skipLimiter);
 
@@ -572,10 +607,12 @@ public class RestRequest {
 
             nextRequest = nextLinkExtractor.getNextLinkRequest(response);
 
-            parsedResponse = parseResponse(response);
-            ret.add(parsedResponse);
+            if (firstPage.isArray() || paginatedField.isPresent()) {
+                appendPage(response, paginatedField, combined);
+            }
+            pages++;
         }
-        return combinePages(ret);
+        return combinePages(firstPage, paginatedField, combined);
     }
 
     private String executeUnparsed(QueryBuilder queryBuilder) throws IOException {
@@ -653,4 +690,31 @@ public class RestRequest {
     public static void evictOldCacheData() {
         RestRequestCache.INSTANCE.evictOldData();
     }
+
+    /**
+     * Limits the size of the response cache. When either limit is exceeded, the least
+     * recently used responses are evicted.
+     */
+    public static void setCacheLimits(long maxBytes, int maxEntries) {
+        RestRequestCache.INSTANCE.setCacheLimits(maxBytes, maxEntries);
+    }
+
+    /**
+     * Keeps cached responses in the given directory as well, so that they can be
+     * used for conditional requests after a restart. Passing null disables the
+     * disk cache.
+     */
+    public static void setCacheDirectory(Path directory) {
+        RestRequestCache.INSTANCE.setCacheDirectory(directory);
+    }
+
+    /**
+     * Sets the maximum number of GET requests that may be in flight at the same time
+     * for a single authentication id. Other requests are always performed exclusively.
+     * Defaults to 1, as forges such as GitHub recommend that requests for a single
+     * user are made serially.
+     */
+    public static void setRequestWindow(int requestWindow) {
+        RestRequestCache.INSTANCE.setRequestWindow(requestWindow);
+    }
 }
@@ -25,11 +25,13 @@ package org.openjdk.skara.network;
 import java.util.logging.Level;
 import org.openjdk.skara.metrics.Counter;
 import org.openjdk.skara.metrics.Gauge;
+import org.openjdk.skara.metrics.Histogram;
 
 import javax.net.ssl.SSLSession;
 import java.io.IOException;
 import java.net.URI;
 import java.net.http.*;
+import java.nio.file.Path;
 import java.time.*;
 import java.util.*;
 import java.util.concurrent.*;
@@ -40,7 +42,18 @@ enum RestRequestCache {
     INSTANCE;
 
     private final static Gauge cachedEntriesGauge = Gauge.name("skara_response_cache_size").register();
+    private final static Gauge cachedBytesGauge = Gauge.name("skara_response_cache_bytes").register();
     private final static Counter cacheHitsCounter = Counter.name("skara_response_cache_hits").register();
+    private final static Counter cacheMissesCounter = Counter.name("skara_response_cache_misses").register();
+    private final static Counter cacheEvictionsCounter = Counter.name("skara_response_cache_evictions").register();
+    private final static Counter diskCacheLoadsCounter = Counter.name("skara_response_cache_disk_loads").register();
+    private final static Histogram.WithOneLabel callDurationHistogram =
+            Histogram.name("skara_rest_call_duration_seconds").labels("method").register();
+    private final static Histogram.WithOneLabel lockDelayHistogram =
+            Histogram.name("skara_rest_lock_delay_seconds").labels("method").register();
+
+    final static long DEFAULT_CACHE_MAX_BYTES = 128L * 1024 * 1024;
+    final static int DEFAULT_CACHE_MAX_ENTRIES = 100_000;
 
     private static class RequestContext {
         private final String authId;
@@ -75,20 +88,13 @@ enum RestRequestCache {
         }
     }
 
-    private class CacheEntry {
-        private final HttpResponse<String> response;
-        private final Instant callTime;
-
-        public CacheEntry(HttpResponse<String> response, Instant callTime) {
-            this.response = response;
-            this.callTime = callTime;
-        }
-    }
-
-    private final Map<RequestContext, CacheEntry> cachedResponses = new ConcurrentHashMap<>();
+    private final ResponseCache<RequestContext> cachedResponses =
+            new ResponseCache<>(context -> context.unauthenticatedRequest.uri().toString(),
+                                DEFAULT_CACHE_MAX_BYTES, DEFAULT_CACHE_MAX_ENTRIES);
+    private volatile DiskResponseCache diskCache = null;
     private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
     private final Logger log = Logger.getLogger("org.openjdk.skara.network");
-    private final ConcurrentHashMap<String, Lock> authLocks = new ConcurrentHashMap<>();
+    private volatile RequestWindows requestWindows = new RequestWindows(1);
     private final ConcurrentHashMap<String, Lock> authNonGetLocks = new ConcurrentHashMap<>();
     private final ConcurrentHashMap<String, Instant> lastUpdates = new ConcurrentHashMap<>();
 
@@ -115,6 +121,67 @@ enum RestRequestCache {
         }
     }
 
+    /**
+     * Limits the number of requests in flight for a single authentication id. GET
+     * requests take a single permit, while other requests take all permits and are
+     * thus performed exclusively. When the forge reports that the rate limit is
+     * close to being exhausted, GET requests also become exclusive until the
+     * limit has been replenished.
+     */
+    private static class RequestWindow {
+        private static final int THROTTLE_PERCENTAGE = 10;
+
+        private final int size;
+        private final Semaphore permits;
+        private volatile boolean throttled = false;
+
+        RequestWindow(int size) {
+            this.size = size;
+            this.permits = new Semaphore(size, true);
+        }
+
+        int acquire(boolean exclusive) {
+            var count = exclusive || throttled ? size : 1;
+            while (true) {
+                try {
+                    var acquired = permits.tryAcquire(count, 10, TimeUnit.MINUTES);
+                    if (!acquired) {
+                        throw new RuntimeException("Unable to acquire request permits in 10 minutes");
+                    }
+                    return count;
+                } catch (InterruptedException ignored) {
+                }
+            }
+        }
+
+        void release(int count) {
+            permits.release(count);
+        }
+
+        void update(HttpHeaders headers) {
+            var rateLimit = RateLimit.from(headers);
+            if (rateLimit.isPresent()) {
+                throttled = rateLimit.get().remainingPercentage() < THROTTLE_PERCENTAGE
+                        && rateLimit.get().reset().isAfter(Instant.now());
+            }
+        }
+    }
+
+    /**
+     * The request windows of all authentication ids, all with the same size. A new
+     * instance replaces the current one when the size changes, requests that are
+     * already in flight then complete using the windows they were started with.
+     */
+    private record RequestWindows(int size, ConcurrentHashMap<String, RequestWindow> windows) {
+        RequestWindows(int size) {
+            this(size, new ConcurrentHashMap<>());
+        }
+
+        RequestWindow get(String authId) {
+            return windows.computeIfAbsent(authId, id -> new RequestWindow(size));
+        }
+    }
+
     private static class CachedHttpResponse<T> implements HttpResponse<T> {
         private final HttpResponse<T> original;
         private final HttpResponse<T> fromRequest;
@@ -173,50 +240,144 @@ enum RestRequestCache {
     }
 
     private Duration maxAllowedAge(RequestContext requestContext) {
+        return maxAllowedAge(requestContext.unauthenticatedRequest.uri().toString());
+    }
+
+    private Duration maxAllowedAge(String uri) {
         // Known stable caches can afford a longer timeout - others expire faster
-        if (requestContext.unauthenticatedRequest.uri().toString().contains("github.com")) {
+        if (uri.contains("github.com")) {
             return Duration.ofMinutes(30);
         } else {
             return Duration.ofMinutes(5);
         }
     }
 
+    private void updateCacheMetrics(int evicted) {
+        if (evicted > 0) {
+            cacheEvictionsCounter.inc(evicted);
+        }
+        cachedEntriesGauge.set(cachedResponses.size());
+        cachedBytesGauge.set(cachedResponses.bytes());
+    }
+
+    void setCacheLimits(long maxBytes, int maxEntries) {
+        updateCacheMetrics(cachedResponses.setLimits(maxBytes, maxEntries));
+    }
+
+    void setCacheDirectory(Path directory) {
+        diskCache = directory != null ? new DiskResponseCache(directory) : null;
+    }
+
+    /**
+     * Looks for a response in the in-memory cache, falling back to the disk cache
+     * if one is configured. Responses found on disk are added to the in-memory cache.
+     */
+    private ResponseCache.Entry cachedResponse(RequestContext requestContext) {
+        var cached = cachedResponses.get(requestContext);
+        var disk = diskCache;
+        if (cached != null || disk == null) {
+            return cached;
+        }
+        var stored = disk.load(requestContext.authId, requestContext.unauthenticatedRequest.uri().toString());
+        if (stored.isEmpty()) {
+            return null;
+        }
+        diskCacheLoadsCounter.inc();
+        updateCacheMetrics(cachedResponses.put(requestContext, stored.get().response(), stored.get().callTime()));
+        return cachedResponses.get(requestContext);
+    }
+
+    void setRequestWindow(int size) {
+        if (size < 1) {
+            throw new IllegalArgumentException("Request window must be at least 1: " + size);
+        }
+        requestWindows = new RequestWindows(size);
+    }
+
+    /**
+     * Sends the request once permits have been acquired from the request window.
+     * Updates are performed exclusively, without any other requests in flight. The
+     * permits are released when the exchange completes, even if the calling thread
+     * stops waiting for the response.
+     */
+    private HttpResponse<String> sendInWindow(String authId, boolean isUpdate, HttpRequest request,
+                                              Instant beforeLock, String lockDescription) throws IOException, InterruptedException {
+        var window = requestWindows.get(authId);
+        var count = window.acquire(isUpdate);
+        var beforeCall = Instant.now();
+        if (isUpdate) {
+            lastUpdates.put(authId, beforeCall);
+        }
+        var lockDelay = Duration.between(beforeLock, beforeCall);
+        lockDelayHistogram.labels(request.method()).observe(lockDelay);
+        log.log(Level.FINE, lockDescription + " for " + request.method() + " " + request.uri() + " took " + lockDelay, lockDelay);
+
+        CompletableFuture<HttpResponse<String>> exchange;
+        try {
+            exchange = client.sendAsync(request, HttpResponse.BodyHandlers.ofString());
+        } catch (RuntimeException e) {
+            window.release(count);
+            throw e;
+        }
+        var completed = exchange.whenComplete((r, e) -> window.release(count));
+
+        HttpResponse<String> response;
+        try {
+            response = completed.get();
+        } catch (InterruptedException e) {
+            exchange.cancel(true);
+            throw e;
+        } catch (ExecutionException e) {
+            var cause = e.getCause();
+            if (cause instanceof IOException ioException) {
+                throw ioException;
+            } else if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            } else if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new IOException(cause);
+        }
+        window.update(response.headers());
+
+        var callDuration = Duration.between(beforeCall, Instant.now());
+        callDurationHistogram.labels(request.method()).observe(callDuration);
+        log.log(Level.FINE, "Calling " + request.method() + " " + request.uri().toString() + " took " + callDuration, callDuration);
+        return response;
+    }
+
     HttpResponse<String> send(String authId, HttpRequest.Builder requestBuilder, boolean skipLimiter) throws IOException, InterruptedException {
         if (authId == null) {
             authId = "anonymous";
         }
         var unauthenticatedRequest = requestBuilder.build();
         var requestContext = new RequestContext(authId, unauthenticatedRequest);
-        var authLock = authLocks.computeIfAbsent(authId, id -> new ReentrantLock());
         if (unauthenticatedRequest.method().equals("GET") || skipLimiter) {
-            var cached = cachedResponses.get(requestContext);
+            var cached = cachedResponse(requestContext);
             if (cached != null) {
-                if (Instant.now().minus(maxAllowedAge(requestContext)).isBefore(cached.callTime)) {
-                    var tag = cached.response.headers().firstValue("ETag");
+                if (Instant.now().minus(maxAllowedAge(requestContext)).isBefore(cached.callTime())) {
+                    var tag = cached.response().headers().firstValue("ETag");
                     tag.ifPresent(value -> requestBuilder.header("If-None-Match", value));
                 } else {
                     log.finer("Expired response cache for " + requestContext.unauthenticatedRequest.uri() + " (" + requestContext.authId + ")");
                 }
             }
             var finalRequest = requestBuilder.build();
-            HttpResponse<String> response;
             var beforeLock = Instant.now();
-            try (var ignored = new LockWithTimeout(authLock)) {
-                // Perform requests using a certain account serially
-                var beforeCall = Instant.now();
-                var lockDelay = Duration.between(beforeLock, beforeCall);
-                log.log(Level.FINE, "Taking lock for " + finalRequest.method() + " " + finalRequest.uri() + " took " + lockDelay, lockDelay);
-                response = client.send(finalRequest, HttpResponse.BodyHandlers.ofString());
-                var callDuration = Duration.between(beforeCall, Instant.now());
-                log.log(Level.FINE, "Calling " + finalRequest.method() + " " + finalRequest.uri().toString() + " took " + callDuration, callDuration);
-            }
+            // Limit the number of requests in flight using a certain account
+            var response = sendInWindow(authId, false, finalRequest, beforeLock, "Taking lock");
             if (cached != null && response.statusCode() == 304) {
                 cacheHitsCounter.inc();
                 log.finer("Using cached response for " + finalRequest + " (" + authId + ")");
-                return new CachedHttpResponse<>(cached.response, response);
+                return new CachedHttpResponse<>(cached.response(), response);
             } else {
-                cachedResponses.put(requestContext, new CacheEntry(response, Instant.now()));
-                cachedEntriesGauge.set(cachedResponses.size());
+                cacheMissesCounter.inc();
+                var callTime = Instant.now();
+                updateCacheMetrics(cachedResponses.put(requestContext, response, callTime));
+                var disk = diskCache;
+                if (disk != null && response.statusCode() == 200 && response.headers().firstValue("ETag").isPresent()) {
+                    disk.store(authId, unauthenticatedRequest.uri().toString(), callTime, response);
+                }
                 log.finer("Updating response cache for " + finalRequest + " (" + authId + ")");
                 return response;
             }
@@ -237,26 +398,14 @@ enum RestRequestCache {
                         Thread.currentThread().interrupt();
                     }
                 }
-                try (var ignored2 = new LockWithTimeout(authLock)) {
-                    var beforeCall = Instant.now();
-                    lastUpdates.put(authId, beforeCall);
-                    var lockDelay = Duration.between(beforeLock, beforeCall);
-                    log.log(Level.FINE, "Taking lock and adding required delay for " + finalRequest.method() + " " + finalRequest.uri() + " took " + lockDelay, lockDelay);
-                    var response = client.send(finalRequest, HttpResponse.BodyHandlers.ofString());
-                    var callDuration = Duration.between(beforeCall, Instant.now());
-                    log.log(Level.FINE, "Calling " + finalRequest.method() + " " + finalRequest.uri().toString() + " took " + callDuration, callDuration);
-                    return response;
-                }
+                return sendInWindow(authId, true, finalRequest, beforeLock, "Taking lock and adding required delay");
             } finally {
                 // Invalidate any related GET caches
-                var postUriString = unauthenticatedRequest.uri().toString();
-                var iterator = cachedResponses.entrySet().iterator();
-                while (iterator.hasNext()) {
-                    var entry = iterator.next();
-                    if (entry.getKey().unauthenticatedRequest.uri().toString().startsWith(postUriString)) {
-                        iterator.remove();
-                        cachedEntriesGauge.set(cachedResponses.size());
-                    }
+                cachedResponses.invalidate(unauthenticatedRequest.uri().toString());
+                updateCacheMetrics(0);
+                var disk = diskCache;
+                if (disk != null) {
+                    disk.invalidate(unauthenticatedRequest.uri().toString());
                 }
             }
         }
@@ -267,13 +416,11 @@ enum RestRequestCache {
      */
     public void evictOldData() {
         var now = Instant.now();
-        var iterator = cachedResponses.entrySet().iterator();
-        while (iterator.hasNext()) {
-            var entry = iterator.next();
-            if (entry.getValue().callTime.isBefore(now.minus(maxAllowedAge(entry.getKey())))) {
-                iterator.remove();
-                cachedEntriesGauge.set(cachedResponses.size());
-            }
+        cachedResponses.removeIf((context, entry) -> entry.callTime().isBefore(now.minus(maxAllowedAge(context))));
+        updateCacheMetrics(0);
+        var disk = diskCache;
+        if (disk != null) {
+            disk.removeIf((uri, callTime) -> callTime.isBefore(now.minus(maxAllowedAge(uri))));
         }
     }
 }
@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2024, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.openjdk.skara.network;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DiskResponseCacheTests {
+    @Test
+    void storeAndLoad() throws IOException {
+        var directory = Files.createTempDirectory("disk-cache");
+        var callTime = Instant.ofEpochMilli(Instant.now().toEpochMilli());
+        var cache = new DiskResponseCache(directory);
+        cache.store("user", "https://host/repos/a", callTime, ResponseCacheTests.response("{ \"a\": 1 }"));
+        assertTrue(cache.load("other", "https://host/repos/a").isEmpty());
+
+        // A new instance should find the response stored by the first
+        var restarted = new DiskResponseCache(directory);
+        var stored = restarted.load("user", "https://host/repos/a").orElseThrow();
+        assertEquals("{ \"a\": 1 }", stored.response().body());
+        assertEquals(200, stored.response().statusCode());
+        assertEquals(callTime, stored.callTime());
+        assertTrue(restarted.load("user", "https://host/repos/b").isEmpty());
+    }
+
+    @Test
+    void invalidate() throws IOException {
+        var directory = Files.createTempDirectory("disk-cache");
+        var cache = new DiskResponseCache(directory);
+        cache.store("user", "https://host/repos/a/pulls", Instant.now(), ResponseCacheTests.response("1"));
+        cache.store("user", "https://host/repos/a/pulls/1", Instant.now(), ResponseCacheTests.response("2"));
+        cache.store("user", "https://host/repos/b", Instant.now(), ResponseCacheTests.response("3"));
+
+        var restarted = new DiskResponseCache(directory);
+        restarted.invalidate("https://host/repos/a");
+        assertTrue(restarted.load("user", "https://host/repos/a/pulls").isEmpty());
+        assertTrue(restarted.load("user", "https://host/repos/a/pulls/1").isEmpty());
+        assertTrue(restarted.load("user", "https://host/repos/b").isPresent());
+    }
+
+    @Test
+    void removeOld() throws IOException {
+        var directory = Files.createTempDirectory("disk-cache");
+        var cache = new DiskResponseCache(directory);
+        var now = Instant.now();
+        cache.store("user", "https://host/old", now.minus(Duration.ofHours(1)), ResponseCacheTests.response("1"));
+        cache.store("user", "https://host/new", now, ResponseCacheTests.response("2"));
+
+        cache.removeIf((uri, callTime) -> callTime.isBefore(now.minus(Duration.ofMinutes(30))));
+        assertTrue(cache.load("user", "https://host/old").isEmpty());
+        assertTrue(cache.load("user", "https://host/new").isPresent());
+        try (var files = Files.list(directory)) {
+            assertEquals(1, files.count());
+        }
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright (c) 2024, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.openjdk.skara.network;
+
+import org.junit.jupiter.api.Test;
+
+import javax.net.ssl.SSLSession;
+import java.net.URI;
+import java.net.http.*;
+import java.time.Instant;
+import java.util.*;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResponseCacheTests {
+    static HttpResponse<String> response(String body) {
+        return new HttpResponse<>() {
+            @Override
+            public int statusCode() {
+                return 200;
+            }
+
+            @Override
+            public HttpRequest request() {
+                return null;
+            }
+
+            @Override
+            public Optional<HttpResponse<String>> previousResponse() {
+                return Optional.empty();
+            }
+
+            @Override
+            public HttpHeaders headers() {
+                return HttpHeaders.of(Map.of(), (a, b) -> true);
+            }
+
+            @Override
+            public String body() {
+                return body;
+            }
+
+            @Override
+            public Optional<SSLSession> sslSession() {
+                return Optional.empty();
+            }
+
+            @Override
+            public URI uri() {
+                return null;
+            }
+
+            @Override
+            public HttpClient.Version version() {
+                return HttpClient.Version.HTTP_1_1;
+            }
+        };
+    }
+
+    @Test
+    void evictLeastRecentlyUsedEntry() {
+        var cache = new ResponseCache<String>(Function.identity(), Long.MAX_VALUE, 2);
+        assertEquals(0, cache.put("/a", response("a"), Instant.now()));
+        assertEquals(0, cache.put("/b", response("b"), Instant.now()));
+        assertNotNull(cache.get("/a"));
+        assertEquals(1, cache.put("/c", response("c"), Instant.now()));
+
+        assertNotNull(cache.get("/a"));
+        assertNull(cache.get("/b"));
+        assertNotNull(cache.get("/c"));
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    void evictOnByteLimit() {
+        var body = "x".repeat(1000);
+        var entrySize = ResponseCache.estimateSize(response(body));
+        var cache = new ResponseCache<String>(Function.identity(), entrySize * 3, Integer.MAX_VALUE);
+        for (int i = 0; i < 5; ++i) {
+            cache.put("/" + i, response(body), Instant.now());
+        }
+        assertEquals(3, cache.size());
+        assertEquals(entrySize * 3, cache.bytes());
+        assertNull(cache.get("/1"));
+        assertNotNull(cache.get("/2"));
+
+        assertEquals(2, cache.setLimits(entrySize, Integer.MAX_VALUE));
+        assertEquals(1, cache.size());
+        assertEquals(entrySize, cache.bytes());
+    }
+
+    @Test
+    void replaceEntry() {
+        var cache = new ResponseCache<String>(Function.identity(), Long.MAX_VALUE, Integer.MAX_VALUE);
+        cache.put("/a", response("a"), Instant.now());
+        cache.put("/a", response("aaaa"), Instant.now());
+        assertEquals(1, cache.size());
+        assertEquals(ResponseCache.estimateSize(response("aaaa")), cache.bytes());
+        assertEquals("aaaa", cache.get("/a").response().body());
+    }
+
+    @Test
+    void invalidatePrefix() {
+        var cache = new ResponseCache<String>(Function.identity(), Long.MAX_VALUE, Integer.MAX_VALUE);
+        cache.put("/repos/a/pulls", response("1"), Instant.now());
+        cache.put("/repos/a/pulls/1", response("2"), Instant.now());
+        cache.put("/repos/a/issues", response("3"), Instant.now());
+        cache.put("/repos/ab", response("4"), Instant.now());
+
+        assertEquals(2, cache.invalidate("/repos/a/pulls"));
+        assertNull(cache.get("/repos/a/pulls"));
+        assertNull(cache.get("/repos/a/pulls/1"));
+        assertNotNull(cache.get("/repos/a/issues"));
+        assertNotNull(cache.get("/repos/ab"));
+        assertEquals(0, cache.invalidate("/repos/a/pulls"));
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    void removeIf() {
+        var cache = new ResponseCache<String>(Function.identity(), Long.MAX_VALUE, Integer.MAX_VALUE);
+        var old = Instant.now().minusSeconds(3600);
+        cache.put("/old", response("1"), old);
+        cache.put("/new", response("2"), Instant.now());
+        assertEquals(1, cache.removeIf((key, entry) -> entry.callTime().equals(old)));
+        assertNull(cache.get("/old"));
+        assertEquals(1, cache.size());
+        assertEquals(0, cache.invalidate("/old"));
+    }
+}
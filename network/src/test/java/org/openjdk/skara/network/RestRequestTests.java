@@ -29,23 +29,32 @@ import org.junit.jupiter.api.Test;
 
 import java.io.*;
 import java.net.*;
+import java.net.http.HttpHeaders;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.security.*;
-import java.time.Duration;
+import java.time.*;
 import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.*;
 
 import static org.junit.jupiter.api.Assertions.*;
 
 class RestReceiver implements AutoCloseable {
     private final HttpServer server;
-    private final List<JSONObject> requests = new ArrayList<>();
-    private final List<String> rawRequests = new ArrayList<>();
-    private List<String> responses;
-    private int responseCode;
-
-    private int truncatedResponseCount = 0;
-    private boolean usedCache = false;
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final List<JSONObject> requests = Collections.synchronizedList(new ArrayList<>());
+    private final List<String> rawRequests = Collections.synchronizedList(new ArrayList<>());
+    private volatile List<String> responses;
+    private volatile int responseCode;
+
+    private volatile int truncatedResponseCount = 0;
+    private volatile boolean usedCache = false;
+    private volatile Duration responseDelay = Duration.ZERO;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlightDuringUpdate = new AtomicInteger();
 
     class Handler implements HttpHandler {
         private String checksum(String body) {
@@ -60,6 +69,23 @@ class RestReceiver implements AutoCloseable {
 
         @Override
         public void handle(HttpExchange exchange) throws IOException {
+            // Requests are no longer in flight once the response headers are sent, as the
+            // client may then complete the exchange and start another request
+            var current = inFlight.incrementAndGet();
+            try {
+                maxInFlight.accumulateAndGet(current, Math::max);
+                if (!responseDelay.isZero()) {
+                    Thread.sleep(responseDelay.toMillis());
+                }
+                if (!exchange.getRequestMethod().equals("GET")) {
+                    maxInFlightDuringUpdate.accumulateAndGet(Math.max(current, inFlight.get()), Math::max);
+                }
+            } catch (InterruptedException e) {
+                throw new IOException(e);
+            } finally {
+                inFlight.decrementAndGet();
+            }
+
             var input = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
             if (input.isBlank()) {
                 requests.add(JSON.object());
@@ -115,7 +141,7 @@ class RestReceiver implements AutoCloseable {
         InetSocketAddress address = new InetSocketAddress(InetAddress.getLoopbackAddress(), 0);
         var server = HttpServer.create(address, 0);
         server.createContext("/test", new Handler());
-        server.setExecutor(null);
+        server.setExecutor(executor);
         server.start();
         return server;
     }
@@ -157,6 +183,18 @@ class RestReceiver implements AutoCloseable {
         return usedCache;
     }
 
+    void setResponseDelay(Duration delay) {
+        responseDelay = delay;
+    }
+
+    int maxInFlight() {
+        return maxInFlight.get();
+    }
+
+    int maxInFlightDuringUpdate() {
+        return maxInFlightDuringUpdate.get();
+    }
+
     void addPage(String responsePage) {
         this.responses = Stream.concat(responses.stream(), List.of(responsePage).stream())
                                .collect(Collectors.toList());
@@ -165,6 +203,7 @@ class RestReceiver implements AutoCloseable {
     @Override
     public void close() {
         server.stop(0);
+        executor.shutdownNow();
     }
 }
 
@@ -279,6 +318,75 @@ class RestRequestTests {
         }
     }
 
+    @Test
+    void requestWindow() throws Exception {
+        try (var receiver = new RestReceiver()) {
+            RestRequest.setRequestWindow(4);
+            receiver.setResponseDelay(Duration.ofMillis(50));
+            var executor = Executors.newFixedThreadPool(16);
+            try {
+                var results = new ArrayList<Future<JSONValue>>();
+                for (int i = 0; i < 16; ++i) {
+                    var request = new RestRequest(receiver.getEndpoint(), "window", null);
+                    results.add(executor.submit(() -> request.get("/test").execute()));
+                    if (i == 8) {
+                        results.add(executor.submit(() -> request.post("/test").execute()));
+                    }
+                }
+                for (var result : results) {
+                    assertEquals(JSON.object(), result.get());
+                }
+                assertTrue(receiver.maxInFlight() <= 4, "In flight: " + receiver.maxInFlight());
+                assertEquals(1, receiver.maxInFlightDuringUpdate());
+            } finally {
+                executor.shutdown();
+                RestRequest.setRequestWindow(1);
+            }
+        }
+    }
+
+    @Test
+    void rateLimit() {
+        var headers = HttpHeaders.of(Map.of("x-ratelimit-limit", List.of("5000"),
+                                                          "x-ratelimit-remaining", List.of("250"),
+                                                          "x-ratelimit-reset", List.of("1700000000")),
+                                                   (a, b) -> true);
+        var rateLimit = RateLimit.from(headers).orElseThrow();
+        assertEquals(5000, rateLimit.limit());
+        assertEquals(250, rateLimit.remaining());
+        assertEquals(5, rateLimit.remainingPercentage());
+        assertEquals(Instant.ofEpochSecond(1700000000), rateLimit.reset());
+
+        var missing = HttpHeaders.of(Map.of("x-ratelimit-limit", List.of("5000")), (a, b) -> true);
+        assertTrue(RateLimit.from(missing).isEmpty());
+    }
+
+    @Test
+    void cachedOnDisk() throws IOException {
+        var cacheDirectory = Files.createTempDirectory("rest-cache");
+        try (var receiver = new RestReceiver()) {
+            RestRequest.setCacheDirectory(cacheDirectory);
+            var request = new RestRequest(receiver.getEndpoint(), "disk", null);
+            request.get("/test").execute();
+            assertFalse(receiver.usedCached());
+
+            // Drop all in-memory entries, the ETag should still be known from disk
+            RestRequest.setCacheLimits(0, 0);
+            RestRequest.setCacheLimits(RestRequestCache.DEFAULT_CACHE_MAX_BYTES, RestRequestCache.DEFAULT_CACHE_MAX_ENTRIES);
+            request.get("/test").execute();
+            assertTrue(receiver.usedCached());
+
+            // Updates invalidate the stored responses as well
+            request.post("/test").execute();
+            RestRequest.setCacheLimits(0, 0);
+            RestRequest.setCacheLimits(RestRequestCache.DEFAULT_CACHE_MAX_BYTES, RestRequestCache.DEFAULT_CACHE_MAX_ENTRIES);
+            request.get("/test").execute();
+            assertFalse(receiver.usedCached());
+        } finally {
+            RestRequest.setCacheDirectory(null);
+        }
+    }
+
     @Test
     void cacheFlush() throws IOException {
         try (var receiver = new RestReceiver()) {
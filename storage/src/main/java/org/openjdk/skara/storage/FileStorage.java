@@ -26,7 +26,7 @@ import java.io.*;
 import java.nio.file.*;
 import java.util.*;
 
-class FileStorage<T> implements Storage<T> {
+class FileStorage<T> implements LocalStorage<T> {
     private final Path file;
     private String old;
     private String current;
@@ -57,10 +57,11 @@ class FileStorage<T> implements Storage<T> {
     }
 
     @Override
-    public void put(Collection<T> items) {
-        var updated = serializer.serialize(items, current());
+    public boolean update(Collection<T> items) {
+        var previous = current();
+        var updated = serializer.serialize(items, previous);
         if (current.equals(updated)) {
-            return;
+            return false;
         }
         try {
             Files.createDirectories(file.getParent());
@@ -72,5 +73,6 @@ class FileStorage<T> implements Storage<T> {
             throw new UncheckedIOException(e);
         }
         current = updated;
+        return !previous.equals(current());
     }
 }
@@ -28,6 +28,7 @@ import org.openjdk.skara.vcs.*;
 import java.io.*;
 import java.nio.file.*;
 import java.util.*;
+import java.util.function.Function;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -38,27 +39,36 @@ class HostedRepositoryStorage<T> implements Storage<T> {
     private final String authorName;
     private final String authorEmail;
     private final String message;
-    private final StorageSerializer<T> serializer;
-    private final StorageDeserializer<T> deserializer;
+    private final Function<Path, LocalStorage<T>> localStorage;
     private final Repository localRepository;
 
     private RepositoryStorage<T> repositoryStorage;
-    private Set<T> current;
+    private Hash pushed;
+    private int openBatches = 0;
+    private Batch localBatch;
+    private final List<Collection<T>> batched = new ArrayList<>();
     private final static Logger log = Logger.getLogger("org.openjdk.skara.storage");
 
     HostedRepositoryStorage(HostedRepository repository, Path localStorage, String ref, String fileName, String authorName, String authorEmail, String message, StorageSerializer<T> serializer, StorageDeserializer<T> deserializer) {
+        this(repository, localStorage, ref, fileName, authorName, authorEmail, message, file -> new FileStorage<>(file, serializer, deserializer));
+    }
+
+    HostedRepositoryStorage(HostedRepository repository, Path localStorage, String ref, String fileName, String authorName, String authorEmail, String message, Function<Path, LocalStorage<T>> fileStorage) {
         this.hostedRepository = repository;
         this.ref = ref;
         this.fileName = fileName;
         this.authorEmail = authorEmail;
         this.authorName = authorName;
         this.message = message;
-        this.serializer = serializer;
-        this.deserializer = deserializer;
+        this.localStorage = fileStorage;
 
         localRepository = tryMaterialize(repository, localStorage, ref, fileName, authorName, authorEmail, message);
-        repositoryStorage = new RepositoryStorage<>(localRepository, fileName, authorName, authorEmail, message, serializer, deserializer);
-        current = current();
+        repositoryStorage = new RepositoryStorage<>(localRepository, fileName, authorName, authorEmail, message, fileStorage);
+        try {
+            pushed = localRepository.head();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
     }
 
     private static Repository tryMaterialize(HostedRepository repository, Path localStorage, String ref, String fileName, String authorName, String authorEmail, String message) {
@@ -99,6 +109,10 @@ class HostedRepositoryStorage<T> implements Storage<T> {
         throw new UncheckedIOException("Retry count exceeded", lastException);
     }
 
+    LocalStorage<T> localStorage() {
+        return repositoryStorage.localStorage();
+    }
+
     @Override
     public Set<T> current() {
         return repositoryStorage.current();
@@ -106,23 +120,84 @@ class HostedRepositoryStorage<T> implements Storage<T> {
 
     @Override
     public void put(Collection<T> items) {
+        if (openBatches > 0) {
+            // Only update the local storage, the items are pushed when the batch is closed
+            repositoryStorage.put(items);
+            batched.add(items);
+            return;
+        }
+        update(List.of(items));
+    }
+
+    @Override
+    public Batch batch() {
+        if (openBatches == 0) {
+            localBatch = repositoryStorage.batch();
+        }
+        openBatches++;
+        return new Batch() {
+            private boolean closed = false;
+
+            @Override
+            public void flush() {
+                if (closed) {
+                    return;
+                }
+                flushBatched();
+                // The local storage may have been replaced while catching up with the remote
+                localBatch = repositoryStorage.batch();
+            }
+
+            @Override
+            public void close() {
+                if (closed) {
+                    return;
+                }
+                closed = true;
+                openBatches--;
+                if (openBatches == 0) {
+                    flushBatched();
+                    localBatch = null;
+                }
+            }
+        };
+    }
+
+    private void flushBatched() {
+        var updates = List.copyOf(batched);
+        batched.clear();
+        localBatch.close();
+        if (!updates.isEmpty()) {
+            update(updates);
+        }
+    }
+
+    private void update(List<Collection<T>> updates) {
         int retryCount = 0;
         IOException lastException = null;
         Hash lastRemoteHash = null;
 
         while (retryCount < 10) {
-            // Update our local storage
-            repositoryStorage.put(items);
-            var updated = repositoryStorage.current();
-            if (current.equals(updated)) {
+            // Update our local storage, replaying all updates if the remote has changed
+            try (var batch = repositoryStorage.batch()) {
+                for (var items : updates) {
+                    repositoryStorage.put(items);
+                }
+            }
+            Hash updatedHash;
+            try {
+                updatedHash = localRepository.head();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            if (pushed.equals(updatedHash)) {
                 return;
             }
 
             // The local storage has changed, try to push it to the remote
             try {
-                var updatedHash = localRepository.head();
                 localRepository.push(updatedHash, hostedRepository.authenticatedUrl(), ref);
-                current = updated;
+                pushed = updatedHash;
                 return;
             } catch (IOException e) {
                 lastException = e;
@@ -132,7 +207,7 @@ class HostedRepositoryStorage<T> implements Storage<T> {
                     var remoteHash = localRepository.fetch(hostedRepository.authenticatedUrl(), ref).orElseThrow();
                     if (!remoteHash.equals(lastRemoteHash)) {
                         localRepository.checkout(remoteHash, true);
-                        repositoryStorage = new RepositoryStorage<>(localRepository, fileName, authorName, authorEmail, message, serializer, deserializer);
+                        repositoryStorage = new RepositoryStorage<>(localRepository, fileName, authorName, authorEmail, message, localStorage);
                         lastRemoteHash = remoteHash;
 
                         // We are making progress catching up with remote changes, don't update the retryCount
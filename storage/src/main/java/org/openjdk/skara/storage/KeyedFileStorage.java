@@ -0,0 +1,203 @@
+/*
+ * Copyright (c) 2024, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.openjdk.skara.storage;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * Stores items as an append-only log of records, one per line, consisting of the key and
+ * the value separated by a tab. Updating items only appends the changed records, and the
+ * last record for a key wins. Once most of the records have been superseded, the file is
+ * rewritten with a single record per key, sorted by key. Values are only parsed when the
+ * corresponding items are requested.
+ * <p>
+ * A file that was written in another format, recognized by its first line not being a
+ * record, can be read with a deserializer for that format. It is then rewritten as
+ * records on the first update.
+ */
+class KeyedFileStorage<T> implements KeyedStorage<T>, LocalStorage<T> {
+    // Do not bother compacting small files
+    private static final int COMPACTION_THRESHOLD = 128;
+
+    private final Path file;
+    private final StorageRecordFormat<T> format;
+    private final StorageDeserializer<T> legacyDeserializer;
+    private final Map<String, T> parsed = new HashMap<>();
+
+    private TreeMap<String, String> values;
+    private int records;
+    private boolean legacy;
+    private Set<T> current;
+
+    KeyedFileStorage(Path file, StorageRecordFormat<T> format) {
+        this(file, format, null);
+    }
+
+    KeyedFileStorage(Path file, StorageRecordFormat<T> format, StorageDeserializer<T> legacyDeserializer) {
+        this.file = file;
+        this.format = format;
+        this.legacyDeserializer = legacyDeserializer;
+    }
+
+    private void load() {
+        if (values != null) {
+            return;
+        }
+        values = new TreeMap<>();
+        records = 0;
+        legacy = false;
+        if (!Files.exists(file)) {
+            return;
+        }
+        if (legacyDeserializer != null && loadLegacy()) {
+            return;
+        }
+        try (var reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                var separator = line.indexOf('\t');
+                if (separator == -1) {
+                    continue;
+                }
+                values.put(line.substring(0, separator), line.substring(separator + 1));
+                records++;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private boolean loadLegacy() {
+        String content;
+        try {
+            content = Files.readString(file, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        var firstLine = content.lines().findFirst();
+        if (firstLine.isEmpty() || firstLine.get().indexOf('\t') != -1) {
+            return false;
+        }
+        for (var item : legacyDeserializer.deserialize(content)) {
+            values.put(format.key(item), format.value(item));
+        }
+        records = values.size();
+        legacy = true;
+        return true;
+    }
+
+    private T parse(String key) {
+        return parsed.computeIfAbsent(key, k -> format.parse(k, values.get(k)));
+    }
+
+    @Override
+    public Set<T> current() {
+        load();
+        if (current == null) {
+            var items = new HashSet<T>();
+            for (var key : values.keySet()) {
+                items.add(parse(key));
+            }
+            current = Collections.unmodifiableSet(items);
+        }
+        return current;
+    }
+
+    @Override
+    public Optional<T> get(String key) {
+        load();
+        if (!values.containsKey(key)) {
+            return Optional.empty();
+        }
+        return Optional.of(parse(key));
+    }
+
+    @Override
+    public boolean update(Collection<T> items) {
+        load();
+        var changed = new LinkedHashMap<String, String>();
+        for (var item : items) {
+            var key = format.key(item);
+            var value = format.value(item);
+            if (key.isEmpty() || key.indexOf('\t') != -1 || key.indexOf('\n') != -1 || key.indexOf('\r') != -1) {
+                throw new IllegalArgumentException("Invalid storage key: " + key);
+            }
+            if (value.indexOf('\n') != -1 || value.indexOf('\r') != -1) {
+                throw new IllegalArgumentException("Invalid storage value for key " + key + ": " + value);
+            }
+            changed.put(key, value);
+        }
+        changed.entrySet().removeIf(entry -> entry.getValue().equals(values.get(entry.getKey())));
+        if (changed.isEmpty()) {
+            return false;
+        }
+        if (legacy) {
+            // Records cannot be appended to a file in another format
+            values.putAll(changed);
+            compact();
+            legacy = false;
+        } else {
+            var appended = new StringBuilder();
+            for (var entry : changed.entrySet()) {
+                appended.append(entry.getKey()).append('\t').append(entry.getValue()).append('\n');
+            }
+            try {
+                Files.createDirectories(file.getParent());
+                Files.writeString(file, appended, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            values.putAll(changed);
+            records += changed.size();
+        }
+        parsed.keySet().removeAll(changed.keySet());
+        current = null;
+
+        if (records >= COMPACTION_THRESHOLD && records > 2 * values.size()) {
+            compact();
+        }
+        return true;
+    }
+
+    private void compact() {
+        var compacted = new StringBuilder();
+        for (var entry : values.entrySet()) {
+            compacted.append(entry.getKey()).append('\t').append(entry.getValue()).append('\n');
+        }
+        try {
+            var tmp = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+            try {
+                Files.writeString(tmp, compacted, StandardCharsets.UTF_8);
+                Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(tmp);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        records = values.size();
+    }
+}
@@ -0,0 +1,40 @@
+/*
+ * Copyright (c) 2024, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.openjdk.skara.storage;
+
+import org.openjdk.skara.forge.HostedRepository;
+
+import java.nio.file.Path;
+import java.util.Optional;
+
+class KeyedHostedRepositoryStorage<T> extends HostedRepositoryStorage<T> implements KeyedStorage<T> {
+    KeyedHostedRepositoryStorage(HostedRepository repository, Path localStorage, String ref, String fileName, String authorName, String authorEmail, String message, StorageRecordFormat<T> format, StorageDeserializer<T> legacyDeserializer) {
+        super(repository, localStorage, ref, fileName, authorName, authorEmail, message, file -> new KeyedFileStorage<>(file, format, legacyDeserializer));
+    }
+
+    @Override
+    public Optional<T> get(String key) {
+        // The local storage is always created as a KeyedFileStorage by the constructor
+        return ((KeyedFileStorage<T>) localStorage()).get(key);
+    }
+}
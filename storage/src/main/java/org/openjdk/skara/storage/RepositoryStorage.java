@@ -25,8 +25,9 @@ package org.openjdk.skara.storage;
 import org.openjdk.skara.vcs.Repository;
 
 import java.io.*;
-import java.nio.file.Files;
+import java.nio.file.*;
 import java.util.*;
+import java.util.function.Function;
 
 class RepositoryStorage<T> implements Storage<T> {
     private final Repository repository;
@@ -34,11 +35,17 @@ class RepositoryStorage<T> implements Storage<T> {
     private final String authorName;
     private final String authorEmail;
     private final String message;
-    private final FileStorage<T> fileStorage;
+    private final LocalStorage<T> fileStorage;
 
-    private Set<T> current;
+    private int openBatches = 0;
+    private boolean uncommitted = false;
+    private String committed;
 
     RepositoryStorage(Repository repository, String fileName, String authorName, String authorEmail, String message, StorageSerializer<T> serializer, StorageDeserializer<T> deserializer) {
+        this(repository, fileName, authorName, authorEmail, message, file -> new FileStorage<>(file, serializer, deserializer));
+    }
+
+    RepositoryStorage(Repository repository, String fileName, String authorName, String authorEmail, String message, Function<Path, LocalStorage<T>> localStorage) {
         this.repository = repository;
         this.fileName = fileName;
         this.authorEmail = authorEmail;
@@ -54,13 +61,18 @@ class RepositoryStorage<T> implements Storage<T> {
         }
 
         try {
-            fileStorage = new FileStorage<>(repository.root().resolve(fileName), serializer, deserializer);
-            current = current();
+            var filePath = repository.root().resolve(fileName);
+            fileStorage = localStorage.apply(filePath);
+            committed = Files.exists(filePath) ? Files.readString(filePath) : null;
         } catch (IOException e) {
             throw new UncheckedIOException(e);
         }
     }
 
+    LocalStorage<T> localStorage() {
+        return fileStorage;
+    }
+
     @Override
     public Set<T> current() {
         return fileStorage.current();
@@ -68,22 +80,62 @@ class RepositoryStorage<T> implements Storage<T> {
 
     @Override
     public void put(Collection<T> items) {
-        fileStorage.put(items);
-        var updated = current();
-        if (current.equals(updated)) {
+        if (!fileStorage.update(items)) {
             return;
         }
-        current = updated;
+        if (openBatches > 0) {
+            uncommitted = true;
+            return;
+        }
+        commit();
+    }
+
+    private void commit() {
         try {
             var filePath = repository.root().resolve(fileName);
+            var content = Files.readString(filePath);
+            // Updates within a batch may have ended up restoring the committed content
+            if (content.equals(committed)) {
+                return;
+            }
             repository.add(filePath);
             repository.commit(message, authorName, authorEmail);
+            committed = content;
 
-            if (Files.size(filePath) == 0) {
+            if (content.isEmpty()) {
                 throw new IllegalStateException("Storage file is empty: " + filePath);
             }
         } catch (IOException e) {
             throw new UncheckedIOException(e);
         }
     }
+
+    @Override
+    public Batch batch() {
+        openBatches++;
+        return new Batch() {
+            private boolean closed = false;
+
+            @Override
+            public void flush() {
+                if (!closed && uncommitted) {
+                    uncommitted = false;
+                    commit();
+                }
+            }
+
+            @Override
+            public void close() {
+                if (closed) {
+                    return;
+                }
+                closed = true;
+                openBatches--;
+                if (openBatches == 0 && uncommitted) {
+                    uncommitted = false;
+                    commit();
+                }
+            }
+        };
+    }
 }
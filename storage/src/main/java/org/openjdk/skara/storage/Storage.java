@@ -43,4 +43,36 @@ public interface Storage<T> {
     default void put(T item) {
         put(List.of(item));
     }
+
+    /**
+     * A group of put operations that are flushed to permanent storage together.
+     */
+    interface Batch extends AutoCloseable {
+        /**
+         * Flushes all items put so far to permanent storage, and keeps the batch open
+         * for further put operations. Used when an update must be stored before acting
+         * on it.
+         */
+        default void flush() {
+        }
+
+        /**
+         * Flushes all items put since the batch was started, unless an enclosing batch
+         * is still open.
+         */
+        @Override
+        void close();
+    }
+
+    /**
+     * Starts a batch of put operations. Until the returned batch is closed, put only
+     * updates the current set of items, and all changes are then flushed to permanent
+     * storage at once. Batches may be nested, in which case the changes are flushed
+     * when the outermost batch is closed. Storage implementations that do not benefit
+     * from batching flush on every put as usual.
+     * @return the batch, which must be closed to flush the changes
+     */
+    default Batch batch() {
+        return () -> {};
+    }
 }
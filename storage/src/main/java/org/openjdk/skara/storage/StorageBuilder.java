@@ -36,6 +36,7 @@ public class StorageBuilder<T> {
     private String remoteMessage;
     private StorageSerializer<T> serializer;
     private StorageDeserializer<T> deserializer;
+    private StorageRecordFormat<T> recordFormat;
 
     /**
      * Create a StorageBuilder instance that will use the given fileName to store data.
@@ -66,6 +67,19 @@ public class StorageBuilder<T> {
         return this;
     }
 
+    /**
+     * Store the items as keyed records, see {@link KeyedStorage}. The record format is used
+     * instead of the serializer. If a deserializer is set as well, it is used to read an
+     * existing file in the serialized format, which is then rewritten as records on the
+     * first update.
+     * @param recordFormat
+     * @return
+     */
+    public StorageBuilder<T> recordFormat(StorageRecordFormat<T> recordFormat) {
+        this.recordFormat = recordFormat;
+        return this;
+    }
+
     /**
      * Attach a remote repository to the Storage where any changes will be added as commits.
      * @param repository
@@ -93,10 +107,29 @@ public class StorageBuilder<T> {
      * @return
      */
     public Storage<T> materialize(Path localFolder) {
+        if (recordFormat != null) {
+            return materializeKeyed(localFolder);
+        }
         if (remoteRepository != null) {
             return new HostedRepositoryStorage<>(remoteRepository, localFolder, remoteRef, fileName, remoteAuthorName, remoteAuthorEmail, remoteMessage, serializer, deserializer);
         } else {
             return new FileStorage<>(localFolder.resolve(fileName), serializer, deserializer);
         }
     }
+
+    /**
+     * Create a KeyedStorage instance. A record format must have been set.
+     * @param localFolder
+     * @return
+     */
+    public KeyedStorage<T> materializeKeyed(Path localFolder) {
+        if (recordFormat == null) {
+            throw new IllegalStateException("No record format set for " + fileName);
+        }
+        if (remoteRepository != null) {
+            return new KeyedHostedRepositoryStorage<>(remoteRepository, localFolder, remoteRef, fileName, remoteAuthorName, remoteAuthorEmail, remoteMessage, recordFormat, deserializer);
+        } else {
+            return new KeyedFileStorage<>(localFolder.resolve(fileName), recordFormat, deserializer);
+        }
+    }
 }
@@ -62,4 +62,90 @@ public class HostedRepositoryStorageTests {
                                                                                      "Updated storage", this::serializer, this::deserializer));
         }
     }
+
+    @Test
+    void batched(TestInfo testInfo) throws IOException {
+        try (var credentials = new HostCredentials(testInfo);
+                var tempFolder = new TemporaryDirectory()) {
+            var repo = credentials.getHostedRepository();
+            var storage = new HostedRepositoryStorage<>(repo, tempFolder.path().resolve("first"), "master", "test.txt",
+                                                        "duke", "duke@openjdk.java.org",
+                                                        "Updated storage", this::serializer, this::deserializer);
+            var otherStorage = new HostedRepositoryStorage<>(repo, tempFolder.path().resolve("second"), "master", "test.txt",
+                                                             "duke", "duke@openjdk.java.org",
+                                                             "Updated storage", this::serializer, this::deserializer);
+            var initial = repo.branchHash("master").orElseThrow();
+            try (var batch = storage.batch()) {
+                storage.put(List.of("a"));
+                storage.put(List.of("b"));
+                assertEquals(Set.of("a", "b"), storage.current());
+                assertEquals(initial, repo.branchHash("master").orElseThrow());
+
+                // Concurrent update from another instance
+                otherStorage.put(List.of("c"));
+            }
+
+            // The batched items are replayed on top of the concurrent update
+            var materialized = new HostedRepositoryStorage<>(repo, tempFolder.path().resolve("third"), "master", "test.txt",
+                                                             "duke", "duke@openjdk.java.org",
+                                                             "Updated storage", this::serializer, this::deserializer);
+            assertEquals(Set.of("a", "b", "c"), materialized.current());
+
+            // Flushing pushes the items put so far and keeps the batch open
+            var beforeFlush = repo.branchHash("master").orElseThrow();
+            try (var batch = storage.batch()) {
+                storage.put(List.of("d"));
+                batch.flush();
+                var flushed = repo.branchHash("master").orElseThrow();
+                assertNotEquals(beforeFlush, flushed);
+                storage.put(List.of("e"));
+                assertEquals(flushed, repo.branchHash("master").orElseThrow());
+            }
+            var updated = new HostedRepositoryStorage<>(repo, tempFolder.path().resolve("fourth"), "master", "test.txt",
+                                                        "duke", "duke@openjdk.java.org",
+                                                        "Updated storage", this::serializer, this::deserializer);
+            assertEquals(Set.of("a", "b", "c", "d", "e"), updated.current());
+        }
+    }
+
+    @Test
+    void keyed(TestInfo testInfo) throws IOException {
+        try (var credentials = new HostCredentials(testInfo);
+                var tempFolder = new TemporaryDirectory()) {
+            var repo = credentials.getHostedRepository();
+            var format = new StorageRecordFormat<String>() {
+                @Override
+                public String key(String item) {
+                    return item.split("=")[0];
+                }
+
+                @Override
+                public String value(String item) {
+                    return item.split("=")[1];
+                }
+
+                @Override
+                public String parse(String key, String value) {
+                    return key + "=" + value;
+                }
+            };
+            var storage = new KeyedHostedRepositoryStorage<>(repo, tempFolder.path().resolve("first"), "master", "test.txt",
+                                                             "duke", "duke@openjdk.java.org", "Updated storage", format, null);
+            storage.put(List.of("a=1", "b=1"));
+            var pushed = repo.branchHash("master").orElseThrow();
+
+            // Storing an unchanged value does not push anything
+            storage.put("b=1");
+            assertEquals(pushed, repo.branchHash("master").orElseThrow());
+            storage.put("b=2");
+            assertNotEquals(pushed, repo.branchHash("master").orElseThrow());
+            assertEquals(Optional.of("b=2"), storage.get("b"));
+            assertEquals(Set.of("a=1", "b=2"), storage.current());
+
+            var otherStorage = new KeyedHostedRepositoryStorage<>(repo, tempFolder.path().resolve("second"), "master", "test.txt",
+                                                                  "duke", "duke@openjdk.java.org", "Updated storage", format, null);
+            assertEquals(Optional.of("b=2"), otherStorage.get("b"));
+            assertEquals(Optional.empty(), otherStorage.get("c"));
+        }
+    }
 }
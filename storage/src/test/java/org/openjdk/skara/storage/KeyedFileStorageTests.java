@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) 2024, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.openjdk.skara.storage;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.*;
+import java.util.stream.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KeyedFileStorageTests {
+    record Entry(String name, int count) {
+    }
+
+    private final StorageRecordFormat<Entry> format = new StorageRecordFormat<>() {
+        @Override
+        public String key(Entry item) {
+            return item.name();
+        }
+
+        @Override
+        public String value(Entry item) {
+            return Integer.toString(item.count());
+        }
+
+        @Override
+        public Entry parse(String key, String value) {
+            return new Entry(key, Integer.parseInt(value));
+        }
+    };
+
+    @Test
+    void simple() throws IOException {
+        var tmpDir = Files.createTempDirectory("keyedfilestorage");
+        var storage = new KeyedFileStorage<>(tmpDir.resolve("db.txt"), format);
+
+        assertEquals(Set.of(), storage.current());
+        assertEquals(Optional.empty(), storage.get("a"));
+        storage.put(new Entry("a", 1));
+        assertEquals(Set.of(new Entry("a", 1)), storage.current());
+        assertEquals(Optional.of(new Entry("a", 1)), storage.get("a"));
+    }
+
+    @Test
+    void replaced() throws IOException {
+        var tmpDir = Files.createTempDirectory("keyedfilestorage");
+        var file = tmpDir.resolve("db.txt");
+        var storage = new KeyedFileStorage<>(file, format);
+
+        storage.put(List.of(new Entry("a", 1), new Entry("b", 1)));
+        assertTrue(storage.update(List.of(new Entry("a", 2))));
+        assertFalse(storage.update(List.of(new Entry("b", 1))));
+        assertEquals(Set.of(new Entry("a", 2), new Entry("b", 1)), storage.current());
+
+        // Only the changed record is appended
+        assertEquals(List.of("a\t1", "b\t1", "a\t2"), Files.readAllLines(file));
+
+        var newStorage = new KeyedFileStorage<>(file, format);
+        assertEquals(Optional.of(new Entry("a", 2)), newStorage.get("a"));
+        assertEquals(Set.of(new Entry("a", 2), new Entry("b", 1)), newStorage.current());
+    }
+
+    @Test
+    void compacted() throws IOException {
+        var tmpDir = Files.createTempDirectory("keyedfilestorage");
+        var file = tmpDir.resolve("db.txt");
+        var storage = new KeyedFileStorage<>(file, format);
+
+        for (int i = 0; i < 1000; ++i) {
+            storage.put(List.of(new Entry("b", i), new Entry("a", i)));
+        }
+        assertTrue(Files.readAllLines(file).size() < 300);
+        assertEquals(Set.of(new Entry("a", 999), new Entry("b", 999)), storage.current());
+
+        var newStorage = new KeyedFileStorage<>(file, format);
+        assertEquals(Set.of(new Entry("a", 999), new Entry("b", 999)), newStorage.current());
+    }
+
+    @Test
+    void invalidKey() throws IOException {
+        var tmpDir = Files.createTempDirectory("keyedfilestorage");
+        var storage = new KeyedFileStorage<>(tmpDir.resolve("db.txt"), format);
+
+        assertThrows(IllegalArgumentException.class, () -> storage.put(new Entry("a\tb", 1)));
+        assertThrows(IllegalArgumentException.class, () -> storage.put(new Entry("a\nb", 1)));
+        assertEquals(Set.of(), storage.current());
+    }
+
+    @Test
+    void legacyFormat() throws IOException {
+        var tmpDir = Files.createTempDirectory("keyedfilestorage");
+        var file = tmpDir.resolve("db.txt");
+        Files.writeString(file, "a=1;b=1");
+        StorageDeserializer<Entry> deserializer = content -> Arrays.stream(content.split(";"))
+                                                                   .map(entry -> entry.split("="))
+                                                                   .map(entry -> new Entry(entry[0], Integer.parseInt(entry[1])))
+                                                                   .collect(Collectors.toSet());
+        var storage = new KeyedFileStorage<>(file, format, deserializer);
+        assertEquals(Optional.of(new Entry("a", 1)), storage.get("a"));
+
+        // The file is left alone until something changes
+        assertFalse(storage.update(List.of(new Entry("b", 1))));
+        assertEquals("a=1;b=1", Files.readString(file));
+        assertTrue(storage.update(List.of(new Entry("b", 2))));
+        assertEquals(List.of("a\t1", "b\t2"), Files.readAllLines(file));
+
+        var newStorage = new KeyedFileStorage<>(file, format, deserializer);
+        assertEquals(Set.of(new Entry("a", 1), new Entry("b", 2)), newStorage.current());
+    }
+}
@@ -34,7 +34,7 @@ import java.nio.file.Files;
 import java.util.*;
 import java.util.stream.*;
 
-import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.*;
 import static org.junit.jupiter.api.Assumptions.assumeFalse;
 
 class RepositoryStorageTests {
@@ -122,4 +122,45 @@ class RepositoryStorageTests {
         storage.put("hello there again");
         assertEquals(Set.of("hello there", "hello there again"), storage.current());
     }
+
+    @ParameterizedTest
+    @EnumSource(VCS.class)
+    void batched(VCS vcs) throws IOException {
+        assumeFalse(vcs == VCS.HG && !hgAvailable);
+        var tmpDir = Files.createTempDirectory("repositorystorage");
+        var repository = TestableRepository.init(tmpDir, vcs);
+        var storage = stringStorage(repository);
+
+        storage.put("first");
+        var head = repository.head();
+        try (var batch = storage.batch()) {
+            storage.put("second");
+            try (var nested = storage.batch()) {
+                storage.put("third");
+            }
+            storage.put("fourth");
+            assertEquals(Set.of("first", "second", "third", "fourth"), storage.current());
+            assertEquals(head, repository.head());
+        }
+        assertEquals(Set.of("first", "second", "third", "fourth"), storage.current());
+        assertEquals(1, repository.commitMetadata(head.hex() + ".." + repository.head().hex()).size());
+
+        // An empty batch does not commit anything
+        head = repository.head();
+        try (var batch = storage.batch()) {
+            storage.put("second");
+        }
+        assertEquals(head, repository.head());
+
+        // Flushing commits the items put so far and keeps the batch open
+        try (var batch = storage.batch()) {
+            storage.put("fifth");
+            batch.flush();
+            var flushed = repository.head();
+            assertEquals(1, repository.commitMetadata(head.hex() + ".." + flushed.hex()).size());
+            storage.put("sixth");
+            assertEquals(flushed, repository.head());
+        }
+        assertEquals(2, repository.commitMetadata(head.hex() + ".." + repository.head().hex()).size());
+    }
 }
@@ -75,6 +75,45 @@ public interface ReadOnlyRepository {
     // Can't overload on both List<Path> and List<Branch>
     List<CommitMetadata> commitMetadataFor(List<Branch> branches) throws IOException;
 
+    /**
+     * Returns the metadata for the commits that are reachable from any of the
+     * commits in <code>reachableFrom</code>, but not from any of the commits in
+     * <code>unreachableFrom</code>.
+     */
+    List<CommitMetadata> commitMetadata(List<Hash> reachableFrom, List<Hash> unreachableFrom) throws IOException;
+
+    /**
+     * Returns the metadata for the commits between <code>from</code> and <code>to</code>
+     * that modify each of the given paths, in the same order as calling
+     * commitMetadata(from, to, List.of(path)) for each path would. Paths that are
+     * not modified by any commit are not included in the result.
+     */
+    default Map<Path, List<CommitMetadata>> commitMetadataPerPath(Hash from, Hash to, List<Path> paths) throws IOException {
+        var result = new HashMap<Path, List<CommitMetadata>>();
+        for (var path : paths) {
+            var commits = commitMetadata(from, to, List.of(path));
+            if (!commits.isEmpty()) {
+                result.put(path, commits);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the commits that branches, tags and other refs point to, that is
+     * the commits from which the commits returned by commitMetadata() are reachable.
+     */
+    List<Hash> tips() throws IOException;
+
+    /**
+     * Returns a directory inside the repository metadata where tools can store
+     * data derived from the repository, such as indexes. The directory is not
+     * necessarily created.
+     */
+    default Optional<Path> cacheDirectory() throws IOException {
+        return Optional.empty();
+    }
+
     String range(Hash h);
     String rangeInclusive(Hash from, Hash to);
     String rangeExclusive(Hash from, Hash to);
@@ -98,6 +137,20 @@ public interface ReadOnlyRepository {
      */
     Hash mergeBase(Hash first, Hash second) throws IOException;
     boolean isAncestor(Hash ancestor, Hash descendant) throws IOException;
+
+    /**
+     * Returns the commits among <code>candidates</code> that are ancestors of, or
+     * equal to, <code>descendant</code>.
+     */
+    default Set<Hash> ancestors(Collection<Hash> candidates, Hash descendant) throws IOException {
+        var result = new HashSet<Hash>();
+        for (var candidate : candidates) {
+            if (candidate.equals(descendant) || isAncestor(candidate, descendant)) {
+                result.add(candidate);
+            }
+        }
+        return result;
+    }
     Optional<Hash> resolve(String ref) throws IOException;
     default Optional<Hash> resolve(Tag t) throws IOException {
         return resolve(t.name());
@@ -149,6 +202,13 @@ public interface ReadOnlyRepository {
     boolean isValidRevisionRange(String expression) throws IOException;
     Optional<String> upstreamFor(Branch branch) throws IOException;
     List<Reference> remoteBranches(String remote) throws IOException;
+
+    /**
+     * Returns the branches and tags advertised by a remote, using their full
+     * names (e.g. refs/heads/master). Only the advertisement is read, no objects
+     * are transferred. The remote can also be the URI or path of a repository.
+     */
+    List<Reference> remoteReferences(String remote) throws IOException;
     List<String> remotes() throws IOException;
     List<Submodule> submodules() throws IOException;
     Tree tree(Hash h) throws IOException;
@@ -0,0 +1,376 @@
+/*
+ * Copyright (c) 2024, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.openjdk.skara.vcs.git;
+
+import org.openjdk.skara.vcs.Hash;
+import org.openjdk.skara.vcs.tools.UnixStreamReader;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.logging.Logger;
+
+/**
+ * Long-running "git cat-file --batch" and "git cat-file --batch-check" processes
+ * for a repository, so that looking up objects does not require starting a new
+ * process each time. The processes are kept in small bounded pools shared by all
+ * GitRepository instances for the same directory, and are stopped after having
+ * been idle for a while.
+ */
+class GitCatFile {
+    static final int MAX_PROCESSES = 4;
+    static final Duration IDLE_TIMEOUT = Duration.ofSeconds(30);
+
+    record ObjectInfo(Hash hash, String type, long size) {
+    }
+
+    record GitObject(ObjectInfo info, byte[] content) {
+    }
+
+    private record Key(Path dir, Map<String, String> env) {
+    }
+
+    /**
+     * Identifies an object database. The inode of the objects directory alone is
+     * not enough, as it can be reused by a new repository at the same path. The
+     * pack directory is modified whenever packs are added or removed, including
+     * when a repository is cloned.
+     */
+    private record Identity(Object fileKey, FileTime packsModified) {
+    }
+
+    private static final Logger log = Logger.getLogger("org.openjdk.skara.vcs.git");
+    private static final boolean supported = !System.getProperty("os.name", "").toLowerCase().startsWith("win");
+    private static final Map<Key, GitCatFile> instances = new ConcurrentHashMap<>();
+    private static final ScheduledExecutorService reaper = Executors.newSingleThreadScheduledExecutor(r -> {
+        var thread = new Thread(r, "git-cat-file-reaper");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    static {
+        var period = IDLE_TIMEOUT.toMillis() / 2;
+        reaper.scheduleWithFixedDelay(GitCatFile::closeIdle, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    private final Path dir;
+    private final Map<String, String> env;
+    private final Path objects;
+    private final Pool check = new Pool("--batch-check");
+    private final Pool batch = new Pool("--batch");
+    private Identity identity;
+    private boolean removed = false;
+
+    private GitCatFile(Path dir, Map<String, String> env, Path objects, Identity identity) {
+        this.dir = dir;
+        this.env = env;
+        this.objects = objects;
+        this.identity = identity;
+    }
+
+    private static Path objectsDirectory(Path dir) {
+        var dotGit = dir.resolve(".git");
+        if (Files.isDirectory(dotGit)) {
+            return dotGit.resolve("objects");
+        }
+        if (Files.isRegularFile(dir.resolve("HEAD"))) {
+            return dir.resolve("objects");
+        }
+        return null;
+    }
+
+    private static Identity identity(Path objects) {
+        try {
+            var fileKey = Files.readAttributes(objects, BasicFileAttributes.class).fileKey();
+            if (fileKey == null) {
+                return null;
+            }
+            var packs = objects.resolve("pack");
+            var packsModified = Files.isDirectory(packs) ? Files.getLastModifiedTime(packs) : null;
+            return new Identity(fileKey, packsModified);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Returns the processes for the repository in the given directory, or an empty
+     * Optional if they cannot be used. This is the case on Windows, where running
+     * processes prevent the repository from being removed, and for directories that
+     * are not the top level directory of a repository with its own object database.
+     */
+    static Optional<GitCatFile> of(Path dir, Map<String, String> env) {
+        if (!supported) {
+            return Optional.empty();
+        }
+        var absolute = dir.toAbsolutePath().normalize();
+        var key = new Key(absolute, env);
+        var existing = instances.get(key);
+        if (existing != null) {
+            return Optional.of(existing);
+        }
+        var objects = objectsDirectory(absolute);
+        if (objects == null) {
+            return Optional.empty();
+        }
+        var identity = identity(objects);
+        if (identity == null) {
+            return Optional.empty();
+        }
+        return Optional.of(instances.computeIfAbsent(key, k -> new GitCatFile(absolute, env, objects, identity)));
+    }
+
+    /**
+     * Returns true if the name can be passed to the processes, which read one name
+     * per line.
+     */
+    static boolean isValidName(String name) {
+        return !name.isEmpty() && name.indexOf('\n') == -1 && name.indexOf('\r') == -1;
+    }
+
+    /**
+     * Returns the type, size and hash of the named object, if it exists. The name
+     * can be anything accepted by "git rev-parse", such as "HEAD^{commit}" or
+     * "&lt;commit&gt;:&lt;path&gt;".
+     */
+    Optional<ObjectInfo> info(String name) throws IOException {
+        return lookup(check, name, false).map(GitObject::info);
+    }
+
+    /**
+     * Returns the type, size, hash and content of the named object, if it exists.
+     */
+    Optional<GitObject> read(String name) throws IOException {
+        return lookup(batch, name, true);
+    }
+
+    private Optional<GitObject> lookup(Pool pool, String name, boolean withContent) throws IOException {
+        if (!isValidName(name)) {
+            throw new IllegalArgumentException("Invalid object name: " + name);
+        }
+        validate();
+        for (var attempt = 1; ; attempt++) {
+            var process = pool.borrow();
+            try {
+                var result = process.lookup(name, withContent);
+                pool.release(process);
+                return result;
+            } catch (IOException e) {
+                // Only retry if the process has gone away, e.g. after having been killed
+                pool.discard(process);
+                if (attempt == 2 || !process.exited) {
+                    throw e;
+                }
+                log.fine("Restarting git cat-file " + pool.option + " in " + dir + ": " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * A repository can be removed and replaced with a new one in the same place,
+     * running processes would then still see the old object database. The processes
+     * are also restarted when packs have been added or removed, which is harmless.
+     */
+    private void validate() throws IOException {
+        var current = identity(objects);
+        synchronized (this) {
+            if (!Objects.equals(current, identity)) {
+                check.closeAll();
+                batch.closeAll();
+                identity = current;
+            }
+        }
+        if (current == null) {
+            throw new IOException("Cannot find object database " + objects);
+        }
+    }
+
+    private static void closeIdle() {
+        closeIdle(System.nanoTime() - IDLE_TIMEOUT.toNanos());
+    }
+
+    /**
+     * Stops the processes that have been idle since before the deadline, and
+     * forgets about repositories that no longer have any processes running.
+     */
+    static void closeIdle(long deadline) {
+        for (var instance : instances.values()) {
+            instance.check.closeIdle(deadline);
+            instance.batch.closeIdle(deadline);
+            instance.removeIfUnused();
+        }
+    }
+
+    private void removeIfUnused() {
+        synchronized (check) {
+            synchronized (batch) {
+                if (check.started == 0 && batch.started == 0) {
+                    // A lookup that already holds this instance can still start processes,
+                    // they are then closed when released instead of being kept idle
+                    removed = true;
+                    instances.remove(new Key(dir, env), this);
+                }
+            }
+        }
+    }
+
+    private class Pool {
+        private final String option;
+        private final ArrayDeque<BatchProcess> idle = new ArrayDeque<>();
+        private int started = 0;
+        private int generation = 0;
+
+        Pool(String option) {
+            this.option = option;
+        }
+
+        synchronized BatchProcess borrow() throws IOException {
+            while (idle.isEmpty() && started >= MAX_PROCESSES) {
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    throw new IOException(e);
+                }
+            }
+            var process = idle.pollLast();
+            if (process != null) {
+                return process;
+            }
+            process = new BatchProcess(option, generation);
+            started++;
+            return process;
+        }
+
+        synchronized void release(BatchProcess process) {
+            if (process.generation != generation || removed) {
+                process.close();
+                started--;
+            } else {
+                process.lastUsed = System.nanoTime();
+                idle.addLast(process);
+            }
+            notify();
+        }
+
+        synchronized void discard(BatchProcess process) {
+            process.close();
+            started--;
+            notify();
+        }
+
+        synchronized void closeIdle(long deadline) {
+            while (!idle.isEmpty() && idle.peekFirst().lastUsed - deadline < 0) {
+                idle.pollFirst().close();
+                started--;
+            }
+        }
+
+        synchronized void closeAll() {
+            // Processes that are currently in use are closed when released
+            generation++;
+            while (!idle.isEmpty()) {
+                idle.pollFirst().close();
+                started--;
+            }
+        }
+    }
+
+    private class BatchProcess {
+        private final java.lang.Process process;
+        private final OutputStream input;
+        private final UnixStreamReader output;
+        private final int generation;
+        private long lastUsed;
+        private boolean exited = false;
+
+        BatchProcess(String option, int generation) throws IOException {
+            var cmd = List.of("git", "cat-file", option);
+            log.fine("Executing " + String.join(" ", cmd) + " in " + dir);
+            var pb = new ProcessBuilder(cmd);
+            pb.directory(dir.toFile());
+            pb.environment().putAll(env);
+            pb.redirectError(ProcessBuilder.Redirect.DISCARD);
+            process = pb.start();
+            input = new BufferedOutputStream(process.getOutputStream());
+            output = new UnixStreamReader(process.getInputStream());
+            this.generation = generation;
+            lastUsed = System.nanoTime();
+        }
+
+        Optional<GitObject> lookup(String name, boolean withContent) throws IOException {
+            try {
+                input.write(name.getBytes(StandardCharsets.UTF_8));
+                input.write('\n');
+                input.flush();
+            } catch (IOException e) {
+                exited = true;
+                throw e;
+            }
+
+            var header = output.readLine();
+            if (header == null) {
+                exited = true;
+                throw new IOException("git cat-file exited unexpectedly");
+            }
+            if (header.endsWith(" missing") || header.endsWith(" ambiguous")) {
+                return Optional.empty();
+            }
+            var parts = header.split(" ");
+            if (parts.length != 3) {
+                throw new IOException("Unexpected output from git cat-file: " + header);
+            }
+            ObjectInfo info;
+            try {
+                info = new ObjectInfo(new Hash(parts[0]), parts[1], Long.parseLong(parts[2]));
+            } catch (NumberFormatException e) {
+                throw new IOException("Unexpected output from git cat-file: " + header);
+            }
+            if (!withContent) {
+                return Optional.of(new GitObject(info, null));
+            }
+            if (info.size() > Integer.MAX_VALUE - 8) {
+                throw new IOException("Object " + info.hash().hex() + " is too large (" + info.size() + " bytes)");
+            }
+            var content = output.read((int) info.size());
+            var end = output.readLine();
+            if (end == null || !end.isEmpty()) {
+                throw new IOException("Unexpected output from git cat-file after object " + info.hash().hex());
+            }
+            return Optional.of(new GitObject(info, content));
+        }
+
+        void close() {
+            try {
+                input.close();
+            } catch (IOException e) {
+                // The process has already exited
+            }
+            process.destroy();
+        }
+    }
+}
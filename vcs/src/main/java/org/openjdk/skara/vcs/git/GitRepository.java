@@ -49,6 +49,7 @@ public class GitRepository implements Repository {
     private final Logger log = Logger.getLogger("org.openjdk.skara.vcs.git");
     private Path cachedRoot = null;
     private static final Hash EMPTY_TREE = new Hash("4b825dc642cb6eb9a060e54bf8d69288fbee4904");
+    private static final long MAX_DUMP_IN_MEMORY = 16 * 1024 * 1024;
 
     public static void ignoreConfiguration() {
         currentEnv = NO_CONFIG_ENV;
@@ -207,6 +208,10 @@ public class GitRepository implements Repository {
 
     @Override
     public boolean contains(Hash h) throws IOException {
+        var catFile = GitCatFile.of(dir, currentEnv);
+        if (catFile.isPresent() && GitCatFile.isValidName(h.hex())) {
+            return catFile.get().info(h.hex()).isPresent();
+        }
         try (var p = capture("git", "cat-file", "-e", h.hex())) {
             var res = p.await();
             return res.status() == 0;
@@ -272,6 +277,108 @@ public class GitRepository implements Repository {
         return readMetadata(args, "commit ");
     }
 
+    @Override
+    public List<CommitMetadata> commitMetadata(List<Hash> reachableFrom, List<Hash> unreachableFrom) throws IOException {
+        if (reachableFrom.isEmpty()) {
+            return List.of();
+        }
+        var args = new ArrayList<String>();
+        args.addAll(List.of("git", "rev-list",
+                                   "--format=" + GitCommitMetadata.FORMAT,
+                                   "--topo-order",
+                                   "--no-abbrev",
+                                   "--no-color"));
+        args.addAll(reachableFrom.stream().map(Hash::hex).collect(Collectors.toList()));
+        args.addAll(unreachableFrom.stream().map(h -> "^" + h.hex()).collect(Collectors.toList()));
+        args.add("--");
+        return readMetadata(args, "commit ");
+    }
+
+    /**
+     * Lists the files modified by each commit in a single "git log" instead of
+     * running one "git rev-list" per path. For merge commits, "git rev-list" with
+     * a path only includes the commit depending on how the path differs from each
+     * parent, so ranges with merges fall back to one "git rev-list" per path. The
+     * same is done for paths that git would quote, or interpret as patterns.
+     */
+    @Override
+    public Map<Path, List<CommitMetadata>> commitMetadataPerPath(Hash from, Hash to, List<Path> paths) throws IOException {
+        var wanted = new HashMap<String, Path>();
+        for (var path : paths) {
+            var name = path.toString();
+            if (path.isAbsolute() || name.isEmpty() || !path.normalize().equals(path) ||
+                name.chars().anyMatch(c -> c < ' ' || "\"\\*?[".indexOf(c) != -1)) {
+                return Repository.super.commitMetadataPerPath(from, to, paths);
+            }
+            name = name.replace(File.separatorChar, '/');
+            while (name.endsWith("/")) {
+                name = name.substring(0, name.length() - 1);
+            }
+            wanted.put(name, path);
+        }
+
+        var delimiter = "#@!_-=&";
+        var cmd = List.of("git", "-c", "core.quotePath=false", "log",
+                          "--format=" + delimiter + "%n" + GitCommitMetadata.FORMAT,
+                          "--topo-order",
+                          "--no-abbrev",
+                          "--no-color",
+                          "--name-only",
+                          "--no-renames",
+                          from.hex() + ".." + to.hex(),
+                          "--");
+        var result = new HashMap<Path, List<CommitMetadata>>();
+        var p = start(cmd);
+        var reader = new UnixStreamReader(p.getInputStream());
+        var line = reader.readLine();
+        while (line != null) {
+            if (!line.equals(delimiter)) {
+                throw new IOException("Unexpected line: " + line);
+            }
+            var metadata = GitCommitMetadata.read(reader);
+            if (metadata.isMerge()) {
+                stop(p);
+                return Repository.super.commitMetadataPerPath(from, to, paths);
+            }
+            var matched = new HashSet<Path>();
+            line = reader.readLine();
+            while (line != null && !line.equals(delimiter)) {
+                // A wanted path can also be a directory containing the modified file
+                var name = line;
+                while (!name.isEmpty()) {
+                    var path = wanted.get(name);
+                    if (path != null && matched.add(path)) {
+                        result.computeIfAbsent(path, k -> new ArrayList<>()).add(metadata);
+                    }
+                    var slash = name.lastIndexOf('/');
+                    name = slash == -1 ? "" : name.substring(0, slash);
+                }
+                line = reader.readLine();
+            }
+        }
+        await(p);
+        return result;
+    }
+
+    @Override
+    public List<Hash> tips() throws IOException {
+        try (var p = capture("git", "rev-list", "--no-walk", "--all")) {
+            var res = await(p);
+            return res.stdout().stream().map(Hash::new).collect(Collectors.toList());
+        }
+    }
+
+    @Override
+    public Optional<Path> cacheDirectory() throws IOException {
+        try (var p = capture("git", "rev-parse", "--absolute-git-dir")) {
+            var res = p.await();
+            if (res.status() != 0 || res.stdout().size() != 1) {
+                return Optional.empty();
+            }
+            return Optional.of(Path.of(res.stdout().get(0), "skara"));
+        }
+    }
+
     @Override
     public List<CommitMetadata> commitMetadata(Hash from, Hash to, List<Path> paths, boolean reverse) throws IOException {
         return commitMetadata(from.hex() + ".." + to.hex(), paths, reverse);
@@ -999,6 +1106,34 @@ public class GitRepository implements Repository {
         }
     }
 
+    @Override
+    public Set<Hash> ancestors(Collection<Hash> candidates, Hash descendant) throws IOException {
+        if (candidates.isEmpty()) {
+            return Set.of();
+        }
+        // Lists the commits only reachable from candidates that are not ancestors. The
+        // output can be most of the history, so only the candidates are remembered.
+        var cmd = new ArrayList<String>(List.of("git", "rev-list"));
+        for (var candidate : candidates) {
+            cmd.add(candidate.hex());
+        }
+        cmd.add("^" + descendant.hex());
+        cmd.add("--");
+        var ancestors = new HashMap<String, Hash>();
+        for (var candidate : candidates) {
+            ancestors.put(candidate.hex(), candidate);
+        }
+        var p = start(cmd);
+        var reader = new UnixStreamReader(p.getInputStream());
+        var line = reader.readLine();
+        while (line != null) {
+            ancestors.remove(line);
+            line = reader.readLine();
+        }
+        await(p);
+        return new HashSet<>(ancestors.values());
+    }
+
     @Override
     public void rebase(Hash hash, String committerName, String committerEmail) throws IOException {
         try (var p = Process.capture("git", "rebase", "--onto", hash.hex(), "--root")
@@ -1024,6 +1159,10 @@ public class GitRepository implements Repository {
 
     @Override
     public Optional<Hash> resolve(String ref) throws IOException {
+        var catFile = GitCatFile.of(dir, currentEnv);
+        if (catFile.isPresent() && GitCatFile.isValidName(ref + "^{commit}")) {
+            return catFile.get().info(ref + "^{commit}").map(GitCatFile.ObjectInfo::hash);
+        }
         try (var p = capture("git", "rev-parse", ref + "^{commit}")) {
             var res = p.await();
             if (res.status() == 0 && res.stdout().size() == 1) {
@@ -1123,6 +1262,9 @@ public class GitRepository implements Repository {
         if (paths.isEmpty()) {
             return allFiles(hash, paths);
         }
+        if (paths.size() == 1) {
+            return lookupFile(hash, paths.get(0));
+        }
 
         var entries = new ArrayList<FileEntry>();
         var batchSize = 64;
@@ -1149,9 +1291,83 @@ public class GitRepository implements Repository {
         }
     }
 
+    private byte[] blob(Hash hash) throws IOException {
+        var catFile = GitCatFile.of(dir, currentEnv);
+        if (catFile.isPresent()) {
+            var blob = catFile.get().read(hash.hex());
+            if (blob.isEmpty() || !blob.get().info().type().equals("blob")) {
+                throw new IOException("Cannot find blob " + hash.hex());
+            }
+            return blob.get().content();
+        }
+        var tmp = unpackFile(hash.hex());
+        var content = Files.readAllBytes(tmp);
+        Files.delete(tmp);
+        return content;
+    }
+
+    /**
+     * Looks up a single path by reading the tree of its parent directory from a
+     * long-running git cat-file process, instead of starting "git ls-tree". Paths
+     * naming directories still use "git ls-tree", as their files are then listed
+     * recursively.
+     */
+    private List<FileEntry> lookupFile(Hash hash, Path path) throws IOException {
+        var catFile = GitCatFile.of(dir, currentEnv);
+        var absoluteDir = dir.toAbsolutePath();
+        if (catFile.isEmpty() || (path.isAbsolute() && !path.startsWith(absoluteDir))) {
+            return allFiles(hash, List.of(path));
+        }
+        var relative = path.isAbsolute() ? absoluteDir.relativize(path) : path;
+        var fileName = relative.getFileName();
+        if (fileName == null || fileName.toString().isEmpty() ||
+            !relative.normalize().equals(relative) || relative.startsWith("..")) {
+            return allFiles(hash, List.of(path));
+        }
+        var parent = relative.getParent();
+        var treeName = hash.hex() + ":" + (parent == null ? "" : parent.toString().replace(File.separatorChar, '/'));
+        if (!GitCatFile.isValidName(treeName)) {
+            return allFiles(hash, List.of(path));
+        }
+        var tree = catFile.get().read(treeName);
+        if (tree.isEmpty() || !tree.get().info().type().equals("tree")) {
+            // Only a missing path is reported as not found, an unknown revision is an error
+            if (catFile.get().info(hash.hex() + "^{tree}").isEmpty()) {
+                throw new IOException("Cannot find tree for " + hash.hex());
+            }
+            return List.of();
+        }
+
+        // Each tree entry is "<octal mode> <name>\0" followed by the raw object hash
+        var name = fileName.toString().getBytes(StandardCharsets.UTF_8);
+        var content = tree.get().content();
+        var hashLength = tree.get().info().hash().hex().length() / 2;
+        var start = 0;
+        while (start < content.length) {
+            var space = start;
+            while (content[space] != (byte) ' ') {
+                space++;
+            }
+            var end = space + 1;
+            while (content[end] != (byte) 0) {
+                end++;
+            }
+            if (Arrays.equals(content, space + 1, end, name, 0, name.length)) {
+                var mode = new String(content, start, space - start, StandardCharsets.US_ASCII);
+                if (mode.equals("40000")) {
+                    return allFiles(hash, List.of(path));
+                }
+                var objectHash = new Hash(HexFormat.of().formatHex(content, end + 1, end + 1 + hashLength));
+                return List.of(new FileEntry(hash, FileType.fromOctal(mode), objectHash, relative));
+            }
+            start = end + 1 + hashLength;
+        }
+        return List.of();
+    }
+
     @Override
     public Optional<byte[]> show(Path path, Hash hash) throws IOException {
-        var entries = files(hash, path);
+        var entries = lookupFile(hash, path);
         if (entries.size() == 0) {
             return Optional.empty();
         } else if (entries.size() > 1) {
@@ -1164,10 +1380,7 @@ public class GitRepository implements Repository {
             var content = "Subproject commit " + entry.hash().hex() + " " + entry.path().toString();
             return Optional.of(content.getBytes(StandardCharsets.UTF_8));
         } else if (type.isRegular()) {
-            var tmp = unpackFile(entry.hash().hex());
-            var content = Files.readAllBytes(tmp);
-            Files.delete(tmp);
-            return Optional.of(content);
+            return Optional.of(blob(entry.hash()));
         }
 
         return Optional.empty();
@@ -1177,6 +1390,15 @@ public class GitRepository implements Repository {
     public void dump(FileEntry entry, Path to) throws IOException {
         var type = entry.type();
         if (type.isRegular()) {
+            var catFile = GitCatFile.of(dir, currentEnv);
+            // Large blobs are written by "git unpack-file" instead of being read into memory
+            var info = catFile.isPresent() ? catFile.get().info(entry.hash().hex()) : Optional.<GitCatFile.ObjectInfo>empty();
+            if (info.isPresent() && info.get().size() <= MAX_DUMP_IN_MEMORY) {
+                var content = blob(entry.hash());
+                Files.createDirectories(to.getParent());
+                Files.write(to, content);
+                return;
+            }
             var path = unpackFile(entry.hash().hex());
             Files.createDirectories(to.getParent());
             Files.move(path, to, StandardCopyOption.REPLACE_EXISTING);
@@ -1542,6 +1764,18 @@ public class GitRepository implements Repository {
         return refs;
     }
 
+    @Override
+    public List<Reference> remoteReferences(String remote) throws IOException {
+        var refs = new ArrayList<Reference>();
+        try (var p = capture("git", "ls-remote", "--heads", "--tags", "--refs", remote)) {
+            for (var line : await(p).stdout()) {
+                var parts = line.split("\t");
+                refs.add(new Reference(parts[1], new Hash(parts[0])));
+            }
+        }
+        return refs;
+    }
+
     @Override
     public List<String> remotes() throws IOException {
         var remotes = new ArrayList<String>();
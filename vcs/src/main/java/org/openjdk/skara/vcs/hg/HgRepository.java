@@ -319,6 +319,30 @@ public class HgRepository implements Repository {
         return readMetadata(cmd);
     }
 
+    private static String revset(List<Hash> hashes) {
+        return hashes.stream().map(Hash::hex).collect(Collectors.joining("+"));
+    }
+
+    @Override
+    public List<CommitMetadata> commitMetadata(List<Hash> reachableFrom, List<Hash> unreachableFrom) throws IOException {
+        if (reachableFrom.isEmpty()) {
+            return List.of();
+        }
+        var range = "ancestors(" + revset(reachableFrom) + ")";
+        if (!unreachableFrom.isEmpty()) {
+            range += " - ancestors(" + revset(unreachableFrom) + ")";
+        }
+        // Newest first, as for git
+        return commitMetadata("reverse(" + range + ")", List.of(), false);
+    }
+
+    @Override
+    public List<Hash> tips() throws IOException {
+        try (var p = capture("hg", "log", "--rev", "heads(all()) + bookmark() + tag()", "--template={node}\n")) {
+            return await(p).stdout().stream().map(Hash::new).collect(Collectors.toList());
+        }
+    }
+
     @Override
     public List<CommitMetadata> commitMetadataFor(List<Branch> branches) throws IOException {
         throw new RuntimeException("Not implemented yet");
@@ -1406,6 +1430,11 @@ public class HgRepository implements Repository {
         return refs;
     }
 
+    @Override
+    public List<Reference> remoteReferences(String remote) throws IOException {
+        throw new UnsupportedOperationException();
+    }
+
     @Override
     public List<String> remotes() throws IOException {
         var remotes = new ArrayList<String>();
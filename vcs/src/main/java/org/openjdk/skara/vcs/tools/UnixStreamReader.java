@@ -26,34 +26,70 @@ import java.nio.charset.StandardCharsets;
 import java.io.*;
 import java.util.Arrays;
 
+/**
+ * Reads lines terminated by '\n' and raw bytes from a stream. The stream is read in
+ * large blocks and lines are searched for in the buffer, so no call to the stream is
+ * made per byte. Since the reader buffers data, the stream must not be read directly
+ * once it has been passed to a reader.
+ */
 public class UnixStreamReader {
+    private static final int BUFFER_SIZE = 32 * 1024;
+
     private final InputStream stream;
 
-    private byte[] buffer;
+    private final byte[] buffer;
+    private int position;
+    private int limit;
+
+    // Holds the start of a line that spans more than one block
+    private byte[] line;
     private String lastLine;
 
     public UnixStreamReader(InputStream stream) {
         this.stream = stream;
-        this.buffer = new byte[128];
+        this.buffer = new byte[BUFFER_SIZE];
+        this.position = 0;
+        this.limit = 0;
+        this.line = new byte[128];
         this.lastLine = null;
     }
 
+    private boolean fill() throws IOException {
+        if (position < limit) {
+            return true;
+        }
+        position = 0;
+        limit = Math.max(stream.read(buffer, 0, buffer.length), 0);
+        return limit > 0;
+    }
+
     public String readLine() throws IOException {
-        var index = 0;
-        var res = stream.read();
-        while (res != -1) {
-            if (res == (int) '\n') {
-                lastLine = new String(buffer, 0, index, StandardCharsets.UTF_8);
+        var length = 0;
+        while (fill()) {
+            var start = position;
+            var end = start;
+            while (end < limit && buffer[end] != (byte) '\n') {
+                end++;
+            }
+            position = end < limit ? end + 1 : end;
+
+            if (end < limit && length == 0) {
+                // The common case, the whole line is in the buffer
+                lastLine = new String(buffer, start, end - start, StandardCharsets.UTF_8);
                 return lastLine;
-            } else {
-                if (index == buffer.length) {
-                    buffer = Arrays.copyOf(buffer, buffer.length * 2);
-                }
-                buffer[index] = (byte) res;
-                index++;
             }
 
-            res = stream.read();
+            var n = end - start;
+            if (length + n > line.length) {
+                line = Arrays.copyOf(line, Math.max(line.length * 2, length + n));
+            }
+            System.arraycopy(buffer, start, line, length, n);
+            length += n;
+
+            if (end < limit) {
+                lastLine = new String(line, 0, length, StandardCharsets.UTF_8);
+                return lastLine;
+            }
         }
 
         lastLine = null;
@@ -67,9 +103,15 @@ public class UnixStreamReader {
     }
 
     public void read(byte[] b) throws IOException {
-        var read = 0;
+        var read = Math.min(limit - position, b.length);
+        System.arraycopy(buffer, position, b, 0, read);
+        position += read;
         while (read != b.length) {
-            read += stream.read(b, read, b.length - read);
+            var n = stream.read(b, read, b.length - read);
+            if (n == -1) {
+                throw new EOFException("Expected " + b.length + " bytes, got " + read);
+            }
+            read += n;
         }
     }
 
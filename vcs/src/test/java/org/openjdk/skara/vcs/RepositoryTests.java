@@ -2078,6 +2078,97 @@ public class RepositoryTests {
         }
     }
 
+    @ParameterizedTest
+    @EnumSource(VCS.class)
+    void testAncestors(VCS vcs) throws IOException {
+        assumeFalse(vcs == VCS.HG && !hgAvailable);
+        try (var dir = new TemporaryDirectory()) {
+            var r = TestableRepository.init(dir.path(), vcs);
+            var f = dir.path().resolve("README");
+            Files.writeString(f, "Hello\n");
+            r.add(f);
+            var initial = r.commit("Initial commit", "duke", "duke@openjdk.org");
+
+            Files.writeString(f, "Hello again\n");
+            r.add(f);
+            var second = r.commit("Second commit", "duke", "duke@openjdk.org");
+
+            r.checkout(initial, false);
+            Files.writeString(f, "Hello on the side\n");
+            r.add(f);
+            var side = r.commit("Side commit", "duke", "duke@openjdk.org");
+
+            assertEquals(Set.of(initial, second), r.ancestors(List.of(initial, second, side), second));
+            assertEquals(Set.of(initial, side), r.ancestors(List.of(initial, second, side), side));
+            assertEquals(Set.of(), r.ancestors(List.of(), side));
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(VCS.class)
+    void testCommitMetadataPerPath(VCS vcs) throws IOException {
+        assumeFalse(vcs == VCS.HG && !hgAvailable);
+        try (var dir = new TemporaryDirectory()) {
+            var r = TestableRepository.init(dir.path(), vcs);
+            var readme = dir.path().resolve("README");
+            Files.writeString(readme, "Hello\n");
+            r.add(readme);
+            var initial = r.commit("Initial commit", "duke", "duke@openjdk.org");
+
+            var sub = dir.path().resolve("sub");
+            Files.createDirectories(sub);
+            var a = sub.resolve("a.txt");
+            Files.writeString(a, "a\n");
+            r.add(a);
+            var second = r.commit("Second commit", "duke", "duke@openjdk.org");
+
+            Files.writeString(readme, "Hello again\n");
+            Files.writeString(a, "a again\n");
+            r.add(readme);
+            r.add(a);
+            var third = r.commit("Third commit", "duke", "duke@openjdk.org");
+
+            var paths = List.of(Path.of("README"), Path.of("sub/a.txt"), Path.of("sub"), Path.of("missing"));
+            var perPath = r.commitMetadataPerPath(initial, third, paths);
+            for (var path : paths) {
+                assertEquals(r.commitMetadata(initial, third, List.of(path)), perPath.getOrDefault(path, List.of()));
+            }
+            assertEquals(List.of(third), perPath.get(Path.of("README")).stream().map(CommitMetadata::hash).collect(Collectors.toList()));
+            assertEquals(List.of(third, second), perPath.get(Path.of("sub")).stream().map(CommitMetadata::hash).collect(Collectors.toList()));
+            assertFalse(perPath.containsKey(Path.of("missing")));
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(VCS.class)
+    void testTipsAndCommitMetadataBetweenTips(VCS vcs) throws IOException {
+        assumeFalse(vcs == VCS.HG && !hgAvailable);
+        try (var dir = new TemporaryDirectory()) {
+            var r = TestableRepository.init(dir.path(), vcs);
+            assertEquals(List.of(), r.tips());
+
+            var f = dir.path().resolve("README");
+            Files.writeString(f, "Hello\n");
+            r.add(f);
+            var initial = r.commit("Initial commit", "duke", "duke@openjdk.org");
+            assertEquals(List.of(initial), r.tips());
+
+            Files.writeString(f, "Hello again\n");
+            r.add(f);
+            var second = r.commit("Second commit", "duke", "duke@openjdk.org");
+            r.branch(initial, "old");
+            assertEquals(Set.of(second, initial), new HashSet<>(r.tips()));
+
+            var added = r.commitMetadata(List.of(second), List.of(initial));
+            assertEquals(List.of(second), added.stream().map(CommitMetadata::hash).collect(Collectors.toList()));
+            assertEquals(List.of(), r.commitMetadata(List.of(initial), List.of(second)));
+            assertEquals(List.of(), r.commitMetadata(List.of(), List.of(second)));
+            if (vcs == VCS.GIT) {
+                assertTrue(r.cacheDirectory().orElseThrow().startsWith(dir.path().toRealPath().resolve(".git")));
+            }
+        }
+    }
+
     @ParameterizedTest
     @EnumSource(VCS.class)
     void testAbortMerge(VCS vcs) throws IOException {
@@ -2182,6 +2273,24 @@ public class RepositoryTests {
         }
     }
 
+    @Test
+    void testRemoteReferences() throws IOException {
+        try (var dir = new TemporaryDirectory()) {
+            var upstream = TestableRepository.init(dir.path().resolve("upstream"), VCS.GIT);
+            var readme = upstream.root().resolve("README");
+            Files.writeString(readme, "Hello\n");
+            upstream.add(readme);
+            var head = upstream.commit("Added README", "duke", "duke@openjdk.org");
+            upstream.tag(head, "1.0", "Tagged 1.0", "duke", "duke@openjdk.org");
+
+            var other = TestableRepository.init(dir.path().resolve("other"), VCS.GIT);
+            var refs = other.remoteReferences(upstream.root().toUri().toString());
+            assertEquals(2, refs.size());
+            assertTrue(refs.contains(new Reference("refs/heads/" + upstream.defaultBranch().name(), head)));
+            assertTrue(refs.stream().anyMatch(r -> r.name().equals("refs/tags/1.0")));
+        }
+    }
+
     @ParameterizedTest
     @EnumSource(VCS.class)
     void testSubmodulesOnEmptyRepo(VCS vcs) throws IOException {
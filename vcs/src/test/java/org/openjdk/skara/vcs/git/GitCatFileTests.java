@@ -0,0 +1,187 @@
+/*
+ * Copyright (c) 2024, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.openjdk.skara.vcs.git;
+
+import org.junit.jupiter.api.*;
+import org.openjdk.skara.test.TemporaryDirectory;
+import org.openjdk.skara.vcs.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GitCatFileTests {
+    @BeforeAll
+    static void setup() {
+        GitRepository.ignoreConfiguration();
+    }
+
+    private static Hash commitFile(Repository repo, Path file, String content) throws IOException {
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, content);
+        repo.add(file);
+        return repo.commit("Update " + file.getFileName(), "duke", "duke@openjdk.org");
+    }
+
+    @Test
+    void infoAndRead() throws IOException {
+        try (var dir = new TemporaryDirectory()) {
+            var repo = Repository.init(dir.path(), VCS.GIT);
+            var hash = commitFile(repo, dir.path().resolve("a/b.txt"), "hello\n");
+
+            var catFile = GitCatFile.of(dir.path(), GitRepository.currentEnv).orElseThrow();
+            var commit = catFile.info("HEAD^{commit}").orElseThrow();
+            assertEquals(hash, commit.hash());
+            assertEquals("commit", commit.type());
+
+            var blob = catFile.read(hash.hex() + ":a/b.txt").orElseThrow();
+            assertEquals("blob", blob.info().type());
+            assertEquals(6, blob.info().size());
+            assertEquals("hello\n", new String(blob.content(), StandardCharsets.UTF_8));
+
+            assertEquals(Optional.empty(), catFile.info(hash.hex() + ":a/missing.txt"));
+            assertEquals(Optional.empty(), catFile.read("refs/heads/does-not-exist"));
+        }
+    }
+
+    @Test
+    void invalidNames() {
+        assertFalse(GitCatFile.isValidName(""));
+        assertFalse(GitCatFile.isValidName("HEAD\nHEAD"));
+        assertTrue(GitCatFile.isValidName("HEAD:a file with spaces"));
+    }
+
+    @Test
+    void notTopLevel() throws IOException {
+        try (var dir = new TemporaryDirectory()) {
+            Repository.init(dir.path(), VCS.GIT);
+            var subdir = dir.path().resolve("sub");
+            Files.createDirectories(subdir);
+            assertTrue(GitCatFile.of(subdir, GitRepository.currentEnv).isEmpty());
+        }
+    }
+
+    @Test
+    void showAndResolve() throws IOException {
+        try (var dir = new TemporaryDirectory()) {
+            var repo = Repository.init(dir.path(), VCS.GIT);
+            var first = commitFile(repo, dir.path().resolve("dir/file.txt"), "first\n");
+            var second = commitFile(repo, dir.path().resolve("dir/file.txt"), "second\n");
+
+            assertEquals(Optional.of(second), repo.resolve("HEAD"));
+            assertEquals(Optional.of(first), repo.resolve("HEAD~1"));
+            assertEquals(Optional.empty(), repo.resolve("HEAD~2"));
+            assertTrue(repo.contains(first));
+            assertFalse(repo.contains(new Hash("0123456789012345678901234567890123456789")));
+
+            assertEquals("first\n", new String(repo.show(Path.of("dir/file.txt"), first).orElseThrow(), StandardCharsets.UTF_8));
+            assertEquals("second\n", new String(repo.show(dir.path().resolve("dir/file.txt"), second).orElseThrow(), StandardCharsets.UTF_8));
+            assertEquals(Optional.empty(), repo.show(Path.of("dir/missing.txt"), second));
+            assertEquals(Optional.empty(), repo.show(Path.of("missing/file.txt"), second));
+            assertEquals(Optional.empty(), repo.show(Path.of("dir/file.txt/file.txt"), second));
+            assertThrows(IOException.class, () -> repo.show(Path.of("dir/file.txt"), new Hash("0123456789012345678901234567890123456789")));
+            assertThrows(IOException.class, () -> repo.show(Path.of("missing/file.txt"), new Hash("0123456789012345678901234567890123456789")));
+
+            // A directory with a single file is listed recursively
+            assertEquals("second\n", new String(repo.show(Path.of("dir"), second).orElseThrow(), StandardCharsets.UTF_8));
+
+            // Branches updated after the processes were started are seen
+            repo.branch(first, "old");
+            assertEquals(Optional.of(first), repo.resolve("old"));
+            repo.delete(new Branch("old"));
+            repo.branch(second, "old");
+            assertEquals(Optional.of(second), repo.resolve("old"));
+        }
+    }
+
+    @Test
+    void replacedRepository() throws IOException {
+        try (var dir = new TemporaryDirectory()) {
+            var path = dir.path().resolve("repo");
+            var repo = Repository.init(path, VCS.GIT);
+            var first = commitFile(repo, path.resolve("file.txt"), "first\n");
+            assertTrue(repo.contains(first));
+
+            try (var files = Files.walk(path)) {
+                for (var file : files.sorted(Comparator.reverseOrder()).toList()) {
+                    Files.delete(file);
+                }
+            }
+
+            repo = Repository.init(path, VCS.GIT);
+            var second = commitFile(repo, path.resolve("file.txt"), "second\n");
+            assertFalse(repo.contains(first));
+            assertEquals("second\n", new String(repo.show(Path.of("file.txt"), second).orElseThrow(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    void idleInstancesRemoved() throws IOException {
+        try (var dir = new TemporaryDirectory()) {
+            var repo = Repository.init(dir.path(), VCS.GIT);
+            var hash = commitFile(repo, dir.path().resolve("file.txt"), "content\n");
+
+            var catFile = GitCatFile.of(dir.path(), GitRepository.currentEnv).orElseThrow();
+            assertTrue(catFile.info(hash.hex()).isPresent());
+            assertSame(catFile, GitCatFile.of(dir.path(), GitRepository.currentEnv).orElseThrow());
+
+            GitCatFile.closeIdle(System.nanoTime() + 1);
+            var recreated = GitCatFile.of(dir.path(), GitRepository.currentEnv).orElseThrow();
+            assertNotSame(catFile, recreated);
+            assertTrue(recreated.info(hash.hex()).isPresent());
+
+            // A removed instance can still be used, but does not keep processes around
+            assertTrue(catFile.info(hash.hex()).isPresent());
+        }
+    }
+
+    @Test
+    void concurrentLookups() throws Exception {
+        try (var dir = new TemporaryDirectory()) {
+            var repo = Repository.init(dir.path(), VCS.GIT);
+            var hashes = new ArrayList<Hash>();
+            for (var i = 0; i < 10; i++) {
+                hashes.add(commitFile(repo, dir.path().resolve("file.txt"), "content " + i + "\n"));
+            }
+
+            var executor = Executors.newFixedThreadPool(4 * GitCatFile.MAX_PROCESSES);
+            try {
+                var futures = new ArrayList<Future<String>>();
+                for (var i = 0; i < 200; i++) {
+                    var hash = hashes.get(i % hashes.size());
+                    futures.add(executor.submit(() -> new String(repo.show(Path.of("file.txt"), hash).orElseThrow(),
+                                                                 StandardCharsets.UTF_8)));
+                }
+                for (var i = 0; i < futures.size(); i++) {
+                    assertEquals("content " + (i % hashes.size()) + "\n", futures.get(i).get());
+                }
+            } finally {
+                executor.shutdown();
+            }
+        }
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2024, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.openjdk.skara.vcs.tools;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UnixStreamReaderTests {
+    private static UnixStreamReader reader(String s) {
+        return new UnixStreamReader(new ByteArrayInputStream(s.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * Returns at most a few bytes per read, to force lines to span several reads.
+     */
+    private static UnixStreamReader slowReader(String s) {
+        var stream = new FilterInputStream(new ByteArrayInputStream(s.getBytes(StandardCharsets.UTF_8))) {
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                return super.read(b, off, Math.min(len, 3));
+            }
+        };
+        return new UnixStreamReader(stream);
+    }
+
+    @Test
+    void readLines() throws IOException {
+        for (var reader : new UnixStreamReader[]{reader("first\n\nthird åäö\nincomplete"),
+                                                 slowReader("first\n\nthird åäö\nincomplete")}) {
+            assertEquals("first", reader.readLine());
+            assertEquals("first", reader.lastLine());
+            assertEquals("", reader.readLine());
+            assertEquals("third åäö", reader.readLine());
+            assertNull(reader.readLine());
+            assertNull(reader.lastLine());
+        }
+    }
+
+    @Test
+    void longLines() throws IOException {
+        var longLine = "x".repeat(100_000);
+        var reader = reader(longLine + "\n" + longLine + "y\nshort\n");
+        assertEquals(longLine, reader.readLine());
+        assertEquals(longLine + "y", reader.readLine());
+        assertEquals("short", reader.readLine());
+        assertNull(reader.readLine());
+    }
+
+    @Test
+    void readBytesAfterLines() throws IOException {
+        var data = "x".repeat(50_000);
+        for (var reader : new UnixStreamReader[]{reader("header\n" + data + "next\n"),
+                                                 slowReader("header\n" + data + "next\n")}) {
+            assertEquals("header", reader.readLine());
+            assertEquals(data, new String(reader.read(data.length()), StandardCharsets.UTF_8));
+            assertEquals("next", reader.readLine());
+            assertNull(reader.readLine());
+        }
+    }
+
+    @Test
+    void readBytesPastEnd() throws IOException {
+        var reader = reader("abc");
+        assertThrows(EOFException.class, () -> reader.read(4));
+    }
+}
@@ -26,8 +26,6 @@ import org.openjdk.skara.vcs.*;
 
 import java.io.*;
 import java.nio.file.*;
-import java.nio.charset.StandardCharsets;
-import java.nio.charset.MalformedInputException;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -40,7 +38,7 @@ class AddedFileView implements FileView {
     private final byte[] binaryContent;
     private final Stats stats;
 
-    public AddedFileView(ReadOnlyRepository repo, Hash base, Hash head, List<CommitMetadata> commits, MetadataFormatter formatter, Patch patch, Path out) throws IOException {
+    public AddedFileView(ReadOnlyRepository repo, ContentReader content, Hash base, Hash head, List<CommitMetadata> commits, MetadataFormatter formatter, Patch patch, Path out) throws IOException {
         this.patch = patch;
         this.out = out;
         this.commits = commits;
@@ -50,21 +48,9 @@ class AddedFileView implements FileView {
         if (patch.isTextual()) {
             binaryContent = null;
             if (head == null) {
-                List<String> lines = null;
-                for (var charset : List.of(StandardCharsets.UTF_8, StandardCharsets.ISO_8859_1)) {
-                    try {
-                        lines = Files.readAllLines(pathInRepo, charset);
-                        break;
-                    } catch (MalformedInputException e) {
-                        continue;
-                    }
-                }
-                if (lines == null) {
-                    throw new IllegalStateException("Could not read " + pathInRepo + " as UTF-8 nor as ISO-8859-1");
-                }
-                newContent = lines;
+                newContent = content.lines(pathInRepo);
             } else {
-                newContent = repo.lines(path, head).orElseThrow(IllegalArgumentException::new);
+                newContent = content.lines(path, head).orElseThrow(IllegalArgumentException::new);
             }
             stats = new Stats(patch.asTextualPatch().stats(), newContent.size());
         } else {
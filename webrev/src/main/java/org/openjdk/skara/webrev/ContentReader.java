@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2024, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.openjdk.skara.webrev;
+
+import org.openjdk.skara.vcs.*;
+
+import java.io.*;
+import java.nio.charset.*;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * Reads the contents of the files shown in a webrev. By default the contents are
+ * read into memory. If a directory is given, the contents of regular files are
+ * instead dumped to files in that directory and read on demand using
+ * {@link FileLines}, so that the memory used does not depend on the size of the
+ * files.
+ */
+class ContentReader {
+    private final ReadOnlyRepository repository;
+    private final Path directory;
+
+    ContentReader(ReadOnlyRepository repository, Path directory) {
+        this.repository = repository;
+        this.directory = directory;
+    }
+
+    ContentReader(ReadOnlyRepository repository) {
+        this(repository, null);
+    }
+
+    Optional<List<String>> lines(Path path, Hash hash) throws IOException {
+        if (directory == null) {
+            return repository.lines(path, hash);
+        }
+        var entries = repository.files(hash, path);
+        if (entries.isEmpty()) {
+            return Optional.empty();
+        }
+        if (entries.size() != 1 || !entries.get(0).type().isRegular()) {
+            return repository.lines(path, hash);
+        }
+        var file = Files.createTempFile(directory, "content", ".tmp");
+        repository.dump(entries.get(0), file);
+        return Optional.of(FileLines.of(file, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Returns the lines of a file in the working tree, read as UTF-8 if possible and
+     * otherwise as ISO-8859-1.
+     */
+    List<String> lines(Path file) throws IOException {
+        if (directory != null) {
+            return FileLines.ofUTF8OrLatin1(file);
+        }
+        for (var charset : List.of(StandardCharsets.UTF_8, StandardCharsets.ISO_8859_1)) {
+            try {
+                return Files.readAllLines(file, charset);
+            } catch (MalformedInputException e) {
+                continue;
+            }
+        }
+        throw new IllegalStateException("Could not read " + file + " as UTF-8 nor as ISO-8859-1");
+    }
+}
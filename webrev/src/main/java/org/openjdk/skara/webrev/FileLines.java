@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) 2024, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.openjdk.skara.webrev;
+
+import java.io.*;
+import java.nio.*;
+import java.nio.channels.FileChannel;
+import java.nio.charset.*;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * The lines of a file, decoded on demand from a memory mapped copy of the file
+ * instead of being kept in memory as strings. Only the offsets of the lines are
+ * kept on the heap. Lines are split in the same way as by {@link String#lines()}.
+ */
+class FileLines extends AbstractList<String> implements RandomAccess {
+    private final ByteBuffer content;
+    private final Charset charset;
+    private final int[] starts;
+    private final int size;
+
+    private FileLines(ByteBuffer content, Charset charset) {
+        this.content = content;
+        this.charset = charset;
+
+        var limit = content.limit();
+        var starts = new int[1024];
+        var size = 0;
+        var lineStart = 0;
+        for (var i = 0; i < limit; i++) {
+            var b = content.get(i);
+            if (b == '\n' || b == '\r') {
+                if (b == '\r' && i + 1 < limit && content.get(i + 1) == '\n') {
+                    i++;
+                }
+                if (size + 1 >= starts.length) {
+                    starts = Arrays.copyOf(starts, starts.length * 2);
+                }
+                starts[size++] = lineStart;
+                lineStart = i + 1;
+            }
+        }
+        if (lineStart < limit) {
+            if (size + 1 >= starts.length) {
+                starts = Arrays.copyOf(starts, starts.length + 1);
+            }
+            starts[size++] = lineStart;
+        }
+        starts[size] = limit;
+        this.starts = size + 1 == starts.length ? starts : Arrays.copyOf(starts, size + 1);
+        this.size = size;
+    }
+
+    private static ByteBuffer map(Path file) throws IOException {
+        try (var channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            var size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("File is too large: " + file);
+            }
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        }
+    }
+
+    /**
+     * Returns the lines of the file, decoded using the given charset. Malformed input
+     * is replaced in the same way as by {@link String#String(byte[], Charset)}.
+     */
+    static FileLines of(Path file, Charset charset) throws IOException {
+        return new FileLines(map(file), charset);
+    }
+
+    /**
+     * Returns the lines of the file as UTF-8 if it is valid UTF-8, and otherwise as
+     * ISO-8859-1, in the same way as the contents of files in the working tree are
+     * read when rendering the file views.
+     */
+    static FileLines ofUTF8OrLatin1(Path file) throws IOException {
+        var content = map(file);
+        var decoder = StandardCharsets.UTF_8.newDecoder()
+                                             .onMalformedInput(CodingErrorAction.REPORT)
+                                             .onUnmappableCharacter(CodingErrorAction.REPORT);
+        var input = content.duplicate();
+        var output = CharBuffer.allocate(8192);
+        var charset = StandardCharsets.UTF_8;
+        while (true) {
+            var result = decoder.decode(input, output, true);
+            if (result.isError()) {
+                charset = StandardCharsets.ISO_8859_1;
+                break;
+            }
+            if (result.isUnderflow()) {
+                result = decoder.flush(output);
+                if (result.isError()) {
+                    charset = StandardCharsets.ISO_8859_1;
+                }
+                break;
+            }
+            output.clear();
+        }
+        return new FileLines(content, charset);
+    }
+
+    @Override
+    public String get(int index) {
+        Objects.checkIndex(index, size);
+        var start = starts[index];
+        var end = starts[index + 1];
+        if (end > start && content.get(end - 1) == '\n') {
+            end--;
+        }
+        if (end > start && content.get(end - 1) == '\r') {
+            end--;
+        }
+        var bytes = new byte[end - start];
+        content.get(start, bytes);
+        return new String(bytes, charset);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+}
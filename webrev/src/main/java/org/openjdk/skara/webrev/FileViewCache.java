@@ -0,0 +1,200 @@
+/*
+ * Copyright (c) 2024, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.openjdk.skara.webrev;
+
+import org.openjdk.skara.vcs.*;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.FileTime;
+import java.security.*;
+import java.time.*;
+import java.util.*;
+import java.util.logging.Logger;
+
+/**
+ * Keeps the rendered views of files in a directory, keyed by a hash of everything
+ * that goes into rendering them. When a webrev is generated for a new revision of
+ * a change, the views of files that have not changed since the previous revision
+ * are copied from the cache instead of being rendered again.
+ *
+ * Each entry is a directory containing the fragment of the index page for the file,
+ * the stats of the file and the pages for the file, relative to the webrev output.
+ * Entries that have not been used for {@link #MAX_AGE} are removed by {@link #prune}.
+ */
+class FileViewCache {
+    private static final int FORMAT = 1;
+    private static final String FRAGMENT = "view.html";
+    private static final String STATS = "stats";
+    private static final String FILES = "files";
+    static final Duration MAX_AGE = Duration.ofDays(14);
+
+    private static final Logger log = Logger.getLogger("org.openjdk.skara.webrev");
+
+    interface ViewFactory {
+        FileView create(Path out) throws IOException;
+    }
+
+    private final Path directory;
+
+    FileViewCache(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Returns the key for the view of the given patch. The key covers the complete
+     * patch including paths, file types and hashes of the contents, the surrounding
+     * files used for navigation, the commits listed for the file and the version of
+     * webrev used to render it.
+     */
+    static String key(Patch patch, Navigation navigation, List<String> commits, String version) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException("Cannot find SHA-256");
+        }
+        var w = new StringWriter();
+        w.write("format " + FORMAT + "\n");
+        w.write("version " + version + "\n");
+        w.write("status " + patch.status() + "\n");
+        for (var info : List.of(patch.source(), patch.target())) {
+            w.write("file " + info.path().map(Patch::pathWithUnixSeps).orElse("") + " " +
+                    info.type().map(FileType::toOctal).orElse("") + " " + info.hash().hex() + "\n");
+        }
+        if (navigation != null) {
+            w.write("previous " + (navigation.previous() == null ? "" : Patch.pathWithUnixSeps(navigation.previous())) + "\n");
+            w.write("next " + (navigation.next() == null ? "" : Patch.pathWithUnixSeps(navigation.next())) + "\n");
+        }
+        for (var commit : commits) {
+            w.write("commit " + commit + "\n");
+        }
+        try (var bw = new BufferedWriter(w)) {
+            patch.write(bw);
+        }
+        digest.update(w.toString().getBytes(StandardCharsets.UTF_8));
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * Returns the view for the given key, creating and rendering it with the factory
+     * if it is not already cached. The pages for the file are written to the output
+     * directory in both cases.
+     */
+    FileView render(String key, Path output, ViewFactory factory) throws IOException {
+        var entry = directory.resolve(key);
+        if (Files.isDirectory(entry)) {
+            try {
+                var view = load(entry);
+                copyFiles(entry.resolve(FILES), output);
+                Files.setLastModifiedTime(entry, FileTime.from(Instant.now()));
+                return view;
+            } catch (IOException | RuntimeException e) {
+                log.warning("Ignoring unreadable cached webrev view " + entry + ": " + e.getMessage());
+                delete(entry);
+            }
+        }
+
+        Files.createDirectories(directory);
+        var tmp = Files.createTempDirectory(directory, "tmp");
+        try {
+            var view = new RenderedFileView(factory.create(tmp.resolve(FILES)));
+            var fragment = new StringWriter();
+            view.render(fragment);
+            Files.writeString(tmp.resolve(FRAGMENT), fragment.toString());
+            var stats = view.stats();
+            Files.writeString(tmp.resolve(STATS), stats.added() + " " + stats.removed() + " " +
+                                                  stats.modified() + " " + stats.total() + "\n");
+            copyFiles(tmp.resolve(FILES), output);
+            try {
+                Files.move(tmp, entry, StandardCopyOption.ATOMIC_MOVE);
+            } catch (FileAlreadyExistsException | DirectoryNotEmptyException e) {
+                // Another thread or process rendered the same view
+            }
+            return view;
+        } finally {
+            if (Files.exists(tmp)) {
+                delete(tmp);
+            }
+        }
+    }
+
+    private static FileView load(Path entry) throws IOException {
+        var fragment = Files.readString(entry.resolve(FRAGMENT));
+        var fields = Files.readString(entry.resolve(STATS)).strip().split(" ");
+        if (fields.length != 4) {
+            throw new IOException("Malformed stats");
+        }
+        var stats = new Stats(Integer.parseInt(fields[0]), Integer.parseInt(fields[1]),
+                              Integer.parseInt(fields[2]), Integer.parseInt(fields[3]));
+        return new RenderedFileView(fragment, stats);
+    }
+
+    private static void copyFiles(Path from, Path to) throws IOException {
+        if (!Files.isDirectory(from)) {
+            return;
+        }
+        try (var files = Files.walk(from)) {
+            for (var file : (Iterable<Path>) files::iterator) {
+                if (Files.isRegularFile(file)) {
+                    var target = to.resolve(from.relativize(file).toString());
+                    Files.createDirectories(target.getParent());
+                    Files.copy(file, target, StandardCopyOption.REPLACE_EXISTING);
+                }
+            }
+        }
+    }
+
+    private static void delete(Path path) {
+        try (var files = Files.walk(path)) {
+            files.sorted(Comparator.reverseOrder())
+                 .forEach(p -> p.toFile().delete());
+        } catch (IOException e) {
+            log.warning("Failed to delete " + path + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Removes the entries that have not been used since the given time, as well as
+     * leftovers from interrupted renderings.
+     */
+    void prune(Instant unusedSince) {
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        try (var entries = Files.list(directory)) {
+            for (var entry : (Iterable<Path>) entries::iterator) {
+                try {
+                    if (Files.getLastModifiedTime(entry).toInstant().isBefore(unusedSince)) {
+                        delete(entry);
+                    }
+                } catch (IOException e) {
+                    // Removed concurrently
+                }
+            }
+        } catch (IOException e) {
+            log.warning("Failed to prune webrev cache " + directory + ": " + e.getMessage());
+        }
+    }
+}
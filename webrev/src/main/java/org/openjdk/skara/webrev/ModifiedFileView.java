@@ -26,8 +26,6 @@ import org.openjdk.skara.vcs.*;
 
 import java.io.*;
 import java.nio.file.*;
-import java.nio.charset.StandardCharsets;
-import java.nio.charset.MalformedInputException;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -42,7 +40,7 @@ class ModifiedFileView implements FileView {
     private final byte[] binaryContent;
     private final Stats stats;
 
-    public ModifiedFileView(ReadOnlyRepository repo, Hash base, Hash head, List<CommitMetadata> commits, MetadataFormatter formatter, Patch patch, Path out, Navigation navigation) throws IOException {
+    public ModifiedFileView(ReadOnlyRepository repo, ContentReader content, Hash base, Hash head, List<CommitMetadata> commits, MetadataFormatter formatter, Patch patch, Path out, Navigation navigation) throws IOException {
         this.patch = patch;
         this.out = out;
         this.navigation = navigation;
@@ -56,7 +54,7 @@ class ModifiedFileView implements FileView {
                                                    patch.target().path().get())
             );
 
-            oldContent = repo.lines(sourcePath, base).orElseThrow(() ->
+            oldContent = content.lines(sourcePath, base).orElseThrow(() ->
                 new IllegalArgumentException("Could not get content for file " +
                                                    sourcePath + " at revision " + base)
             );
@@ -64,29 +62,17 @@ class ModifiedFileView implements FileView {
                 var path = repo.root().resolve(patch.target().path().get());
                 if (patch.target().type().get().isVCSLink()) {
                     var tip = repo.head();
-                    var content = repo.lines(patch.target().path().get(), tip).orElseThrow(() ->
+                    var lines = repo.lines(patch.target().path().get(), tip).orElseThrow(() ->
                         new IllegalArgumentException("Could not get content for file " +
                                                            patch.target().path().get() +
                                                            " at revision " + tip)
                     );
-                    newContent = List.of(content.get(0) + "-dirty");
+                    newContent = List.of(lines.get(0) + "-dirty");
                 } else {
-                    List<String> lines = null;
-                    for (var charset : List.of(StandardCharsets.UTF_8, StandardCharsets.ISO_8859_1)) {
-                        try {
-                            lines = Files.readAllLines(repo.root().resolve(path), charset);
-                            break;
-                        } catch (MalformedInputException e) {
-                            continue;
-                        }
-                    }
-                    if (lines == null) {
-                        throw new IllegalStateException("Could not read " + path + " as UTF-8 nor as ISO-8859-1");
-                    }
-                    newContent = lines;
+                    newContent = content.lines(repo.root().resolve(path));
                 }
             } else {
-                newContent = repo.lines(patch.target().path().get(), head).orElseThrow(() ->
+                newContent = content.lines(patch.target().path().get(), head).orElseThrow(() ->
                     new IllegalArgumentException("Could not get content for file " +
                                                        patch.target().path().get() +
                                                        " at revision " + head)
@@ -38,14 +38,14 @@ class RemovedFileView implements FileView {
     private final byte[] binaryContent;
     private final Stats stats;
 
-    public RemovedFileView(ReadOnlyRepository repo, Hash base, Hash head, List<CommitMetadata> commits, MetadataFormatter formatter, Patch patch, Path out) throws IOException {
+    public RemovedFileView(ReadOnlyRepository repo, ContentReader content, Hash base, Hash head, List<CommitMetadata> commits, MetadataFormatter formatter, Patch patch, Path out) throws IOException {
         this.patch = patch;
         this.out = out;
         this.commits = commits;
         this.formatter = formatter;
         if (patch.isTextual()) {
             binaryContent = null;
-            oldContent = repo.lines(patch.source().path().get(), base).orElseThrow(IllegalArgumentException::new);
+            oldContent = content.lines(patch.source().path().get(), base).orElseThrow(IllegalArgumentException::new);
             stats = new Stats(patch.asTextualPatch().stats(), oldContent.size());
         } else {
             oldContent = null;
@@ -0,0 +1,57 @@
+/*
+ * Copyright (c) 2024, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.openjdk.skara.webrev;
+
+import java.io.*;
+
+/**
+ * A file view that has already been rendered, so that the file views can be
+ * created and rendered concurrently while the index is still written in order,
+ * or read back from a {@link FileViewCache}.
+ */
+class RenderedFileView implements FileView {
+    private final String rendered;
+    private final Stats stats;
+
+    RenderedFileView(FileView view) throws IOException {
+        var w = new StringWriter();
+        view.render(w);
+        rendered = w.toString();
+        stats = view.stats();
+    }
+
+    RenderedFileView(String rendered, Stats stats) {
+        this.rendered = rendered;
+        this.stats = stats;
+    }
+
+    @Override
+    public Stats stats() {
+        return stats;
+    }
+
+    @Override
+    public void render(Writer w) throws IOException {
+        w.write(rendered);
+    }
+}
@@ -31,6 +31,8 @@ import java.net.URISyntaxException;
 import java.nio.channels.FileChannel;
 import java.nio.file.*;
 import java.util.*;
+import java.util.concurrent.*;
+import java.time.Instant;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.logging.Logger;
@@ -86,6 +88,9 @@ public class Webrev {
         private List<Path> files = List.of();
         private int similarity = 90;
         private boolean comments;
+        private int threads = Math.min(Runtime.getRuntime().availableProcessors(), 8);
+        private Path cache;
+        private boolean streaming;
 
         Builder(ReadOnlyRepository repository, Path output) {
             this.repository = repository;
@@ -169,6 +174,40 @@ public class Webrev {
             return this;
         }
 
+        /**
+         * The number of threads used to read the file contents and render the
+         * views of the modified files. The generated webrev does not depend on
+         * the number of threads.
+         */
+        public Builder threads(int threads) {
+            if (threads < 1) {
+                throw new IllegalArgumentException("threads must be positive: " + threads);
+            }
+            this.threads = threads;
+            return this;
+        }
+
+        /**
+         * A directory where the rendered views of each file are kept, so that files
+         * that have not changed since a previous webrev are not rendered again. The
+         * cache is only used when generating a webrev between two commits.
+         */
+        public Builder cache(Path directory) {
+            this.cache = directory;
+            return this;
+        }
+
+        /**
+         * Reads the contents of the files on demand from temporary files instead of
+         * keeping them in memory while rendering, so that the memory used does not
+         * depend on the size of the files. Webrevs are then generated regardless of
+         * the number of changes, instead of throwing DiffTooLargeException.
+         */
+        public Builder streaming(boolean streaming) {
+            this.streaming = streaming;
+            return this;
+        }
+
         public void generate(Hash tailEnd) throws IOException, DiffTooLargeException {
             generate(tailEnd, null);
         }
@@ -252,6 +291,7 @@ public class Webrev {
             );
             metadata.put("head", headObj);
 
+            var hasMergeCommits = hasMergeCommits(tailEnd, head);
             var pathsPerCommit = new HashMap<Hash, List<Path>>();
             var comparison = JSON.object();
             var files = JSON.array();
@@ -303,7 +343,7 @@ public class Webrev {
                     file.put("patch", sb.toString());
                 }
                 files.add(file);
-                var commits = hasMergeCommits(tailEnd, head) ?
+                var commits = hasMergeCommits ?
                     repository.commitMetadata(repository.rangeInclusive(tailEnd, head), List.of(filename)) :
                     repository.follow(filename, tailEnd, head);
                 for (var commit : commits) {
@@ -336,7 +376,7 @@ public class Webrev {
         }
 
         private void generate(Diff diff, Hash tailEnd, Hash head) throws IOException, DiffTooLargeException {
-            if (diffTooLarge(diff)) {
+            if (!streaming && diffTooLarge(diff)) {
                 throw new DiffTooLargeException();
             }
             Files.createDirectories(output);
@@ -400,22 +440,44 @@ public class Webrev {
                             files.stream().map(Path::toString).collect(Collectors.joining(", "));
             log.fine("Generating webrev from " + tailEnd + " to " + headHash + filesDesc);
 
-            var fileViews = new ArrayList<FileView>();
+            var paths = patches.stream()
+                               .map(p -> p.status().isDeleted() ? p.source().path().get() : p.target().path().get())
+                               .collect(Collectors.toList());
+            var commitsPerPath = comments ?
+                repository.commitMetadataPerPath(tailEnd, headHash, paths) :
+                Map.<Path, List<CommitMetadata>>of();
+
             var formatter = new MetadataFormatter(issueLinker);
-            for (var patch : patches) {
+            var viewCache = cache != null && head != null ? new FileViewCache(cache) : null;
+            var tasks = new ArrayList<Callable<FileView>>();
+            for (var i = 0; i < patches.size(); i++) {
+                var patch = patches.get(i);
                 var status = patch.status();
-                var path = status.isDeleted() ?
-                    patch.source().path().get() :
-                    patch.target().path().get();
-                var commits = comments ? repository.commitMetadata(tailEnd, headHash, List.of(path)) : Collections.<CommitMetadata>emptyList();
+                var commits = commitsPerPath.getOrDefault(paths.get(i), List.of());
+                ViewFactory factory;
+                Navigation navigation = null;
                 if (status.isModified() || status.isRenamed() || status.isCopied()) {
                     var nav = navigations.removeFirst();
-                    fileViews.add(new ModifiedFileView(repository, tailEnd, head, commits, formatter, patch, output, nav));
+                    navigation = nav;
+                    factory = (content, out) -> new ModifiedFileView(repository, content, tailEnd, head, commits, formatter, patch, out, nav);
                 } else if (status.isAdded()) {
-                    fileViews.add(new AddedFileView(repository, tailEnd, head, commits, formatter, patch, output));
+                    factory = (content, out) -> new AddedFileView(repository, content, tailEnd, head, commits, formatter, patch, out);
                 } else if (status.isDeleted()) {
-                    fileViews.add(new RemovedFileView(repository, tailEnd, head, commits, formatter, patch, output));
+                    factory = (content, out) -> new RemovedFileView(repository, content, tailEnd, head, commits, formatter, patch, out);
+                } else {
+                    continue;
                 }
+                if (viewCache != null) {
+                    var formatted = commits.stream().map(formatter::format).collect(Collectors.toList());
+                    var key = FileViewCache.key(patch, navigation, formatted, version);
+                    tasks.add(() -> viewCache.render(key, output, out -> renderFileView(factory, out)));
+                } else {
+                    tasks.add(() -> renderFileView(factory, output));
+                }
+            }
+            var fileViews = renderFileViews(tasks);
+            if (viewCache != null) {
+                viewCache.prune(Instant.now().minus(FileViewCache.MAX_AGE));
             }
 
             var total = fileViews.stream().map(FileView::stats).mapToInt(Stats::total).sum();
@@ -456,6 +518,86 @@ public class Webrev {
             }
         }
 
+        private interface ViewFactory {
+            FileView create(ContentReader content, Path out) throws IOException;
+        }
+
+        /**
+         * Creates and renders a single file view. When streaming, the contents of the
+         * files are kept in a temporary directory that is removed once the view has
+         * been rendered.
+         */
+        private FileView renderFileView(ViewFactory factory, Path out) throws IOException {
+            if (!streaming) {
+                return new RenderedFileView(factory.create(new ContentReader(repository), out));
+            }
+            var directory = Files.createTempDirectory("webrev");
+            try {
+                return new RenderedFileView(factory.create(new ContentReader(repository, directory), out));
+            } finally {
+                try (var files = Files.walk(directory)) {
+                    files.sorted(Comparator.reverseOrder())
+                         .forEach(p -> p.toFile().delete());
+                }
+            }
+        }
+
+        /**
+         * Creates and renders the file views, which reads the file contents from the
+         * repository and writes the per-file pages. The views are independent of each
+         * other, so they are processed concurrently and returned in the original order.
+         */
+        private List<FileView> renderFileViews(List<Callable<FileView>> tasks) throws IOException {
+            var fileViews = new ArrayList<FileView>();
+            if (threads == 1 || tasks.size() < 2) {
+                for (var task : tasks) {
+                    fileViews.add(call(task));
+                }
+                return fileViews;
+            }
+
+            var executor = Executors.newFixedThreadPool(Math.min(threads, tasks.size()));
+            try {
+                var futures = new ArrayList<Future<FileView>>();
+                for (var task : tasks) {
+                    futures.add(executor.submit(task));
+                }
+                for (var future : futures) {
+                    try {
+                        fileViews.add(future.get());
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new IOException("Interrupted while rendering webrev", e);
+                    } catch (ExecutionException e) {
+                        var cause = e.getCause();
+                        if (cause instanceof IOException ioException) {
+                            throw ioException;
+                        }
+                        if (cause instanceof RuntimeException runtimeException) {
+                            throw runtimeException;
+                        }
+                        if (cause instanceof Error error) {
+                            throw error;
+                        }
+                        throw new IOException(cause);
+                    }
+                }
+            } finally {
+                executor.shutdownNow();
+            }
+            return fileViews;
+        }
+
+        private static FileView call(Callable<FileView> task) throws IOException {
+            try {
+                return task.call();
+            } catch (IOException | RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new IOException(e);
+            }
+        }
+
         private void copyResource(String name) throws IOException {
             var stream = this.getClass().getResourceAsStream("/" + name);
             if (stream == null) {
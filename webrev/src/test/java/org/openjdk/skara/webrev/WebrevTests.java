@@ -23,6 +23,7 @@
 package org.openjdk.skara.webrev;
 
 import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
 import org.openjdk.skara.test.TemporaryDirectory;
 import org.openjdk.skara.test.TestableRepository;
 import org.openjdk.skara.vcs.*;
@@ -31,8 +32,13 @@ import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.EnumSource;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.*;
+import java.util.*;
+import java.util.stream.Collectors;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assumptions.assumeFalse;
 
@@ -221,4 +227,153 @@ class WebrevTests {
         }
     }
 
+    @ParameterizedTest
+    @EnumSource(VCS.class)
+    void sameOutputWithThreads(VCS vcs) throws IOException, DiffTooLargeException {
+        assumeFalse(vcs == VCS.HG && !hgAvailable);
+        try (var repoFolder = new TemporaryDirectory();
+             var webrevFolder = new TemporaryDirectory()) {
+            var repo = TestableRepository.init(repoFolder.path(), vcs);
+            var removed = repoFolder.path().resolve("removed.txt");
+            Files.writeString(removed, "removed\n");
+            repo.add(removed);
+            for (var i = 0; i < 10; i++) {
+                var file = repoFolder.path().resolve("dir" + i % 3).resolve("file" + i + ".txt");
+                Files.createDirectories(file.getParent());
+                Files.writeString(file, "1\n2\n3\n");
+                repo.add(file);
+            }
+            var hash1 = repo.commit("Commit", "a", "a@a.a");
+            for (var i = 0; i < 10; i += 2) {
+                var file = repoFolder.path().resolve("dir" + i % 3).resolve("file" + i + ".txt");
+                Files.writeString(file, "1\n2\n3\n" + i + "\n");
+                repo.add(file);
+            }
+            repo.remove(removed);
+            var added = repoFolder.path().resolve("added.txt");
+            Files.writeString(added, "added\n");
+            repo.add(added);
+            var hash2 = repo.commit("Commit 2", "a", "a@a.a");
+
+            var sequential = webrevFolder.path().resolve("sequential");
+            var parallel = webrevFolder.path().resolve("parallel");
+            new Webrev.Builder(repo, sequential).comments(true).threads(1).generate(hash1, hash2);
+            new Webrev.Builder(repo, parallel).comments(true).threads(4).generate(hash1, hash2);
+
+            assertSameFiles(sequential, parallel);
+            assertContains(sequential.resolve("index.html"), "Commit 2");
+        }
+    }
+
+    private static void assertSameFiles(Path expected, Path actual) throws IOException {
+        var files = new ArrayList<Path>();
+        try (var paths = Files.walk(expected)) {
+            paths.filter(Files::isRegularFile).forEach(p -> files.add(expected.relativize(p)));
+        }
+        try (var paths = Files.walk(actual)) {
+            assertEquals(files.size(), paths.filter(Files::isRegularFile).count());
+        }
+        for (var file : files) {
+            assertArrayEquals(Files.readAllBytes(expected.resolve(file)), Files.readAllBytes(actual.resolve(file)), file.toString());
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(VCS.class)
+    void cachedViews(VCS vcs) throws IOException, DiffTooLargeException {
+        assumeFalse(vcs == VCS.HG && !hgAvailable);
+        try (var repoFolder = new TemporaryDirectory();
+             var webrevFolder = new TemporaryDirectory()) {
+            var repo = TestableRepository.init(repoFolder.path(), vcs);
+            var files = new ArrayList<Path>();
+            for (var i = 0; i < 5; i++) {
+                var file = repoFolder.path().resolve("file" + i + ".txt");
+                Files.writeString(file, "1\n2\n3\n");
+                repo.add(file);
+                files.add(file);
+            }
+            var base = repo.commit("Base", "a", "a@a.a");
+            for (var file : files) {
+                Files.writeString(file, "1\n2\n3\n4\n");
+                repo.add(file);
+            }
+            var first = repo.commit("First revision", "a", "a@a.a");
+            Files.writeString(files.get(4), "1\n2\n3\n4\n5\n");
+            repo.add(files.get(4));
+            var second = repo.commit("Second revision", "a", "a@a.a");
+
+            var cache = webrevFolder.path().resolve("cache");
+            new Webrev.Builder(repo, webrevFolder.path().resolve("00")).cache(cache).generate(base, first);
+            try (var entries = Files.list(cache)) {
+                assertEquals(5, entries.count());
+            }
+
+            // Only the view of the last file has to be rendered again
+            var cached = webrevFolder.path().resolve("01");
+            new Webrev.Builder(repo, cached).cache(cache).generate(base, second);
+            try (var entries = Files.list(cache)) {
+                assertEquals(6, entries.count());
+            }
+
+            var uncached = webrevFolder.path().resolve("01-uncached");
+            new Webrev.Builder(repo, uncached).generate(base, second);
+            assertSameFiles(uncached, cached);
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(VCS.class)
+    void streaming(VCS vcs) throws IOException, DiffTooLargeException {
+        assumeFalse(vcs == VCS.HG && !hgAvailable);
+        try (var repoFolder = new TemporaryDirectory();
+             var webrevFolder = new TemporaryDirectory()) {
+            var repo = TestableRepository.init(repoFolder.path(), vcs);
+            var modified = repoFolder.path().resolve("modified.txt");
+            Files.writeString(modified, "1\r\n2\r\n3\r\n\r\n5");
+            var removed = repoFolder.path().resolve("removed.txt");
+            Files.writeString(removed, "removed\n\n");
+            var latin1 = repoFolder.path().resolve("latin1.txt");
+            Files.write(latin1, new byte[] {'a', '\n', (byte) 0xe5, '\n'});
+            repo.add(modified, removed, latin1);
+            var hash1 = repo.commit("Commit", "a", "a@a.a");
+
+            Files.writeString(modified, "1\r\n2\r\nthree\r\n\r\n5\n\u00e5\u00e4\u00f6\n");
+            repo.remove(removed);
+            var added = repoFolder.path().resolve("added.txt");
+            Files.writeString(added, "added\r\n");
+            Files.write(latin1, new byte[] {'b', '\n', (byte) 0xe5, '\n'});
+            repo.add(modified, added, latin1);
+            var hash2 = repo.commit("Commit 2", "a", "a@a.a");
+
+            var inMemory = webrevFolder.path().resolve("memory");
+            var streamed = webrevFolder.path().resolve("streamed");
+            new Webrev.Builder(repo, inMemory).generate(hash1, hash2);
+            new Webrev.Builder(repo, streamed).streaming(true).generate(hash1, hash2);
+            assertSameFiles(inMemory, streamed);
+
+            // Changes in the working tree
+            Files.writeString(modified, "1\r\n2\r\nthree\r\nfour\r\n5\n");
+            Files.write(latin1, new byte[] {'c', '\n', (byte) 0xe5, '\n'});
+            var workingInMemory = webrevFolder.path().resolve("working-memory");
+            var workingStreamed = webrevFolder.path().resolve("working-streamed");
+            new Webrev.Builder(repo, workingInMemory).generate(hash1);
+            new Webrev.Builder(repo, workingStreamed).streaming(true).generate(hash1);
+            assertSameFiles(workingInMemory, workingStreamed);
+        }
+    }
+
+    @Test
+    void fileLines() throws IOException {
+        try (var tmp = new TemporaryDirectory()) {
+            var file = tmp.path().resolve("file");
+            for (var content : List.of("", "a", "a\n", "a\r\nb", "\n\n\r\r\n", "a\rb\r", "\u00e5\n\u00e4")) {
+                Files.writeString(file, content);
+                assertEquals(content.lines().collect(Collectors.toList()), new ArrayList<>(FileLines.of(file, StandardCharsets.UTF_8)));
+                assertEquals(content.lines().collect(Collectors.toList()), new ArrayList<>(FileLines.ofUTF8OrLatin1(file)));
+            }
+            Files.write(file, new byte[] {'a', (byte) 0xe5, '\n', 'b'});
+            assertEquals(List.of("a\u00e5", "b"), new ArrayList<>(FileLines.ofUTF8OrLatin1(file)));
+            assertEquals(List.of("a\ufffd", "b"), new ArrayList<>(FileLines.of(file, StandardCharsets.UTF_8)));
+        }
+    }
 }